@@ -0,0 +1,76 @@
+package controller;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.HomeShowSqliteDAO;
+import model.ModelBenchLibrary;
+import model.ModelDataCell;
+import model.ModelDataRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import view.ViewDataCell;
+import view.ViewDataRow;
+
+/**
+ * Benchmarks of the conversion of search results from model rows to view rows, and of search criteria from view cells
+ * to model cells.
+ * @author Janty Azmat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dhomeshow.quick.aggregate=false") // The quick searches one row per role (as grouped in the view)
+public class AppMappingBenchmark {
+	// Fields
+	@Param({ "10000" })
+	public int showCount;
+	@Param({ "ka" })
+	public String searchText; // A syllable of the generated titles and names
+	private List<ModelDataRow> meRows;
+	private List<ViewDataCell<?>> meViewCrit;
+
+	@Setup(Level.Trial)
+	public void searchLibrary() throws SQLException, IOException {
+		try (HomeShowSqliteDAO tmpDAO = ModelBenchLibrary.open(this.showCount)) {
+			ModelDataRow tmpTmpl = tmpDAO.getQuickSearchTemplates().get(0);
+			this.meRows = tmpDAO.getData(ModelBenchLibrary.createQuickCriteria(tmpTmpl, this.searchText), tmpTmpl.getPreparedStatement());
+			this.meViewCrit = new ArrayList<>();
+			for (ModelDataCell<?> cell : ModelBenchLibrary.createQuickCriteria(tmpTmpl, this.searchText)) {
+				this.meViewCrit.add(AppHive.parseViewDataCell(cell));
+			}
+		}
+	}
+
+	@Benchmark
+	public void modelToViewRows(Blackhole theHole) {
+		for (ModelDataRow row : this.meRows) {
+			ViewDataRow tmpRow = AppHive.parseViewResultRow(row);
+			for (ViewDataCell<?> cell : tmpRow.getCells()) {
+				theHole.consume(cell.getValue());
+			}
+		}
+	}
+
+	@Benchmark
+	public void viewToModelCriteria(Blackhole theHole) {
+		for (ViewDataCell<?> cell : this.meViewCrit) {
+			theHole.consume(AppHive.parseModelDataCell(cell));
+		}
+	}
+}
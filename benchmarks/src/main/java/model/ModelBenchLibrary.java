@@ -0,0 +1,190 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import model.HomeShowSqliteDAO.ModelPersRole;
+
+/**
+ * A class that generates (once per scale) a synthetic rip library database for the benchmarks. The generated data is
+ * deterministic, so the results of different runs (and different versions) are comparable.
+ * @author Janty Azmat
+ */
+public class ModelBenchLibrary {
+	// Fields
+	private static final String me_DIR_PROP = "homeshow.bench.dir"; // System property to change where the generated libraries are kept
+	private static final String[] me_SYLLABLES = { "ka", "to", "mi", "ra", "nu", "se", "lo", "vi", "de", "po", "ga", "shi", "ne", "ru", "fa", "bel", "tor", "an", "is", "mar" };
+	private static final String[] me_GENRES = { "Action", "Adventure", "Animation", "Biography", "Comedy", "Crime", "Documentary", "Drama", "Family", "Fantasy",
+			"History", "Horror", "Music", "Mystery", "Romance", "Sci-Fi", "Sport", "Thriller", "War", "Western" };
+	private static final ModelPersRole[] me_ROLES = ModelPersRole.ALL_BUT_NULL.toArray(new ModelPersRole[0]);
+	private static final int me_ROLES_PER_SHOW = 3;
+	private static final int me_COMMIT_INTERVAL = 10000;
+
+	private ModelBenchLibrary() {} // Not to be instantiated
+
+	/**
+	 * Opens (generating it first if it does not exist) the library with the specified number of shows.
+	 * @param showCount		the number of shows
+	 * @return				the DAO connected to the library
+	 * @throws SQLException	thrown if a database access error/timeout occurs
+	 * @throws IOException	thrown if the library file cannot be created
+	 */
+	public static HomeShowSqliteDAO open(int showCount) throws SQLException, IOException {
+		Path tmpDir = Paths.get(System.getProperty(me_DIR_PROP, "target/bench-libraries"));
+		Path tmpFile = tmpDir.resolve("library-" + showCount + ".db");
+		if (!Files.exists(tmpFile)) {
+			Files.createDirectories(tmpDir);
+			Path tmpPartial = tmpDir.resolve("library-" + showCount + ".db.partial"); // Renamed only when complete
+			deleteDatabase(tmpPartial); // (With the journal files of an interrupted run)
+			try (HomeShowSqliteDAO tmpDAO = new HomeShowSqliteDAO("jdbc:sqlite:" + tmpPartial)) {
+				seed(tmpDAO, showCount);
+			}
+			Files.move(tmpPartial, tmpFile, StandardCopyOption.ATOMIC_MOVE);
+		}
+		return new HomeShowSqliteDAO("jdbc:sqlite:" + tmpFile);
+	}
+
+	/**
+	 * Deletes the specified database file with its write-ahead log and shared memory files (if they exist), so that a
+	 * database later created at the same path does not pick up the journal of an old one.
+	 * @param theFile		the database file
+	 * @throws IOException	thrown if a file cannot be deleted
+	 */
+	public static void deleteDatabase(Path theFile) throws IOException {
+		Files.deleteIfExists(theFile);
+		Files.deleteIfExists(Paths.get(theFile + "-wal"));
+		Files.deleteIfExists(Paths.get(theFile + "-shm"));
+	}
+
+	/**
+	 * Inserts the specified number of shows (with their personnel, roles and genres) using the bulk insert.
+	 * @param theDAO		the DAO to insert into
+	 * @param showCount		the number of shows
+	 * @return				the reports of the bulk inserts (in the order: genres, personnel, shows, roles, show genres)
+	 * @throws SQLException	thrown if a database access error/timeout occurs
+	 */
+	public static List<ModelBulkInsertReport> seed(HomeShowSqliteDAO theDAO, int showCount) throws SQLException {
+		ModelDataRow tmpPersonnel = findTemplate(theDAO, "personnel");
+		ModelDataRow tmpParticipates = findTemplate(theDAO, "participates");
+		ModelDataRow tmpShow = findTemplate(theDAO, "show");
+		ModelDataRow tmpHasGenre = findTemplate(theDAO, "hasgenre");
+		ModelDataRow tmpGenre = findTemplate(theDAO, "genre");
+		int tmpPersonnelCount = getPersonnelCount(showCount);
+		List<ModelBulkInsertReport> outReports = new ArrayList<>();
+		outReports.add(theDAO.insertRows(Stream.of(me_GENRES).map(genre -> createRow(tmpGenre, genre)), me_COMMIT_INTERVAL));
+		outReports.add(theDAO.insertRows(IntStream.range(0, tmpPersonnelCount).mapToObj(i -> createRow(tmpPersonnel, getFirstName(i), getLastName(i))), me_COMMIT_INTERVAL));
+		outReports.add(theDAO.insertRows(IntStream.range(0, showCount).mapToObj(i -> createRow(tmpShow, getTitle(i), getYear(i), 20 + i % 160, "/library/" + getTitle(i), i % 3 != 0)), me_COMMIT_INTERVAL));
+		outReports.add(theDAO.insertRows(IntStream.range(0, showCount * me_ROLES_PER_SHOW).mapToObj(i -> {
+			int tmpShowNo = i / me_ROLES_PER_SHOW;
+			int tmpPersNo = (int)((tmpShowNo * 7919L + i * 104729L) % tmpPersonnelCount);
+			return createRow(tmpParticipates, getFirstName(tmpPersNo), getLastName(tmpPersNo), getTitle(tmpShowNo), getYear(tmpShowNo), me_ROLES[i % me_ROLES.length]);
+		}), me_COMMIT_INTERVAL));
+		outReports.add(theDAO.insertRows(IntStream.range(0, showCount * 2).mapToObj(i -> // Two genres for every show
+				createRow(tmpHasGenre, getTitle(i / 2), getYear(i / 2), me_GENRES[(i / 2 + i % 2 * 7) % me_GENRES.length])), me_COMMIT_INTERVAL));
+		return outReports;
+	}
+
+	/**
+	 * Used to get the number of personnel generated for the specified number of shows.
+	 * @param showCount	the number of shows
+	 * @return			the number of personnel
+	 */
+	public static int getPersonnelCount(int showCount) {
+		return Math.max(showCount / 2, 100);
+	}
+
+	/**
+	 * Used to get the title of the show with the specified number.
+	 * @param showNo	the show number
+	 * @return			the title
+	 */
+	public static String getTitle(int showNo) {
+		Random tmpRand = new Random(showNo * 31L + 1L);
+		String[] tmpWords = new String[1 + tmpRand.nextInt(4)];
+		for (int i = 0; i < tmpWords.length; i++) {
+			tmpWords[i] = capitalize(createWord(tmpRand));
+		}
+		return String.join(" ", tmpWords);
+	}
+
+	/**
+	 * Used to get the year of the show with the specified number.
+	 * @param showNo	the show number
+	 * @return			the year
+	 */
+	public static int getYear(int showNo) {
+		return 1900 + showNo % 120;
+	}
+
+	private static String getFirstName(int persNo) {
+		return capitalize(createWord(new Random(persNo * 31L + 2L)));
+	}
+
+	private static String getLastName(int persNo) {
+		return capitalize(createWord(new Random(persNo * 31L + 3L))) + persNo; // The number keeps the names unique
+	}
+
+	private static String createWord(Random theRand) {
+		StringBuilder outWord = new StringBuilder();
+		for (int i = 2 + theRand.nextInt(2); i > 0; i--) {
+			outWord.append(me_SYLLABLES[theRand.nextInt(me_SYLLABLES.length)]);
+		}
+		return outWord.toString();
+	}
+
+	private static String capitalize(String theWord) {
+		return Character.toUpperCase(theWord.charAt(0)) + theWord.substring(1);
+	}
+
+	private static ModelDataRow findTemplate(HomeShowSqliteDAO theDAO, String theTable) {
+		return theDAO.getTableTemplates().stream().filter(row -> row.getTableName().equals(theTable)).findFirst().get();
+	}
+
+	private static ModelDataRow createRow(ModelDataRow theTemplate, Object... theValues) {
+		List<ModelDataCell<?>> tmpCells = new ArrayList<>();
+		for (int i = 0; i < theValues.length; i++) {
+			tmpCells.add(createCell(theTemplate.getCells().get(i), theValues[i]));
+		}
+		return new ModelDataRow(theTemplate.getTableName(), theTemplate.getPreparedStatement(), tmpCells);
+	}
+
+	private static <X> ModelDataCell<X> createCell(ModelDataCell<X> theTemplate, Object theValue) {
+		return new ModelDataCell<>(theTemplate.getColumnName(), theTemplate.getTableName(), theTemplate.getValueClass().cast(theValue), theTemplate.getValueClass(),
+				theTemplate.getSqlType(), theTemplate.isKey(), theTemplate.isSearchOnEdit());
+	}
+
+	/**
+	 * Creates the criteria cells for a quick search template (the first cell gets the specified text, others are left empty).
+	 * @param theTemplate	the quick search template
+	 * @param theText		the text to search for
+	 * @return				the criteria cells
+	 */
+	public static List<ModelDataCell<?>> createQuickCriteria(ModelDataRow theTemplate, String theText) {
+		List<ModelDataCell<?>> outCrit = new ArrayList<>();
+		theTemplate.getCells().forEach(cell -> outCrit.add(createCell(cell, outCrit.isEmpty() ? theText : cell.getValue())));
+		return outCrit;
+	}
+
+	/**
+	 * Creates the criteria cells for an auto-built search that joins all the tables, from personnel (with the specified
+	 * first name text) to genre (selected).
+	 * @param theDAO	the DAO to get the table templates from
+	 * @param theText	the text to search the first names for
+	 * @return			the criteria cells
+	 */
+	public static List<ModelDataCell<?>> createJoinCriteria(HomeShowSqliteDAO theDAO, String theText) {
+		ModelDataRow tmpPersonnel = findTemplate(theDAO, "personnel");
+		ModelDataRow tmpShow = findTemplate(theDAO, "show");
+		ModelDataRow tmpGenre = findTemplate(theDAO, "genre");
+		return Arrays.asList(createCell(tmpPersonnel.getCells().get(0), theText), createCell(tmpShow.getCells().get(0), ""), createCell(tmpGenre.getCells().get(0), ""));
+	}
+}
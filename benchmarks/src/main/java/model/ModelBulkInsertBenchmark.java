@@ -0,0 +1,57 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the bulk insert (of a whole generated library into an empty database).
+ * @author Janty Azmat
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ModelBulkInsertBenchmark {
+	// Fields
+	@Param({ "10000" })
+	public int showCount;
+	private Path meFile;
+	private HomeShowSqliteDAO meDAO;
+
+	@Setup(Level.Iteration)
+	public void createEmptyDatabase() throws SQLException, IOException {
+		this.meFile = Files.createTempFile("homeshow-bulk", ".db");
+		ModelBenchLibrary.deleteDatabase(this.meFile); // Only the name is kept (the database is created empty, without an old journal)
+		this.meDAO = new HomeShowSqliteDAO("jdbc:sqlite:" + this.meFile);
+	}
+
+	@TearDown(Level.Iteration)
+	public void deleteDatabase() throws SQLException, IOException {
+		this.meDAO.close();
+		ModelBenchLibrary.deleteDatabase(this.meFile);
+	}
+
+	@Benchmark
+	public List<ModelBulkInsertReport> insertLibrary() throws SQLException {
+		return ModelBenchLibrary.seed(this.meDAO, this.showCount);
+	}
+}
@@ -0,0 +1,112 @@
+package model;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the searches (building and binding the statements, running them, and mapping the result rows) over a
+ * generated library. The scale is set with '-p showCount=10000,100000,1000000'.
+ * @author Janty Azmat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Dhomeshow.result.cache=0", "-Dhomeshow.slow.query.ms=-1" }) // Measures the searches themselves (not the result cache or the slow query log)
+public class ModelSearchBenchmark {
+	// Fields
+	@Param({ "10000" })
+	public int showCount;
+	@Param({ "ka" })
+	public String searchText; // A syllable of the generated titles and names
+	private HomeShowSqliteDAO meDAO;
+	private List<ModelDataCell<?>> meShowCrit;
+	private List<ModelDataCell<?>> mePersonnelCrit;
+	private List<ModelDataCell<?>> meShowWordsCrit;
+	private List<ModelDataCell<?>> meJoinCrit;
+	private String meShowStat;
+	private String mePersonnelStat;
+	private String meShowWordsStat;
+
+	@Setup(Level.Trial)
+	public void openLibrary() throws SQLException, IOException {
+		this.meDAO = ModelBenchLibrary.open(this.showCount);
+		for (ModelDataRow tmpl : this.meDAO.getQuickSearchTemplates()) {
+			switch (tmpl.getCells().get(0).getTableName()) {
+				case "personnel":
+					this.mePersonnelCrit = ModelBenchLibrary.createQuickCriteria(tmpl, this.searchText);
+					this.mePersonnelStat = tmpl.getPreparedStatement();
+					break;
+				case "show":
+					this.meShowCrit = ModelBenchLibrary.createQuickCriteria(tmpl, this.searchText);
+					this.meShowStat = tmpl.getPreparedStatement();
+					break;
+				case "show_fts":
+					this.meShowWordsCrit = ModelBenchLibrary.createQuickCriteria(tmpl, this.searchText);
+					this.meShowWordsStat = tmpl.getPreparedStatement();
+			}
+		}
+		this.meJoinCrit = ModelBenchLibrary.createJoinCriteria(this.meDAO, this.searchText);
+	}
+
+	@TearDown(Level.Trial)
+	public void closeLibrary() throws SQLException {
+		this.meDAO.close();
+	}
+
+	@Benchmark
+	public void quickSearchShows(Blackhole theHole) throws SQLException {
+		consumeAll(this.meDAO.getData(this.meShowCrit, this.meShowStat), theHole);
+	}
+
+	@Benchmark
+	public void quickSearchPersonnel(Blackhole theHole) throws SQLException {
+		consumeAll(this.meDAO.getData(this.mePersonnelCrit, this.mePersonnelStat), theHole);
+	}
+
+	@Benchmark
+	public void fullTextSearchShows(Blackhole theHole) throws SQLException {
+		consumeAll(this.meDAO.getData(this.meShowWordsCrit, this.meShowWordsStat), theHole);
+	}
+
+	@Benchmark
+	public void autoBuiltJoin(Blackhole theHole) throws SQLException {
+		consumeAll(this.meDAO.getData(this.meJoinCrit, null), theHole);
+	}
+
+	@Benchmark
+	public void autoBuiltJoinFirstPage(Blackhole theHole) throws SQLException {
+		List<ModelDataRow> tmpRes = this.meDAO.getDataPaged(this.meJoinCrit, null, row -> row);
+		theHole.consume(tmpRes.size());
+	}
+
+	/**
+	 * Reads every cell of the rows (the result rows are views that create their cells when accessed).
+	 * @param theRows	the rows
+	 * @param theHole	the blackhole that consumes the values
+	 */
+	static void consumeAll(List<ModelDataRow> theRows, Blackhole theHole) {
+		for (ModelDataRow row : theRows) {
+			for (ModelDataCell<?> cell : row.getCells()) {
+				theHole.consume(cell.getValue());
+			}
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package view;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.HomeShowSqliteDAO;
+import model.ModelBenchLibrary;
+import model.ModelDataCell;
+import model.ModelDataRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the grouping of the quick search results (the 'split similar' table layout).
+ * @author Janty Azmat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dhomeshow.quick.aggregate=false") // The quick searches one row per role (as grouped in the view)
+public class ViewSplitBenchmark {
+	// Fields
+	@Param({ "10000" })
+	public int showCount;
+	@Param({ "ka" })
+	public String searchText; // A syllable of the generated titles and names
+	private List<ViewDataRow> meRows;
+
+	@Setup(Level.Trial)
+	public void searchLibrary() throws SQLException, IOException {
+		this.meRows = new ArrayList<>();
+		try (HomeShowSqliteDAO tmpDAO = ModelBenchLibrary.open(this.showCount)) {
+			ModelDataRow tmpTmpl = tmpDAO.getQuickSearchTemplates().get(0);
+			for (ModelDataRow row : tmpDAO.getData(ModelBenchLibrary.createQuickCriteria(tmpTmpl, this.searchText), tmpTmpl.getPreparedStatement())) {
+				ViewDataRow tmpRow = new ViewDataRow(row.getTableName(), row.getPreparedStatement());
+				for (ModelDataCell<?> cell : row.getCells()) { // Plain values are enough for grouping
+					tmpRow.addCell(new ViewDataCell<>(cell.getColumnName(), cell.getTableName(), String.valueOf(cell.getValue()), String.class, cell.isKey(), false));
+				}
+				this.meRows.add(tmpRow);
+			}
+		}
+	}
+
+	@Benchmark
+	public Object splitSimilarRows() {
+		return ViewTablePane.splitSimilarRows(this.meRows, "show_count");
+	}
+}
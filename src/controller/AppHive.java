@@ -1,20 +1,29 @@
 package controller;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import model.HomeShowSqliteDAO;
 import model.HomeShowSqliteDAO.ModelPersRole;
+import model.ModelBulkInsertReport;
 import model.ModelDataCell;
 import model.ModelDataRow;
+import model.ModelLibraryScanner;
+import model.ModelMetrics;
+import model.ModelNestedRows;
+import trace.TraceParseEvent;
 import view.ViewHomeShowRip;
 import view.ViewHomeShowRip.ViewPersonnelRole;
 import view.IViewObserver;
 import view.ViewDataCell;
 import view.ViewDataRow;
+import javafx.application.Platform;
 import javafx.scene.control.TextField;
 
 /**
@@ -22,6 +31,7 @@ import javafx.scene.control.TextField;
  */
 public class AppHive implements IViewObserver {
 	// Fields
+	private static final ModelMetrics me_METRICS = ModelMetrics.getInstance();
 	private ViewHomeShowRip meView;
 	private HomeShowSqliteDAO meDAO;
 
@@ -32,91 +42,190 @@ public class AppHive implements IViewObserver {
 
 	public void setDAO(HomeShowSqliteDAO theDAO) {
 		this.meDAO = theDAO;
+		if (!theDAO.getQueryPlanWarnings().isEmpty()) {
+			this.meView.displayWarning("Some searches will be slow (missing index):\n" + String.join("\n", theDAO.getQueryPlanWarnings()));
+		}
 	}
 
 	@Override
 	public void mainPageRequested() {
-		this.meView.clearPage();
-		this.meView.displayMainPage();
+		long tmpStart = System.nanoTime();
+		try {
+			this.meView.clearPage();
+			this.meView.displayMainPage();
+		} finally {
+			recordCallback("mainPageRequested", tmpStart);
+		}
 	}
 
 	@Override
 	public void inserPageRequested() {
-		List<ViewDataRow> tmpViewTemplates = this.meDAO.getTableTemplates().stream().map(this::parseViewDataRow).collect(Collectors.toList());
-		this.meView.clearPage();
-		this.meView.displayInsertPage(tmpViewTemplates);
+		long tmpStart = System.nanoTime();
+		try {
+			List<ViewDataRow> tmpViewTemplates = this.meDAO.getTableTemplates().stream().map(this::parseViewDataRow).collect(Collectors.toList());
+			this.meView.clearPage();
+			this.meView.displayInsertPage(tmpViewTemplates);
+		} finally {
+			recordCallback("inserPageRequested", tmpStart);
+		}
 	}
 
 	@Override
 	public void searchPageRequested(boolean isQuick) {
-		this.meView.clearPage();
-		if (isQuick) {
-			this.meView.displayQuickSearchPage(this.meDAO.getQuickSearchTemplates().stream().map(this::parseViewDataRow).collect(Collectors.toList()));
-		} else {
-			this.meView.displayCriteriaSearchPage(this.meDAO.getTableTemplates().stream().map(this::parseViewDataRow).collect(Collectors.toList()));
+		long tmpStart = System.nanoTime();
+		try {
+			this.meView.clearPage();
+			if (isQuick) {
+				this.meView.displayQuickSearchPage(this.meDAO.getQuickSearchTemplates().stream().map(this::parseViewDataRow).collect(Collectors.toList()));
+			} else {
+				this.meView.displayCriteriaSearchPage(this.meDAO.getTableTemplates().stream().map(this::parseViewDataRow).collect(Collectors.toList()));
+			}
+		} finally {
+			recordCallback("searchPageRequested", tmpStart);
+		}
+	}
+
+	@Override
+	public void scanLibraryRequested(String rootFolder) {
+		long tmpStart = System.nanoTime();
+		try {
+			Thread tmpScan = new Thread(() -> { // Scanning can take long, so it does not run on the JavaFX application thread
+				try {
+					ModelBulkInsertReport tmpReport = new ModelLibraryScanner(this.meDAO).scan(Collections.singletonList(Paths.get(rootFolder)));
+					this.meView.displayInfo("Finished scanning '" + rootFolder + "'.\n\nNew (or updated) shows: " + tmpReport.getInsertedCount("show")
+							+ "\nAlready existing (or invalid) shows: " + tmpReport.getRejectedCount("show"));
+				} catch (IOException e) {
+					this.meView.displayError("Error while reading the rip library folder '" + rootFolder + "'.");
+				} catch (SQLException e) {
+					this.meView.displayError("Error while inserting the scanned shows. Please check the database and try again.");
+				}
+			}, "library-scan-request");
+			tmpScan.setDaemon(true);
+			tmpScan.start();
+		} finally {
+			recordCallback("scanLibraryRequested", tmpStart);
 		}
 	}
 
 	@Override
 	public void exitRequested() {
+		long tmpStart = System.nanoTime();
 		try {
-			this.meDAO.close();
-		} catch (SQLException e) {
-			this.meView.displayError("Error while closing database connection.");
+			try {
+				this.meDAO.close();
+			} catch (SQLException e) {
+				this.meView.displayError("Error while closing database connection.");
+			}
+		} finally {
+			recordCallback("exitRequested", tmpStart);
 		}
 	}
 
 	@Override
 	public void insertDataRequested(ViewDataRow newData) {
+		long tmpStart = System.nanoTime();
 		try {
-			this.meView.displayInfo("Data was inserted to table '" + newData.getTableName() + "' using the statement:\n\n" + this.meDAO.insertRow(this.parseModelDataRow(newData)));
-		} catch (SQLException e) {
-			switch (e.getErrorCode()) {
-				case 19: // When check constraint failed
+			this.meDAO.insertRowAsync(this.parseModelDataRow(newData)).whenComplete((echo, err) -> { // Reported once committed (on the writer thread)
+				if (err == null) {
+					this.meView.displayInfo("Data was inserted to table '" + newData.getTableName() + "' using the statement:\n\n" + echo);
+				} else if (err instanceof SQLException && ((SQLException)err).getErrorCode() == 19) { // When check constraint failed
 					this.meView.displayWarning("Incorrect/Incomplete new '" + newData.getTableName() + "' data due to table constraint(s). Please check your data and try again.");
-					break;
-				default:
+				} else {
 					this.meView.displayError("Error while inserting new '" + newData.getTableName() + "' data. Please check your data and try again.");
-			}
+				}
+			});
+		} finally {
+			recordCallback("insertDataRequested", tmpStart);
 		}
 	}
 
 	@Override
 	public void deleteDataRequested(ViewDataRow deleteData) {
+		long tmpStart = System.nanoTime();
 		try {
-			this.meView.displayInfo("Data was deleted from table '" + deleteData.getTableName() + "' using the statement:\n\n" + this.meDAO.deleteRow(this.parseModelDataRow(deleteData)));
-		} catch (SQLException e) {
-			this.meView.displayError("Error while deleting data from table '" + deleteData.getTableName() + "'. Please check your input and try again.");
+			this.meDAO.deleteRowAsync(this.parseModelDataRow(deleteData)).whenComplete((echo, err) -> {
+				if (err == null) {
+					this.meView.displayInfo("Data was deleted from table '" + deleteData.getTableName() + "' using the statement:\n\n" + echo);
+				} else {
+					this.meView.displayError("Error while deleting data from table '" + deleteData.getTableName() + "'. Please check your input and try again.");
+				}
+			});
+		} finally {
+			recordCallback("deleteDataRequested", tmpStart);
 		}
 	}
 
 	@Override
 	public void updateDataRequested(ViewDataRow oldData, ViewDataRow newData) {
+		long tmpStart = System.nanoTime();
 		try {
-			this.meView.displayInfo("Data was updated into table '" + oldData.getTableName() + "' using the statement:\n\n" + this.meDAO.updateRow(this.parseModelDataRow(oldData), this.parseModelDataRow(newData)));
-		} catch (SQLException e) {
-			this.meView.displayError("Error while updating data into table '" + oldData.getTableName() + "'. Please check your input and try again.");
+			this.meDAO.updateRowAsync(this.parseModelDataRow(oldData), this.parseModelDataRow(newData)).whenComplete((echo, err) -> {
+				if (err == null) {
+					this.meView.displayInfo("Data was updated into table '" + oldData.getTableName() + "' using the statement:\n\n" + echo);
+				} else {
+					this.meView.displayError("Error while updating data into table '" + oldData.getTableName() + "'. Please check your input and try again.");
+				}
+			});
+		} finally {
+			recordCallback("updateDataRequested", tmpStart);
 		}
 	}
 
 	@Override
-	public List<ViewDataRow> searchDataRequested(List<ViewDataCell<?>> searchCriteria, String prepState) {
-		if (searchCriteria.isEmpty()) {
-			return Collections.emptyList();
-		} else {
-			List<ModelDataCell<?>> tmpCrit = searchCriteria.stream().map(this::parseModelDataCell).collect(Collectors.toList());
-			List<ModelDataRow> tmpRes = null;
+	public List<ViewDataRow> searchDataRequested(List<ViewDataCell<?>> searchCriteria, String prepState, Runnable onRowsLoaded) {
+		long tmpStart = System.nanoTime();
+		try {
+			if (searchCriteria.isEmpty()) {
+				return Collections.emptyList();
+			} else {
+				List<ModelDataCell<?>> tmpCrit = parseModelCriteria(searchCriteria);
+				try {
+					return this.meDAO.getDataPaged(tmpCrit, prepState, AppHive::parseViewResultRow, onRowsLoaded); // The rows are loaded (and parsed) page by page when viewed (off the view's thread)
+				} catch (SQLException e) {
+					if (e.getErrorCode() != 9) { // When not interrupted (superseded by a newer search)
+						this.meView.displayError("Error while searching using requested data. Please check your data and try again.");
+					}
+					return Collections.emptyList();
+				}
+			}
+		} finally {
+			recordCallback("searchDataRequested", tmpStart);
+		}
+	}
+
+	@Override
+	public List<ViewDataRow> suggestionsRequested(List<ViewDataCell<?>> searchCriteria, long searchNo) {
+		long tmpStart = System.nanoTime();
+		try {
+			if (searchCriteria.isEmpty()) {
+				return Collections.emptyList();
+			}
 			try {
-				tmpRes = this.meDAO.getData(tmpCrit, prepState);
+				return this.meDAO.getSuggestions(parseModelCriteria(searchCriteria), AppHive::parseViewResultRow, searchNo);
 			} catch (SQLException e) {
-				this.meView.displayError("Error while searching using requested data. Please check your data and try again.");
+				if (e.getErrorCode() != 9) { // When not interrupted (superseded by a newer search)
+					this.meView.displayError("Error while searching using requested data. Please check your data and try again.");
+				}
 				return Collections.emptyList();
 			}
-			return tmpRes.stream().map(this::parseViewDataRow).collect(Collectors.toList());
+		} finally {
+			recordCallback("suggestionsRequested", tmpStart);
 		}
 	}
 
-	private ModelDataCell<?> parseModelDataCell(ViewDataCell<?> theCell) {
+	@Override
+	public void searchCancelRequested(long searchNo) {
+		long tmpStart = System.nanoTime();
+		try {
+			try {
+				this.meDAO.cancelRunningQuery(searchNo);
+			} catch (SQLException e) {}
+		} finally {
+			recordCallback("searchCancelRequested", tmpStart);
+		}
+	}
+
+	static ModelDataCell<?> parseModelDataCell(ViewDataCell<?> theCell) { // Package-private (and the like below) to be benchmarked
 		ModelDataCell<?> outCell = null;
 		if (String.class == theCell.getValueClass()) {
 			outCell = new ModelDataCell<>(theCell.getColumnName(), theCell.getTableName(), ((String)theCell.getValue()).trim(), String.class, Types.VARCHAR, theCell.isKey(), theCell.isSearchOnEdit());
@@ -130,12 +239,27 @@ public class AppHive implements IViewObserver {
 		return outCell;
 	}
 
+	private static List<ModelDataCell<?>> parseModelCriteria(List<ViewDataCell<?>> theCriteria) {
+		try (TraceParseEvent tmpTrace = new TraceParseEvent("parseModelDataCell")) {
+			List<ModelDataCell<?>> outCrit = theCriteria.stream().map(AppHive::parseModelDataCell).collect(Collectors.toList());
+			tmpTrace.finish(outCrit.size());
+			return outCrit;
+		}
+	}
+
 	private ModelDataRow parseModelDataRow(ViewDataRow rowData) {
-		List<ModelDataCell<?>> tmpCells = rowData.getCells().stream().filter(dcell -> dcell.getValueClass() != TextField.class).map(this::parseModelDataCell).collect(Collectors.toList());
-		return new ModelDataRow(rowData.getTableName(), rowData.getPreparedStatement(), tmpCells);
+		long tmpStart = System.nanoTime();
+		ModelDataRow outRow;
+		try (TraceParseEvent tmpTrace = new TraceParseEvent("parseModelDataRow")) {
+			List<ModelDataCell<?>> tmpCells = rowData.getCells().stream().filter(dcell -> dcell.getValueClass() != TextField.class).map(AppHive::parseModelDataCell).collect(Collectors.toList());
+			outRow = new ModelDataRow(rowData.getTableName(), rowData.getPreparedStatement(), tmpCells);
+			tmpTrace.finish(tmpCells.size());
+		}
+		me_METRICS.recordConversion("parseModelDataRow", tmpStart);
+		return outRow;
 	}
 
-	private ViewDataCell<?> parseViewDataCell(ModelDataCell<?> theCell) {
+	static ViewDataCell<?> parseViewDataCell(ModelDataCell<?> theCell) {
 		ViewDataCell<?> outCell = null;
 		if (String.class == theCell.getValueClass()) {
 			outCell = new ViewDataCell<>(theCell.getColumnName(), theCell.getTableName(), (String)theCell.getValue(), String.class, theCell.isKey(), theCell.isSearchOnEdit());
@@ -145,11 +269,26 @@ public class AppHive implements IViewObserver {
 			outCell = new ViewDataCell<>(theCell.getColumnName(), theCell.getTableName(), (Boolean)theCell.getValue(), Boolean.class, theCell.isKey(), theCell.isSearchOnEdit());
 		} else if (ModelPersRole.class == theCell.getValueClass()) {
 			outCell = new ViewDataCell<>(theCell.getColumnName(), theCell.getTableName(), ViewPersonnelRole.values()[((ModelPersRole)theCell.getValue()).ordinal()], ViewPersonnelRole.class, theCell.isKey(), theCell.isSearchOnEdit());
+		} else if (ModelNestedRows.class == theCell.getValueClass()) { // Aggregated rows (only decoded and parsed when the view accesses them)
+			ModelNestedRows tmpNested = (ModelNestedRows)theCell.getValue();
+			outCell = new ViewDataCell<>(theCell.getColumnName(), theCell.getTableName(), new AbstractList<ViewDataRow>() {
+
+				@Override
+				public ViewDataRow get(int index) {
+					return parseViewResultRow(tmpNested.get(index));
+				}
+
+				@Override
+				public int size() {
+					return tmpNested.size();
+				}
+			}, List.class, theCell.isKey(), theCell.isSearchOnEdit());
 		}
 		return outCell;
 	}
 
 	private ViewDataRow parseViewDataRow(ModelDataRow rowData) {
+		long tmpStart = System.nanoTime();
 		List<ViewDataCell<?>> tmpCells = new ArrayList<>();
 		if (rowData.getTableName().equals("show") || rowData.getTableName().equals("hasgenre")) { // This condition voids MVC but did it to speedup assignment work
 			tmpCells.add(new ViewDataCell<>("", "", createHiddenTextField(), TextField.class, false, false));
@@ -160,8 +299,21 @@ public class AppHive implements IViewObserver {
 			tmpCells.add(new ViewDataCell<>("", "", createHiddenTextField(), TextField.class, false, false));
 			tmpCells.add(new ViewDataCell<>("", "", createHiddenTextField(), TextField.class, false, false));
 		}
-		rowData.getCells().stream().map(this::parseViewDataCell).forEach(tmpCells::add);
-		return new ViewDataRow(rowData.getTableName(), rowData.getPreparedStatement(), tmpCells);
+		rowData.getCells().stream().map(AppHive::parseViewDataCell).forEach(tmpCells::add);
+		ViewDataRow outRow = new ViewDataRow(rowData.getTableName(), rowData.getPreparedStatement(), tmpCells);
+		me_METRICS.recordConversion("parseViewDataRow", tmpStart);
+		return outRow;
+	}
+
+	static ViewDataRow parseViewResultRow(ModelDataRow rowData) { // Search results are only viewed, so their cells are parsed when first accessed (not up front)
+		me_METRICS.addRowsMapped(1); // (Only counted, as timing every row would cost about as much as mapping it)
+		return new ViewDataRow(rowData.getTableName(), rowData::getPreparedStatement, rowData.getCells().size(), i -> parseViewDataCell(rowData.getCells().get(i)));
+	}
+
+	private static void recordCallback(String theName, long startNanos) {
+		if (Platform.isFxApplicationThread()) { // Only the time the view is blocked for (the suggestions run on the search-as-you-type thread)
+			me_METRICS.recordCallback(theName, startNanos);
+		}
 	}
 
 	private static TextField createHiddenTextField() {
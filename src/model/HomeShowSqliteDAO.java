@@ -1,22 +1,42 @@
 package model;
 
+import java.nio.file.Paths;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
 import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import trace.TraceQueryEvent;
 
 /**
  * A class that represents a data access object for the HomeShow-Organizer database.
@@ -67,6 +87,141 @@ public class HomeShowSqliteDAO implements AutoCloseable {
 		}
 	}
 
+	/**
+	 * A class that represents the pages of a paged database search read from one read snapshot. Its reader is kept in the
+	 * read transaction that counted the rows, and the pages are read in order from one open cursor of the (totally ordered)
+	 * statement, so rows do not move between pages and the statement is not run again for every page (only when a page
+	 * before the cursor is loaded again). The reader is given back (ending its read transaction, so it does not hold back the
+	 * WAL checkpoints) once the cursor is drained, when no page was loaded for a while, or when a newer paged search starts
+	 * (or the DAO is closed); the pages loaded after that are read on any idle reader, each from its own snapshot.
+	 * @author Janty Azmat
+	 */
+	private class ModelPagedQuery implements ModelPagedResult.ModelPageLoader, AutoCloseable {
+		// Fields
+		private String meSql; // The ordered statement followed by 'LIMIT ? OFFSET ?'
+		private String meCriteriaSql;
+		private List<ModelDataCell<?>> meCriteria;
+		private int meCount; // The number of rows counted in the snapshot
+		private ModelStatementEcho meEcho;
+		private ModelReaderPool.ModelReader meReader; // The reader in the read transaction (or null once given back)
+		private PreparedStatement meStat;
+		private ResultSet meCursor; // (Or null if not open)
+		private int mePosition; // The index of the next row of the cursor
+		private ScheduledFuture<?> meIdleRelease; // Gives back the reader if no page is loaded meanwhile (or null)
+
+		ModelPagedQuery(String pageSql, String criteriaSql, List<ModelDataCell<?>> dataCriteria, int theCount, ModelStatementEcho theEcho, ModelReaderPool.ModelReader theReader) {
+			this.meSql = pageSql;
+			this.meCriteriaSql = criteriaSql;
+			this.meCriteria = dataCriteria;
+			this.meCount = theCount;
+			this.meEcho = theEcho;
+			this.meReader = theReader;
+		}
+
+		@Override
+		public synchronized List<ModelDataRow> loadPage(int theOffset, int theLimit) throws SQLException {
+			long tmpStart = System.nanoTime();
+			TraceQueryEvent tmpTrace = new TraceQueryEvent(this.meSql);
+			try {
+				List<ModelDataRow> outRows;
+				if (this.meReader == null) { // Any idle reader
+					ModelReaderPool.ModelReader tmpReader = meReaders.acquire();
+					try {
+						PreparedStatement tmpStat = tmpReader.getStatements().acquire(this.meSql);
+						try (ResultSet tmpRes = this.execute(tmpStat, theLimit, theOffset)) {
+							outRows = readRows(tmpRes, this.meEcho, theLimit);
+						} finally {
+							tmpReader.getStatements().release(this.meSql, tmpStat);
+						}
+					} finally {
+						meReaders.release(tmpReader);
+					}
+				} else {
+					try {
+						if (this.meCursor == null || this.mePosition != theOffset) { // Not the page after the last one read
+							this.closeCursor();
+							this.meStat = this.meReader.getStatements().acquire(this.meSql);
+							this.meCursor = this.execute(this.meStat, -1, theOffset); // (Not limited, so the next pages are read on)
+							this.mePosition = theOffset;
+						}
+						outRows = readRows(this.meCursor, this.meEcho, theLimit);
+						this.mePosition += outRows.size();
+					} catch (SQLException e) {
+						this.closeCursor();
+						throw e;
+					}
+					if (this.mePosition >= this.meCount || outRows.size() < theLimit) { // Drained (no page after this one is in the snapshot)
+						this.close();
+					} else {
+						this.releaseWhenIdle();
+					}
+				}
+				meMetrics.recordStatement(this.meSql, tmpStart);
+				tmpTrace.finish(outRows.size());
+				logIfSlow(tmpStart, outRows.size(), () -> {
+					ModelStatementEcho tmpPageEcho = this.meEcho.rebase(this.meSql); // (With the 'LIMIT' and 'OFFSET')
+					tmpPageEcho.setParameter(tmpPageEcho.getParameterCount() - 1, theLimit, false);
+					tmpPageEcho.setParameter(tmpPageEcho.getParameterCount(), theOffset, false);
+					return tmpPageEcho;
+				});
+				return outRows;
+			} finally {
+				tmpTrace.close();
+			}
+		}
+
+		/**
+		 * Gives back the reader (ending its read transaction), so the next pages are read on any idle reader.
+		 */
+		@Override
+		public synchronized void close() {
+			if (this.meIdleRelease != null) {
+				this.meIdleRelease.cancel(false);
+				this.meIdleRelease = null;
+			}
+			if (this.meReader != null) {
+				this.closeCursor();
+				try {
+					this.meReader.getConnection().setAutoCommit(true); // Ends the read transaction
+				} catch (SQLException e) {}
+				meReaders.release(this.meReader);
+				this.meReader = null;
+			}
+		}
+
+		private void releaseWhenIdle() {
+			if (this.meIdleRelease != null) {
+				this.meIdleRelease.cancel(false);
+			}
+			try {
+				this.meIdleRelease = mePageLoader.schedule(this::close, me_PAGE_IDLE_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) { // (The DAO is being closed, which gives back the reader)
+				this.meIdleRelease = null;
+			}
+		}
+
+		private ResultSet execute(PreparedStatement theStat, int theLimit, int theOffset) throws SQLException {
+			int tmpParamCount = theStat.getParameterMetaData().getParameterCount(); // The criteria parameters then 'LIMIT' and 'OFFSET'
+			bindCriteria(theStat, this.meCriteriaSql, this.meCriteria, tmpParamCount - 2);
+			theStat.setInt(tmpParamCount - 1, theLimit);
+			theStat.setInt(tmpParamCount, theOffset);
+			return theStat.executeQuery();
+		}
+
+		private void closeCursor() {
+			if (this.meStat != null) {
+				try {
+					if (this.meCursor != null) {
+						this.meCursor.close();
+					}
+				} catch (SQLException e) {}
+				this.meReader.getStatements().release(this.meSql, this.meStat);
+			}
+			this.meCursor = null;
+			this.meStat = null;
+		}
+	}
+
 	// Fields
 	private static final String me_CONN_STR = "jdbc:sqlite:homeshow.db"; // The DBMS connection string
 	private static final String me_PERSONNEL_TABLE = "CREATE TABLE IF NOT EXISTS personnel (first_name TEXT NOT NULL CHECK (first_name <> ''), "						//
@@ -84,11 +239,38 @@ public class HomeShowSqliteDAO implements AutoCloseable {
 	private static final String me_HASGENRE_TABLE = "CREATE TABLE IF NOT EXISTS hasgenre (show_title TEXT NOT NULL, show_year INTEGER NOT NULL, "						//
 			+ "genre_name TEXT NOT NULL REFERENCES genre (name) ON DELETE CASCADE ON UPDATE CASCADE, "																	//
 			+ "FOREIGN KEY (show_title, show_year) REFERENCES show (title, year) ON DELETE CASCADE ON UPDATE CASCADE, PRIMARY KEY(show_title, show_year, genre_name));";//
+	private static final String[] me_INDEXES = { // Secondary indexes for the lookups that the composite primary keys do not lead with
+		"CREATE INDEX IF NOT EXISTS participates_show_idx ON participates (show_title, show_year);",
+		"CREATE INDEX IF NOT EXISTS hasgenre_genre_idx ON hasgenre (genre_name);"
+	};
+	private static final String[] me_FTS_TABLES = { // Full-text indexes (external content, so the text is not stored twice) over the show titles and personnel names
+		"CREATE VIRTUAL TABLE IF NOT EXISTS show_fts USING fts5 (title, content='show', content_rowid='rowid', tokenize='unicode61 remove_diacritics 2', prefix='2 3');",
+		"CREATE VIRTUAL TABLE IF NOT EXISTS personnel_fts USING fts5 (first_name, last_name, content='personnel', content_rowid='rowid', tokenize='unicode61 remove_diacritics 2', prefix='2 3');"
+	};
+	private static final String[] me_FTS_TRIGGERS = { // Keep the full-text indexes in sync with their content tables (by rowid, so a 'VACUUM' must be followed by a 'rebuild')
+		"CREATE TRIGGER IF NOT EXISTS show_fts_ai AFTER INSERT ON show BEGIN\n\tINSERT INTO show_fts (rowid, title) VALUES (new.rowid, new.title);\nEND;",
+		"CREATE TRIGGER IF NOT EXISTS show_fts_ad AFTER DELETE ON show BEGIN\n\tINSERT INTO show_fts (show_fts, rowid, title) VALUES ('delete', old.rowid, old.title);\nEND;",
+		"CREATE TRIGGER IF NOT EXISTS show_fts_au AFTER UPDATE OF title ON show BEGIN\n\tINSERT INTO show_fts (show_fts, rowid, title) VALUES ('delete', old.rowid, old.title);\n"
+			+ "\tINSERT INTO show_fts (rowid, title) VALUES (new.rowid, new.title);\nEND;",
+		"CREATE TRIGGER IF NOT EXISTS personnel_fts_ai AFTER INSERT ON personnel BEGIN\n\tINSERT INTO personnel_fts (rowid, first_name, last_name) VALUES (new.rowid, new.first_name, new.last_name);\nEND;",
+		"CREATE TRIGGER IF NOT EXISTS personnel_fts_ad AFTER DELETE ON personnel BEGIN\n\t"
+			+ "INSERT INTO personnel_fts (personnel_fts, rowid, first_name, last_name) VALUES ('delete', old.rowid, old.first_name, old.last_name);\nEND;",
+		"CREATE TRIGGER IF NOT EXISTS personnel_fts_au AFTER UPDATE OF first_name, last_name ON personnel BEGIN\n\t"
+			+ "INSERT INTO personnel_fts (personnel_fts, rowid, first_name, last_name) VALUES ('delete', old.rowid, old.first_name, old.last_name);\n"
+			+ "\tINSERT INTO personnel_fts (rowid, first_name, last_name) VALUES (new.rowid, new.first_name, new.last_name);\nEND;"
+	};
+	private static final String me_FTS_SUFFIX = "_fts"; // The quick search cells of full-text tables are bound as 'MATCH' expressions instead of 'LIKE' patterns
+	private static final String me_FTS_MATCH_NONE = "\"\""; // The 'MATCH' expression bound for empty words (the statements then select all rows instead)
+	private static final String me_SCANNED_FOLDER_TABLE = "CREATE TABLE IF NOT EXISTS scanned_folder (folder TEXT PRIMARY KEY, mtime INTEGER NOT NULL);";		// Used by the library scanner
 	private static final String me_PERSONNEL_INS = "INSERT INTO personnel (first_name, last_name)\nVALUES (?, ?);";																//
 	private static final String me_SHOW_INS = "INSERT INTO show (title, year, duration, folder, is_movie)\nVALUES (?, ?, ?, ?, ?);";											//
 	private static final String me_GENRE_INS = "INSERT INTO genre (name)\nVALUES (?);";																							// Data insertion prepared statements
 	private static final String me_PARTICIPATES_INS = "INSERT INTO participates (personnel_fname, personnel_lname, show_title, show_year, role)\nVALUES (?, ?, ?, ?, ?);";		//
 	private static final String me_HASGENRE_INS = "INSERT INTO hasgenre (show_title, show_year, genre_name)\nVALUES (?, ?, ?);";												//
+	private static final String me_SHOW_UPSERT = "INSERT INTO show (title, year, duration, folder, is_movie)\nVALUES (?, ?, ?, ?, ?)\n"										// Used by the library scanner for the shows
+			+ "ON CONFLICT (title, year) DO UPDATE SET duration=excluded.duration, folder=excluded.folder, is_movie=excluded.is_movie;";								// already scanned (their folders changed)
+	private static final String me_SCANNED_FOLDER_INS = "INSERT OR REPLACE INTO scanned_folder (folder, mtime)\nSELECT ?1, ?2 WHERE EXISTS (\n\tSELECT * FROM show "			// Used by the library scanner (only recorded
+			+ "WHERE title=?3 AND year=?4 AND duration=?5 AND folder=?1 AND is_movie=?6\n);";																		// once the show row is written)
 	private static final String me_QSEARCH_PERSONEL = "SELECT personnel.*, IFNULL (par_count, 0) AS show_count, role, show.* "											//
 			+ "FROM personnel\nLEFT JOIN participates ON first_name=participates.personnel_fname AND last_name=participates.personnel_lname\n"							//
 			+ "LEFT JOIN show ON show_title=title AND show_year=year\nLEFT JOIN (\n\tSELECT personnel_fname, personnel_lname, COUNT (*) AS par_count "					//
@@ -101,27 +283,158 @@ public class HomeShowSqliteDAO implements AutoCloseable {
 			+ "FROM participates\n\tWHERE show_title LIKE ? AND IFNULL(NULLIF(?, show_year), -1)<0 AND IFNULL (role, 'N/A') LIKE ?\n\t"									//
 			+ "GROUP BY show_title, show_year\n) AS count_table ON title=count_table.show_title AND year=count_table.show_year\n"										//
 			+ "WHERE title LIKE ? AND IFNULL(NULLIF(?, year), -1)<0 AND IFNULL (role, 'N/A') LIKE ?\nORDER BY title, year, first_name, last_name;";						//
+	private static final String me_QSEARCH_PERSONEL_FTS = "SELECT personnel.*, (\n\tSELECT COUNT (*) FROM participates AS par_count\n\t"										//
+			+ "WHERE par_count.personnel_fname=first_name AND par_count.personnel_lname=last_name AND par_count.role LIKE ?2\n) AS show_count, role, show.* "		//
+			+ "FROM personnel\nLEFT JOIN participates ON first_name=participates.personnel_fname AND last_name=participates.personnel_lname\n"							//
+			+ "LEFT JOIN show ON show_title=title AND show_year=year\nWHERE personnel.rowid IN (\n\tSELECT rowid FROM personnel_fts WHERE personnel_fts MATCH ?1\n\t"	//
+			+ "UNION ALL SELECT rowid FROM personnel WHERE ?1='" + me_FTS_MATCH_NONE + "'\n) AND IFNULL (role, 'N/A') LIKE ?2\nORDER BY first_name, last_name, title, year;";	// Full-text variants of the
+	private static final String me_QSEARCH_SHOW_FTS = "SELECT show.*, (\n\tSELECT COUNT (*) FROM participates AS par_count\n\t"												// quick search statements
+			+ "WHERE par_count.show_title=title AND par_count.show_year=year AND par_count.role LIKE ?3\n) AS personnel_count, personnel.*, role "					//
+			+ "FROM show\nLEFT JOIN participates ON participates.show_title=title AND participates.show_year=year\n"													//
+			+ "LEFT JOIN personnel ON first_name=personnel_fname AND last_name=personnel_lname\nWHERE show.rowid IN (\n\tSELECT rowid FROM show_fts WHERE show_fts MATCH ?1\n\t"//
+			+ "UNION ALL SELECT rowid FROM show WHERE ?1='" + me_FTS_MATCH_NONE + "'\n) AND IFNULL(NULLIF(?2, year), -1)<0 AND IFNULL (role, 'N/A') LIKE ?3\n"			//
+			+ "ORDER BY title, year, first_name, last_name;";																											//
+	private static final String me_QSEARCH_PERSONEL_AGG = "SELECT personnel.*, COUNT (role) AS show_count, json_group_array (json_array (role, title, year, duration, folder, is_movie) " // Aggregated variants of the quick search
+			+ "ORDER BY title, year) AS show_rows\nFROM personnel\nLEFT JOIN participates ON first_name=participates.personnel_fname AND last_name=participates.personnel_lname\n" // statements (one row per personnel or
+			+ "LEFT JOIN show ON show_title=title AND show_year=year\nWHERE first_name LIKE ? AND last_name LIKE ? AND IFNULL (role, 'N/A') LIKE ?\n" // show, with the rows that the other
+			+ "GROUP BY first_name, last_name\nORDER BY first_name, last_name;"; // variants repeat it for, in a JSON array)
+	private static final String me_QSEARCH_SHOW_AGG = "SELECT show.*, COUNT (role) AS personnel_count, json_group_array (json_array (first_name, last_name, role) "
+			+ "ORDER BY first_name, last_name) AS personnel_rows\nFROM show\nLEFT JOIN participates ON participates.show_title=title AND participates.show_year=year\n"
+			+ "LEFT JOIN personnel ON first_name=personnel_fname AND last_name=personnel_lname\nWHERE title LIKE ? AND IFNULL(NULLIF(?, year), -1)<0 AND IFNULL (role, 'N/A') LIKE ?\n"
+			+ "GROUP BY title, year\nORDER BY title, year;";
+	private static final String me_QSEARCH_PERSONEL_FTS_AGG = "SELECT personnel.*, COUNT (role) AS show_count, json_group_array (json_array (role, title, year, duration, folder, is_movie) "
+			+ "ORDER BY title, year) AS show_rows\nFROM personnel\nLEFT JOIN participates ON first_name=participates.personnel_fname AND last_name=participates.personnel_lname\n"
+			+ "LEFT JOIN show ON show_title=title AND show_year=year\nWHERE personnel.rowid IN (\n\tSELECT rowid FROM personnel_fts WHERE personnel_fts MATCH ?1\n\t"
+			+ "UNION ALL SELECT rowid FROM personnel WHERE ?1='" + me_FTS_MATCH_NONE + "'\n) AND IFNULL (role, 'N/A') LIKE ?2\nGROUP BY first_name, last_name\nORDER BY first_name, last_name;";
+	private static final String me_QSEARCH_SHOW_FTS_AGG = "SELECT show.*, COUNT (role) AS personnel_count, json_group_array (json_array (first_name, last_name, role) "
+			+ "ORDER BY first_name, last_name) AS personnel_rows\nFROM show\nLEFT JOIN participates ON participates.show_title=title AND participates.show_year=year\n"
+			+ "LEFT JOIN personnel ON first_name=personnel_fname AND last_name=personnel_lname\nWHERE show.rowid IN (\n\tSELECT rowid FROM show_fts WHERE show_fts MATCH ?1\n\t"
+			+ "UNION ALL SELECT rowid FROM show WHERE ?1='" + me_FTS_MATCH_NONE + "'\n) AND IFNULL(NULLIF(?2, year), -1)<0 AND IFNULL (role, 'N/A') LIKE ?3\n"
+			+ "GROUP BY title, year\nORDER BY title, year;";
 	private static final String me_SERACH_TABLE_NAME = "Search_Results";
-	private Connection meConn; // The Connection
+	private static final int me_STAT_CACHE_SIZE = 64; // Maximum number of idle prepared statements kept for reuse
+	private static final int me_PAGE_SIZE = 200; // Number of rows loaded at once by the paged search results
+	private static final int me_PAGE_CACHE_SIZE = 8; // Maximum number of pages kept by a paged search result
+	private static final long me_PAGE_IDLE_MILLIS = 2000L; // How long the reader of a paged search is kept (in its read snapshot) after its last page load
+	private static final Pattern me_ORDER_BY_END = Pattern.compile("(?is).*\\bORDER\\s+BY\\s[^()]*"); // A statement that ends with its (outer) 'ORDER BY' clause
+	private static final int me_READER_COUNT = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())); // Read-only connections (searches in parallel)
+	private static final String[] me_WRITER_PRAGMAS = { "PRAGMA synchronous = NORMAL;" }; // Readers do not block the writer (nor the writer the readers) in WAL mode, and 'NORMAL' only syncs at checkpoints
+	private static final String[] me_READER_PRAGMAS = { "PRAGMA query_only = ON;" }; // (Both also get the performance profile pragmas)
+	private static final String[] me_REPORTED_PRAGMAS = { "journal_mode", "synchronous", "page_size", "cache_size", "mmap_size", "temp_store" };
+	private static final int me_ANALYSIS_LIMIT = 1000; // Rows sampled per index by 'ANALYZE' (so it stays quick on large libraries)
+	private static final String me_REPLICA_PROP = "homeshow.replica"; // System property ('true') to answer the non full-text quick searches from an in-memory replica
+	private static final String me_AGGREGATE_PROP = "homeshow.quick.aggregate"; // System property ('false' to retrieve the quick searches one row per role, instead of with their aggregated variants)
+	private static final String me_RESULT_CACHE_PROP = "homeshow.result.cache"; // System property of the result cache memory in MiB ('0' to disable)
+	private static final long me_RESULT_CACHE_MIB = 32L; // Default result cache memory
+	private static final int me_RESULT_CACHE_ENTRIES = 256; // Maximum number of cached search results
+	private static final String me_SLOW_QUERY_PROP = "homeshow.slow.query.ms"; // System property of the elapsed time from which a query is logged as slow (unset or '-1' to disable)
+	private static final String me_SLOW_QUERY_FILE_PROP = "homeshow.slow.query.file"; // System property of the slow query log file
+	private static final long me_SLOW_QUERY_MILLIS = -1L; // Default slow query threshold (disabled; the log is opt-in)
+	private static final String me_SLOW_QUERY_FILE = "homeshow-slow-queries.log"; // Default slow query log file (in the working directory)
+	private static final long me_SLOW_QUERY_FILE_BYTES = 1L << 20; // Size from which the slow query log is rotated
+	private static final int me_SLOW_QUERY_OLD_FILES = 3; // Rotated slow query logs kept
+	private static final Set<String> me_SUGGESTION_TABLES = new HashSet<>(Arrays.asList("personnel", "show", "genre")); // Tables whose text columns are autocompleted from memory
+	private static final int me_SUGGESTION_LIMIT = 50; // Maximum number of suggestions found at once
+	private static final int me_WRITE_GROUP_SIZE = 256; // Maximum number of queued writes committed together
+	private Connection meConn; // The (writer) Connection
+	private ModelStatementCache meStatCache; // Reused prepared statements (keyed by their SQL text) of the writer connection
+	private ModelWriteQueue meWrites; // Commits the queued single-row writes on the writer thread
+	private ModelReaderPool meReaders; // The read-only connections used by the searches
 	private List<ModelDataRow> meTableTemplates; // Input row templates used in the insert page to insert data to tables
 	private List<ModelDataRow> meQSearchTemplates; // Input row templates used in the quick search page to quick search data
 	private Map<String, String> meJoinONs; // Will contain every table and its 'JOIN ON' with previous table
 	private Set<String> meKeys; // Will contain all the keys (in the form 'table.column')
+	private List<String> mePlanWarnings; // Warnings about the statements that fall back to full table scans
+	private Map<String, String> mePerfSettings; // The effective values of the performance profile settings
+	private Map<Long, PreparedStatement> meRunningQueries; // The suggestion queries currently executing (by search number), so they can be cancelled
+	private ModelLibraryReplica meReplica; // (Optional) answers the 'All Shows By Personnel' and 'All Personnel By Shows' quick searches
+	private Map<String, ModelRowMapper> meReplicaMappers; // The result columns of the quick searches answered by the replica (by statement)
+	private Map<String, String> meAggregates; // The aggregated variants of the quick search statements used (by statement, empty if disabled)
+	private Map<String, ModelRowMapper> meNestedColumns; // The columns of the rows aggregated by the variants (by the name of the column they are aggregated into)
+	private ModelResultCache meResultCache; // (Optional) recent search results, invalidated by the writes to the tables they read
+	private ModelSlowQueryLog meSlowLog; // (Optional) logs the queries slower than the threshold with their query plans
+	private ModelSuggestionIndex meSuggestions; // Autocompletes the titles, personnel names and genre names
+	private ModelMetrics meMetrics; // The latencies and counters exposed over JMX
+	private ScheduledExecutorService mePageLoader; // Loads the pages of the paged database searches (off the view's thread), and gives back their idle readers
+	private AtomicReference<ModelPagedQuery> mePagedQuery; // The last paged database search (keeps its reader's read snapshot while being paged through)
+	private Map<String, String> meOrderedStatements; // The totally ordered variants of the paged statements (by statement)
 
 	/**
 	 * Default constructor.
 	 * @throws SQLException	throws 'SQLException' if a database access error/timeout occurs.
 	 */
 	public HomeShowSqliteDAO() throws SQLException {
-		this.meConn = DriverManager.getConnection(me_CONN_STR); // Initiate a connection
+		this(me_CONN_STR);
+	}
+
+	/**
+	 * Constructor that connects to a specified database (used by the benchmarks to use a generated library).
+	 * @param connString	the DBMS connection string (like 'jdbc:sqlite:homeshow.db')
+	 * @throws SQLException	throws 'SQLException' if a database access error/timeout occurs.
+	 */
+	public HomeShowSqliteDAO(String connString) throws SQLException {
+		boolean tmpIsWal;
+		ModelPerfProfile tmpProfile = ModelPerfProfile.fromSystem();
+		this.meConn = DriverManager.getConnection(connString); // Initiate a connection
 		try (Statement tmpStat = this.meConn.createStatement()) {	// A temporary statement object to create the tables if not yet created.
+			tmpStat.execute(tmpProfile.getPageSizePragma()); // Only for a new database (before anything is written)
+			try (ResultSet tmpRes = tmpStat.executeQuery("PRAGMA journal_mode = WAL;")) { // Persistent (stays in the database file)
+				tmpIsWal = "wal".equalsIgnoreCase(tmpRes.getString(1)); // Not for in-memory databases
+			}
+			for (String pragma : concat(me_WRITER_PRAGMAS, tmpProfile.getConnectionPragmas())) {
+				tmpStat.execute(pragma);
+			}
 			tmpStat.executeUpdate(me_PERSONNEL_TABLE);
 			tmpStat.executeUpdate(me_SHOW_TABLE);
 			tmpStat.executeUpdate(me_GENRE_TABLE);
 			tmpStat.executeUpdate(me_PARTICIPATES_TABLE);
 			tmpStat.executeUpdate(me_HASGENRE_TABLE);
+			tmpStat.executeUpdate(me_SCANNED_FOLDER_TABLE);
+			for (String index : me_INDEXES) {
+				tmpStat.executeUpdate(index);
+			}
+			boolean tmpIsNewFts;
+			try (ResultSet tmpRes = tmpStat.executeQuery("SELECT COUNT (*) FROM sqlite_master WHERE type='table' AND name IN ('show_fts', 'personnel_fts');")) {
+				tmpIsNewFts = tmpRes.getInt(1) < me_FTS_TABLES.length;
+			}
+			for (String fts : me_FTS_TABLES) {
+				tmpStat.executeUpdate(fts);
+			}
+			for (String trigger : me_FTS_TRIGGERS) {
+				tmpStat.executeUpdate(trigger);
+			}
+			if (tmpIsNewFts) { // Index the already existing data
+				tmpStat.executeUpdate("INSERT INTO show_fts (show_fts) VALUES ('rebuild');");
+				tmpStat.executeUpdate("INSERT INTO personnel_fts (personnel_fts) VALUES ('rebuild');");
+			}
 			tmpStat.executeUpdate("PRAGMA foreign_keys = ON;"); // Enforce foreign keys
+			tmpStat.execute("PRAGMA analysis_limit = " + me_ANALYSIS_LIMIT + ";");
+			boolean tmpIsAnalyzed;
+			try (ResultSet tmpRes = tmpStat.executeQuery("SELECT COUNT (*) FROM sqlite_master WHERE name='sqlite_stat1';")) {
+				tmpIsAnalyzed = tmpRes.getInt(1) > 0;
+			}
+			tmpStat.execute(tmpIsAnalyzed ? "PRAGMA optimize = 0x10002;" : "ANALYZE;"); // Statistics for the query planner (read by the readers when opened)
+			this.mePerfSettings = new LinkedHashMap<>();
+			this.mePerfSettings.put("profile", tmpProfile.toString());
+			for (String pragma : me_REPORTED_PRAGMAS) {
+				try (ResultSet tmpRes = tmpStat.executeQuery("PRAGMA " + pragma + ";")) {
+					this.mePerfSettings.put(pragma, tmpRes.getString(1));
+				}
+			}
 		}
+		this.meMetrics = ModelMetrics.getInstance();
+		this.meStatCache = new ModelStatementCache(this.meConn, me_STAT_CACHE_SIZE);
+		this.meWrites = new ModelWriteQueue(this.meConn, me_WRITE_GROUP_SIZE);
+		this.meReaders = tmpIsWal ? new ModelReaderPool(connString, me_READER_COUNT, concat(me_READER_PRAGMAS, tmpProfile.getConnectionPragmas()), me_STAT_CACHE_SIZE)
+				: new ModelReaderPool(this.meConn, this.meStatCache);
+		this.meRunningQueries = new HashMap<>(); // (Only accessed in blocks synchronized on it)
+		this.mePageLoader = Executors.newSingleThreadScheduledExecutor(run -> {
+			Thread outThread = new Thread(run, "homeshow-page-loader");
+			outThread.setDaemon(true);
+			return outThread;
+		});
+		this.mePagedQuery = new AtomicReference<>();
+		this.meOrderedStatements = new ConcurrentHashMap<>();
 		this.meJoinONs = new LinkedHashMap<>(); // To keep the insertion order
 		this.meKeys = new LinkedHashSet<>();
 		this.meTableTemplates = new LinkedList<>();
@@ -180,15 +493,144 @@ public class HomeShowSqliteDAO implements AutoCloseable {
 			new ModelDataCell<>("year", "show", -1, Integer.class, Types.INTEGER, true, true),
 			new ModelDataCell<>("role", "participates", ModelPersRole.NONE, ModelPersRole.class, Types.VARCHAR, true, false)
 		})));
+		this.meQSearchTemplates.add(new ModelDataRow("All Shows By Personnel Name Words", me_QSEARCH_PERSONEL_FTS, Arrays.asList(new ModelDataCell[] { // prepare full-text quick search row
+			new ModelDataCell<>("name_words", "personnel" + me_FTS_SUFFIX, "", String.class, Types.VARCHAR, true, true),
+			new ModelDataCell<>("role", "participates", ModelPersRole.NONE, ModelPersRole.class, Types.VARCHAR, true, false)
+		})));
+		this.meQSearchTemplates.add(new ModelDataRow("All Personnel By Show Title Words", me_QSEARCH_SHOW_FTS, Arrays.asList(new ModelDataCell[] { // prepare full-text quick search row
+			new ModelDataCell<>("title_words", "show" + me_FTS_SUFFIX, "", String.class, Types.VARCHAR, true, true),
+			new ModelDataCell<>("year", "show", -1, Integer.class, Types.INTEGER, true, true),
+			new ModelDataCell<>("role", "participates", ModelPersRole.NONE, ModelPersRole.class, Types.VARCHAR, true, false)
+		})));
+		this.mePlanWarnings = this.checkQueryPlans();
+		long tmpCacheMiB = Long.getLong(me_RESULT_CACHE_PROP, me_RESULT_CACHE_MIB);
+		if (tmpCacheMiB > 0L) {
+			Map<String, Set<String>> tmpCascades = new LinkedHashMap<>(); // Every table with the tables that its deletes and updates cascade to
+			tmpCascades.put("personnel", Collections.singleton("participates"));
+			tmpCascades.put("show", new HashSet<>(Arrays.asList("participates", "hasgenre")));
+			tmpCascades.put("genre", Collections.singleton("hasgenre"));
+			tmpCascades.put("participates", Collections.emptySet());
+			tmpCascades.put("hasgenre", Collections.emptySet());
+			this.meResultCache = new ModelResultCache(tmpCascades, me_RESULT_CACHE_ENTRIES, tmpCacheMiB << 20);
+		}
+		long tmpSlowMillis = Long.getLong(me_SLOW_QUERY_PROP, me_SLOW_QUERY_MILLIS);
+		if (tmpSlowMillis >= 0L) {
+			this.meSlowLog = new ModelSlowQueryLog(Paths.get(System.getProperty(me_SLOW_QUERY_FILE_PROP, me_SLOW_QUERY_FILE)), tmpSlowMillis,
+					me_SLOW_QUERY_FILE_BYTES, me_SLOW_QUERY_OLD_FILES, this.meReaders);
+		}
+		this.meSuggestions = new ModelSuggestionIndex(this.meTableTemplates.stream().filter(tmpl -> me_SUGGESTION_TABLES.contains(tmpl.getTableName())).collect(Collectors.toList()));
+		ModelReaderPool.ModelReader tmpReader = this.meReaders.acquire();
+		try {
+			this.meSuggestions.load(tmpReader.getConnection());
+		} finally {
+			this.meReaders.release(tmpReader);
+		}
+		if (Boolean.getBoolean(me_REPLICA_PROP)) {
+			this.loadReplica();
+		}
+		this.meAggregates = new HashMap<>();
+		this.meNestedColumns = new HashMap<>();
+		if (Boolean.parseBoolean(System.getProperty(me_AGGREGATE_PROP, "true"))) { // (The view then only reads the groups shown, not every row)
+			this.loadAggregates();
+		}
 	}
 
 	@Override
 	public void close() throws SQLException { // Required my the 'AutoClosable' interface
+		if (this.meWrites != null) { // Commits the queued writes first
+			this.meWrites.close();
+		}
+		if (this.meSlowLog != null) { // Logs the queued slow queries first (their query plans are found with the readers)
+			this.meSlowLog.close();
+		}
+		if (this.mePageLoader != null) { // Gives back the reader of the last paged search
+			this.mePageLoader.shutdownNow();
+			ModelPagedQuery tmpQuery = this.mePagedQuery.getAndSet(null);
+			if (tmpQuery != null) {
+				tmpQuery.close();
+			}
+		}
+		if (this.meReaders != null) { // For the read-only connections
+			this.meReaders.close();
+		}
+		if (this.meStatCache != null) { // For the cached statements
+			this.meStatCache.close();
+		}
 		if (!(this.meConn == null || this.meConn.isClosed())) { // For the connection
+			try (Statement tmpStat = this.meConn.createStatement()) {
+				tmpStat.execute("PRAGMA optimize;"); // Updates the statistics that the searches since opening showed to be stale
+			} catch (SQLException e) {}
 			this.meConn.close();
 		}
 	}
 
+	/**
+	 * Cancels the query of the specified 'getSuggestions' call if it is currently executing (from another thread), which then
+	 * throws an 'SQLException' with the 'SQLITE_INTERRUPT' (9) error code. Does nothing if the query is not executing, so
+	 * the other searches (even those that run on the same reader connection afterwards) are never interrupted.
+	 * @param searchNo		the search number given to 'getSuggestions'
+	 * @throws SQLException	thrown if a database access error occurs
+	 */
+	public void cancelRunningQuery(long searchNo) throws SQLException {
+		synchronized (this.meRunningQueries) { // (The query cannot be unregistered meanwhile, so it is never cancelled once finished)
+			PreparedStatement tmpStat = this.meRunningQueries.get(searchNo);
+			if (tmpStat != null) {
+				tmpStat.cancel(); // Interrupts the (reader) connection (sqlite3_interrupt)
+			}
+		}
+	}
+
+	/**
+	 * Used to get the warnings found by the startup self-check about the statements (the quick search statements and
+	 * the auto-built join shapes) whose query plan falls back to a full table scan inside a join.
+	 * @return	a list of warnings (empty if all the query plans use indexes)
+	 */
+	public List<String> getQueryPlanWarnings() {
+		return Collections.unmodifiableList(this.mePlanWarnings);
+	}
+
+	/**
+	 * Used to get the performance profile (chosen with the 'homeshow.profile' system property) and the effective values
+	 * of the settings it tunes, as reported by the database (a value can differ from the profile when capped by the
+	 * SQLite build, or for 'page_size' when the database already existed).
+	 * @return	a map of every setting name ('profile' first) to its effective value
+	 */
+	public Map<String, String> getPerformanceSettings() {
+		return Collections.unmodifiableMap(this.mePerfSettings);
+	}
+
+	/**
+	 * Used to get the number of times a prepared statement was reused from the statement cache.
+	 * @return	the number of statement cache hits
+	 */
+	public long getStatementCacheHits() {
+		return this.meStatCache.getHitCount() + this.meReaders.getHitCount();
+	}
+
+	/**
+	 * Used to get the number of times a statement had to be prepared (not found in the statement cache).
+	 * @return	the number of statement cache misses
+	 */
+	public long getStatementCacheMisses() {
+		return this.meStatCache.getMissCount() + this.meReaders.getMissCount();
+	}
+
+	/**
+	 * Used to get the number of times a search was answered from the result cache.
+	 * @return	the number of result cache hits (0 if the cache is disabled)
+	 */
+	public long getResultCacheHits() {
+		return this.meResultCache == null ? 0L : this.meResultCache.getHitCount();
+	}
+
+	/**
+	 * Used to get the number of times a search had to be retrieved (not found in the result cache).
+	 * @return	the number of result cache misses (0 if the cache is disabled)
+	 */
+	public long getResultCacheMisses() {
+		return this.meResultCache == null ? 0L : this.meResultCache.getMissCount();
+	}
+
 	/**
 	 * Used to get the input row templates used in the insert page to insert data to tables.
 	 * @return	a list of rows used in the insert page to insert data to tables
@@ -212,17 +654,63 @@ public class HomeShowSqliteDAO implements AutoCloseable {
 	 * @throws SQLException	thrown if a database access error/timeout occurs or this method is called on a closed connection
 	 */
 	public String insertRow(ModelDataRow theRow) throws SQLException {
-		String outStr = theRow.getPreparedStatement();
-		try (PreparedStatement tmpStat = this.meConn.prepareStatement(theRow.getPreparedStatement())) {
-			for (int i = 0; i < theRow.getCells().size(); i++) { // Loop and set prepared statement parameters (each using its own type)
-				tmpStat.setObject(i + 1, theRow.getCells().get(i).getValue(), theRow.getCells().get(i).getSqlType());
-				outStr = outStr.replaceFirst("\\?", theRow.getCells().get(i).getSqlType() == Types.VARCHAR
-						? "'" + theRow.getCells().get(i).getValue() + "'"
-						: "" + theRow.getCells().get(i).getValue());
+		long tmpStart = System.nanoTime();
+		String outEcho;
+		synchronized (this.meConn) { // (The write queue commits on the same connection, and every writer applies its commits in their order)
+			outEcho = this.executeInsert(theRow);
+			this.applyInsert(theRow);
+		}
+		this.meMetrics.recordOperation("insertRow", tmpStart);
+		return outEcho;
+	}
+
+	/**
+	 * Queues the specified row data (that represents a table's data row) to be inserted into database by the writer thread
+	 * (see 'insertRow'), committed along with the other writes queued meanwhile.
+	 * @param theRow	the data row to be inserted
+	 * @return			a future completed with the actual statement used once committed, or exceptionally with the
+	 * 					'SQLException' (like a table constraint failure with error code 19)
+	 */
+	public CompletableFuture<String> insertRowAsync(ModelDataRow theRow) {
+		return this.recordWhenDone("insertRowAsync", System.nanoTime(), this.meWrites.submit(() -> this.executeInsert(theRow), () -> this.applyInsert(theRow)));
+	}
+
+	private CompletableFuture<String> recordWhenDone(String theOperation, long startNanos, CompletableFuture<String> theWrite) {
+		theWrite.whenComplete((echo, err) -> this.meMetrics.recordOperation(theOperation, startNanos)); // (From queued to committed)
+		return theWrite;
+	}
+
+	private String executeInsert(ModelDataRow theRow) throws SQLException {
+		ModelStatementEcho outEcho = new ModelStatementEcho(theRow.getPreparedStatement());
+		PreparedStatement tmpStat = this.meStatCache.acquire(theRow.getPreparedStatement());
+		try {
+			long tmpStart = System.nanoTime();
+			TraceQueryEvent tmpTrace = new TraceQueryEvent(theRow.getPreparedStatement());
+			try {
+				for (int i = 0; i < theRow.getCells().size(); i++) { // Loop and set prepared statement parameters (each using its own type)
+					tmpStat.setObject(i + 1, theRow.getCells().get(i).getValue(), theRow.getCells().get(i).getSqlType());
+					outEcho.setParameter(i + 1, theRow.getCells().get(i).getValue(), theRow.getCells().get(i).getSqlType() == Types.VARCHAR);
+				}
+				tmpStat.executeUpdate(); // Insert
+				this.meMetrics.recordStatement(theRow.getPreparedStatement(), tmpStart);
+				tmpTrace.finish(0);
+			} finally {
+				tmpTrace.close();
 			}
-			tmpStat.executeUpdate(); // Insert
+		} finally {
+			this.meStatCache.release(theRow.getPreparedStatement(), tmpStat);
+		}
+		return outEcho.toString();
+	}
+
+	private void applyInsert(ModelDataRow theRow) {
+		if (this.meReplica != null) {
+			this.meReplica.applyInsert(theRow);
+		}
+		if (this.meResultCache != null) {
+			this.meResultCache.invalidate(theRow.getTableName(), false);
 		}
-		return outStr;
+		this.meSuggestions.applyInsert(theRow);
 	}
 
 	/**
@@ -232,9 +720,30 @@ public class HomeShowSqliteDAO implements AutoCloseable {
 	 * @throws SQLException	thrown if a database access error/timeout occurs or this method is called on a closed connection
 	 */
 	public String deleteRow(ModelDataRow theRow) throws SQLException {
+		long tmpStart = System.nanoTime();
+		String outEcho;
+		synchronized (this.meConn) {
+			outEcho = this.executeDelete(theRow);
+			this.applyDelete(theRow);
+		}
+		this.meMetrics.recordOperation("deleteRow", tmpStart);
+		return outEcho;
+	}
+
+	/**
+	 * Queues the specified row data (better be only the key) to be deleted from database by the writer thread (see
+	 * 'deleteRow'), committed along with the other writes queued meanwhile.
+	 * @param theRow	the row data to be deleted (better be only the key)
+	 * @return			a future completed with the actual statement used once committed, or exceptionally with the 'SQLException'
+	 */
+	public CompletableFuture<String> deleteRowAsync(ModelDataRow theRow) {
+		return this.recordWhenDone("deleteRowAsync", System.nanoTime(), this.meWrites.submit(() -> this.executeDelete(theRow), () -> this.applyDelete(theRow)));
+	}
+
+	private String executeDelete(ModelDataRow theRow) throws SQLException {
 		List<ModelDataCell<?>> tmpKeyCells = theRow.getCells().stream().filter(cell -> cell.isKey()).collect(Collectors.toList()); // Get only key cells
 		StringBuilder tmpStr = new StringBuilder("DELETE FROM ");
-		String outStr; // will hold the actual statement used
+		ModelStatementEcho outEcho; // will hold the actual statement used
 		tmpStr.append(theRow.getTableName());				//
 		tmpStr.append("\nWHERE ");							//
 		tmpStr.append(tmpKeyCells.get(0).getColumnName());	//
@@ -245,17 +754,37 @@ public class HomeShowSqliteDAO implements AutoCloseable {
 			tmpStr.append("=?");							//
 		});													//
 		tmpStr.append(';');									//
-		outStr = tmpStr.toString();
-		try (PreparedStatement tmpStat = this.meConn.prepareStatement(outStr)) {
-			for (int i = 0; i < tmpKeyCells.size(); i++) { // Loop and set prepared statement parameters (each using its own type)
-				tmpStat.setObject(i + 1, tmpKeyCells.get(i).getValue(), tmpKeyCells.get(i).getSqlType());
-				outStr = outStr.replaceFirst("\\?", tmpKeyCells.get(i).getSqlType() == Types.VARCHAR
-						? "'" + tmpKeyCells.get(i).getValue().toString() + "'"
-						: tmpKeyCells.get(i).getValue().toString());
+		outEcho = new ModelStatementEcho(tmpStr.toString());
+		PreparedStatement tmpStat = this.meStatCache.acquire(tmpStr.toString());
+		try {
+			long tmpStart = System.nanoTime();
+			TraceQueryEvent tmpTrace = new TraceQueryEvent(tmpStr.toString());
+			try {
+				for (int i = 0; i < tmpKeyCells.size(); i++) { // Loop and set prepared statement parameters (each using its own type)
+					tmpStat.setObject(i + 1, tmpKeyCells.get(i).getValue(), tmpKeyCells.get(i).getSqlType());
+					outEcho.setParameter(i + 1, tmpKeyCells.get(i).getValue(), tmpKeyCells.get(i).getSqlType() == Types.VARCHAR);
+				}
+				tmpStat.executeUpdate(); // Delete
+				this.meMetrics.recordStatement(tmpStr.toString(), tmpStart);
+				tmpTrace.finish(0);
+			} finally {
+				tmpTrace.close();
 			}
-			tmpStat.executeUpdate(); // Delete
+		} finally {
+			this.meStatCache.release(tmpStr.toString(), tmpStat);
 		}
-		return outStr;
+		return outEcho.toString();
+	}
+
+	private void applyDelete(ModelDataRow theRow) {
+		List<ModelDataCell<?>> tmpKeyCells = theRow.getCells().stream().filter(cell -> cell.isKey()).collect(Collectors.toList());
+		if (this.meReplica != null) {
+			this.meReplica.applyDelete(theRow.getTableName(), tmpKeyCells);
+		}
+		if (this.meResultCache != null) {
+			this.meResultCache.invalidate(theRow.getTableName(), true); // (Also the rows deleted by cascade)
+		}
+		this.meSuggestions.applyDelete(theRow.getTableName(), tmpKeyCells);
 	}
 
 	/**
@@ -266,9 +795,32 @@ public class HomeShowSqliteDAO implements AutoCloseable {
 	 * @throws SQLException	thrown if a database access error/timeout occurs or this method is called on a closed connection
 	 */
 	public String updateRow(ModelDataRow oldRow, ModelDataRow newRow) throws SQLException {
+		long tmpStart = System.nanoTime();
+		String outEcho;
+		synchronized (this.meConn) {
+			outEcho = this.executeUpdate(oldRow, newRow);
+			this.applyUpdate(oldRow, newRow);
+		}
+		this.meMetrics.recordOperation("updateRow", tmpStart);
+		return outEcho;
+	}
+
+	/**
+	 * Queues the update of the old row data (that better be a row in a table in the database) with new row data, to be done
+	 * by the writer thread (see 'updateRow') and committed along with the other writes queued meanwhile.
+	 * @param oldRow	the old row data (better be only the key)
+	 * @param newRow	new row data
+	 * @return			a future completed with the actual statement used once committed, or exceptionally with the
+	 * 					'SQLException' (like a table constraint failure with error code 19)
+	 */
+	public CompletableFuture<String> updateRowAsync(ModelDataRow oldRow, ModelDataRow newRow) {
+		return this.recordWhenDone("updateRowAsync", System.nanoTime(), this.meWrites.submit(() -> this.executeUpdate(oldRow, newRow), () -> this.applyUpdate(oldRow, newRow)));
+	}
+
+	private String executeUpdate(ModelDataRow oldRow, ModelDataRow newRow) throws SQLException {
 		List<ModelDataCell<?>> tmpKeyCells = oldRow.getCells().stream().filter(cell -> cell.isKey()).collect(Collectors.toList()); // Get only key cells
 		StringBuilder tmpStr = new StringBuilder("UPDATE ");
-		String outStr; // will hold the actual statement used
+		ModelStatementEcho outEcho; // will hold the actual statement used
 		tmpStr.append(oldRow.getTableName());					//
 		tmpStr.append("\nSET ");								//
 		tmpStr.append(newRow.getCells().get(0).getColumnName());//
@@ -287,24 +839,213 @@ public class HomeShowSqliteDAO implements AutoCloseable {
 			tmpStr.append("=?");								//
 		});														//
 		tmpStr.append(';');										//
-		outStr = tmpStr.toString();
-		try (PreparedStatement tmpStat = this.meConn.prepareStatement(outStr)) {
-			int i;
-			for (i = 0; i < newRow.getCells().size(); i++) { // Loop and set prepared statement parameters with new data (each using its own type)
-				tmpStat.setObject(i + 1, newRow.getCells().get(i).getValue(), newRow.getCells().get(i).getSqlType());
-				outStr = outStr.replaceFirst("\\?", newRow.getCells().get(i).getSqlType() == Types.VARCHAR
-						? "'" + newRow.getCells().get(i).getValue().toString() + "'"
-						: newRow.getCells().get(i).getValue().toString());
+		outEcho = new ModelStatementEcho(tmpStr.toString());
+		PreparedStatement tmpStat = this.meStatCache.acquire(tmpStr.toString());
+		try {
+			long tmpStart = System.nanoTime();
+			TraceQueryEvent tmpTrace = new TraceQueryEvent(tmpStr.toString());
+			try {
+				int i;
+				for (i = 0; i < newRow.getCells().size(); i++) { // Loop and set prepared statement parameters with new data (each using its own type)
+					tmpStat.setObject(i + 1, newRow.getCells().get(i).getValue(), newRow.getCells().get(i).getSqlType());
+					outEcho.setParameter(i + 1, newRow.getCells().get(i).getValue(), newRow.getCells().get(i).getSqlType() == Types.VARCHAR);
+				}
+				for (i = 0; i < tmpKeyCells.size(); i++) { // Loop and set prepared statement parameters with old key data (each using its own type)
+					tmpStat.setObject(newRow.getCells().size() + i + 1, tmpKeyCells.get(i).getValue(), tmpKeyCells.get(i).getSqlType());
+					outEcho.setParameter(newRow.getCells().size() + i + 1, tmpKeyCells.get(i).getValue(), tmpKeyCells.get(i).getSqlType() == Types.VARCHAR);
+				}
+				tmpStat.executeUpdate(); // Update
+				this.meMetrics.recordStatement(tmpStr.toString(), tmpStart);
+				tmpTrace.finish(0);
+			} finally {
+				tmpTrace.close();
+			}
+		} finally {
+			this.meStatCache.release(tmpStr.toString(), tmpStat);
+		}
+		return outEcho.toString();
+	}
+
+	private void applyUpdate(ModelDataRow oldRow, ModelDataRow newRow) {
+		List<ModelDataCell<?>> tmpKeyCells = oldRow.getCells().stream().filter(cell -> cell.isKey()).collect(Collectors.toList());
+		if (this.meReplica != null) {
+			this.meReplica.applyUpdate(oldRow.getTableName(), tmpKeyCells, newRow.getCells());
+		}
+		if (this.meResultCache != null) {
+			this.meResultCache.invalidate(oldRow.getTableName(), true); // (Also the rows updated by cascade)
+		}
+		this.meSuggestions.applyUpdate(oldRow.getTableName(), tmpKeyCells, newRow.getCells());
+	}
+
+	/**
+	 * Used to get the show folders recorded by the library scanner with their last-modified times.
+	 * @return				a map of every scanned show folder to its last-modified time (in milliseconds)
+	 * @throws SQLException	thrown if a database access error/timeout occurs or this method is called on a closed connection
+	 */
+	public Map<String, Long> getScannedFolders() throws SQLException {
+		Map<String, Long> outFolders = new HashMap<>();
+		ModelReaderPool.ModelReader tmpReader = this.meReaders.acquire();
+		try (Statement tmpStat = tmpReader.getConnection().createStatement(); ResultSet tmpRes = tmpStat.executeQuery("SELECT folder, mtime FROM scanned_folder;")) {
+			while (tmpRes.next()) {
+				outFolders.put(tmpRes.getString(1), tmpRes.getLong(2));
+			}
+		} finally {
+			this.meReaders.release(tmpReader);
+		}
+		return outFolders;
+	}
+
+	/**
+	 * Used to get the statement (to be used in data rows passed to 'insertRows') that inserts a show or, if it already
+	 * exists, updates its duration, folder and type.
+	 * @return	the prepared statement (with the same parameters as the show insert statement)
+	 */
+	String getShowUpsertStatement() {
+		return me_SHOW_UPSERT;
+	}
+
+	/**
+	 * Creates a data row (to be passed to 'insertRows' after the show row) that records a scanned show folder and its
+	 * last-modified time. The folder is only recorded if the show row was written, so a rejected show is scanned again.
+	 * @param showRow	the show row of the folder (title, year, duration, folder and is_movie)
+	 * @param theMtime	the last-modified time of the folder (in milliseconds)
+	 * @return			the data row
+	 */
+	ModelDataRow createScannedFolderRow(ModelDataRow showRow, long theMtime) {
+		List<ModelDataCell<?>> tmpCells = new ArrayList<>();
+		for (ModelDataCell<?> cell : showRow.getCells()) {
+			if (cell.getColumnName().equals("folder")) {
+				tmpCells.add(0, new ModelDataCell<>("folder", "scanned_folder", (String)cell.getValue(), String.class, Types.VARCHAR, true, false));
+			} else { // To check that the show row was written
+				tmpCells.add(cell);
 			}
-			for (i = 0; i < tmpKeyCells.size(); i++) { // Loop and set prepared statement parameters with old key data (each using its own type)
-				tmpStat.setObject(newRow.getCells().size() + i + 1, tmpKeyCells.get(i).getValue(), tmpKeyCells.get(i).getSqlType());
-				outStr = outStr.replaceFirst("\\?", tmpKeyCells.get(i).getSqlType() == Types.VARCHAR
-						? "'" + tmpKeyCells.get(i).getValue().toString() + "'"
-						: tmpKeyCells.get(i).getValue().toString());
+		}
+		tmpCells.add(1, new ModelDataCell<>("mtime", "scanned_folder", theMtime, Long.class, Types.BIGINT, false, false));
+		return new ModelDataRow("scanned_folder", me_SCANNED_FOLDER_INS, tmpCells);
+	}
+
+	/**
+	 * Inserts many rows (that represent tables' data rows) in one transaction. The rows are grouped by their table template
+	 * and sent in JDBC batches, committing after every 'commitInterval' rows. Rows rejected due to table constraint(s)
+	 * are reported without aborting the rest of the rows, and rows whose statements wrote nothing are not counted.
+	 * @param theRows			the data rows to be inserted (better be ordered so that referenced rows come first)
+	 * @param commitInterval	the number of rows to insert between commits (at least 1)
+	 * @return					a report of the inserted and rejected rows
+	 * @throws SQLException		thrown if a database access error/timeout occurs (the uncommitted rows are then rolled back)
+	 * @throws IllegalArgumentException	thrown if the commit interval is less than 1 (before any row is read)
+	 */
+	public ModelBulkInsertReport insertRows(Iterable<ModelDataRow> theRows, int commitInterval) throws SQLException {
+		if (commitInterval < 1) {
+			throw new IllegalArgumentException("The commit interval must be at least 1 row (was " + commitInterval + ").");
+		}
+		ModelBulkInsertReport outReport = new ModelBulkInsertReport();
+		Map<String, List<ModelDataRow>> tmpPending = new LinkedHashMap<>(); // Rows of every table template (in the order first met)
+		List<ModelDataRow> tmpInserted = new ArrayList<>(); // Applied to the in-memory structures when committed
+		int tmpCount = 0;
+		for (ModelDataRow row : theRows) {
+			tmpPending.computeIfAbsent(row.getPreparedStatement(), sql -> new ArrayList<>()).add(row);
+			if (++tmpCount % commitInterval == 0) {
+				this.commitBatches(tmpPending, outReport, tmpInserted);
 			}
-			tmpStat.executeUpdate(); // Update
 		}
-		return outStr;
+		this.commitBatches(tmpPending, outReport, tmpInserted);
+		return outReport;
+	}
+
+	/**
+	 * Inserts many rows (that represent tables' data rows) in one transaction (see the 'Iterable' version).
+	 * @param theRows			a stream of the data rows to be inserted
+	 * @param commitInterval	the number of rows to insert between commits (at least 1)
+	 * @return					a report of the inserted and rejected rows
+	 * @throws SQLException		thrown if a database access error/timeout occurs (the uncommitted rows are then rolled back)
+	 * @throws IllegalArgumentException	thrown if the commit interval is less than 1 (before any row is read)
+	 */
+	public ModelBulkInsertReport insertRows(Stream<ModelDataRow> theRows, int commitInterval) throws SQLException {
+		return this.insertRows(theRows::iterator, commitInterval);
+	}
+
+	private void commitBatches(Map<String, List<ModelDataRow>> pendingRows, ModelBulkInsertReport theReport, List<ModelDataRow> insertedRows) throws SQLException {
+		long tmpStart = System.nanoTime();
+		synchronized (this.meConn) { // A transaction per commit interval (so the queued writes are not held up while the rows are read)
+			boolean tmpAutoCommit = this.meConn.getAutoCommit();
+			this.meConn.setAutoCommit(false);
+			try {
+				this.flushBatches(pendingRows, theReport, insertedRows);
+				this.meConn.commit();
+			} catch (SQLException e) {
+				this.meConn.rollback();
+				throw e;
+			} finally {
+				this.meConn.setAutoCommit(tmpAutoCommit);
+			}
+			this.applyCommitted(insertedRows); // (Before any other writer commits)
+		}
+		this.meMetrics.recordOperation("insertRows (per commit)", tmpStart);
+	}
+
+	private void applyCommitted(List<ModelDataRow> insertedRows) {
+		if (this.meReplica != null) {
+			insertedRows.forEach(this.meReplica::applyInsert);
+		}
+		if (this.meResultCache != null) {
+			insertedRows.stream().map(ModelDataRow::getTableName).distinct().forEach(table -> this.meResultCache.invalidate(table, false));
+		}
+		insertedRows.forEach(this.meSuggestions::applyInsert);
+		insertedRows.clear();
+	}
+
+	private void flushBatches(Map<String, List<ModelDataRow>> pendingRows, ModelBulkInsertReport theReport, List<ModelDataRow> insertedRows) throws SQLException {
+		List<Map.Entry<String, List<ModelDataRow>>> tmpEntries = new ArrayList<>(pendingRows.entrySet());
+		tmpEntries.sort(Comparator.comparing(entry -> me_SCANNED_FOLDER_INS.equals(entry.getKey()))); // The scanned folders last (they check the show rows written)
+		for (Map.Entry<String, List<ModelDataRow>> entry : tmpEntries) {
+			PreparedStatement tmpStat = this.meStatCache.acquire(entry.getKey());
+			Savepoint tmpSave = this.meConn.setSavepoint();
+			try {
+				for (ModelDataRow row : entry.getValue()) {
+					this.bindRow(tmpStat, row);
+					tmpStat.addBatch();
+				}
+				try {
+					int[] tmpCounts = tmpStat.executeBatch();
+					for (int i = 0; i < tmpCounts.length; i++) {
+						if (tmpCounts[i] != 0) { // (Conditional inserts, like the scanned folders, can write nothing)
+							theReport.addInserted(entry.getValue().get(i));
+							insertedRows.add(entry.getValue().get(i));
+						}
+					}
+				} catch (SQLException e) { // Some row failed; redo this batch row by row to find out which
+					if (!(e instanceof BatchUpdateException || e.getErrorCode() == 19)) { // When not a constraint failure
+						throw e;
+					}
+					tmpStat.clearBatch();
+					this.meConn.rollback(tmpSave);
+					for (ModelDataRow row : entry.getValue()) {
+						this.bindRow(tmpStat, row);
+						try {
+							if (tmpStat.executeUpdate() != 0) {
+								theReport.addInserted(row);
+								insertedRows.add(row);
+							}
+						} catch (SQLException ex) {
+							if (ex.getErrorCode() != 19) { // When not a constraint failure
+								throw ex;
+							}
+							theReport.addRejected(row, ex.getMessage());
+						}
+					}
+				}
+				this.meConn.releaseSavepoint(tmpSave);
+			} finally {
+				this.meStatCache.release(entry.getKey(), tmpStat);
+			}
+		}
+		pendingRows.clear();
+	}
+
+	private void bindRow(PreparedStatement theStat, ModelDataRow theRow) throws SQLException {
+		for (int i = 0; i < theRow.getCells().size(); i++) { // Each parameter using its own type
+			theStat.setObject(i + 1, theRow.getCells().get(i).getValue(), theRow.getCells().get(i).getSqlType());
+		}
 	}
 
 	/**
@@ -318,122 +1059,546 @@ public class HomeShowSqliteDAO implements AutoCloseable {
 		if (dataCriteria.isEmpty()) {
 			return Collections.emptyList();
 		}
-		int i;
-		String tmpStr = null;
-		LinkedList<ModelDataRow> outResults = new LinkedList<>(); // Will hold the query results
+		long tmpStart = System.nanoTime();
+		if (prepState == null || prepState.isEmpty()) { // If no prepared statement provided
+			prepState = this.buildSearchStatement(dataCriteria);
+			dataCriteria = getConditionCells(dataCriteria); // To be handled in the next part
+		}
+		final String tmpSql = prepState; // The statement cache key (before filling in the parameter data)
+		Object tmpKey = this.meResultCache == null ? null : Arrays.asList("data", this.bindCriteria(null, tmpSql, dataCriteria, -1));
+		List<ModelDataRow> outRows = tmpKey == null ? null : this.meResultCache.get(tmpKey);
+		if (outRows == null) {
+			ModelResultCache.ModelPendingResult tmpPending = tmpKey == null ? null : this.meResultCache.prepare(tmpKey, tmpSql); // (Before retrieving)
+			outRows = this.searchReplica(dataCriteria, tmpSql);
+			outRows = outRows == null ? this.searchDatabase(this.meAggregates.getOrDefault(tmpSql, tmpSql), dataCriteria) : outRows;
+			if (tmpPending != null) {
+				this.meResultCache.put(tmpPending, outRows, estimateBytes(outRows));
+			}
+		}
+		this.meMetrics.recordOperation("getData", tmpStart);
+		return outRows;
+	}
+
+	/**
+	 * Retrieves data from database according to specified criteria, as a list that loads its rows page by page when they are
+	 * accessed (only the rows count and the first page are retrieved right away). Unlike 'getData', the memory used is bounded
+	 * by the recently accessed pages instead of the number of results. Getting a row waits for its page to be loaded.
+	 * @param <T>			the type that the rows are mapped to
+	 * @param dataCriteria	a list of data to retrieve data according to
+	 * @param prepState		(optional) the prepared statement to be used to retrieve data, or null (or empty string) for an auto-built statement
+	 * @param rowMapper		maps every retrieved row (once per page load) to the list element
+	 * @return				a list of the mapped rows that represent the retrieved data
+	 * @throws SQLException	thrown if a database access error/timeout occurs or this method is called on a closed connection
+	 */
+	public <T> List<T> getDataPaged(List<ModelDataCell<?>> dataCriteria, String prepState, Function<ModelDataRow, T> rowMapper) throws SQLException {
+		return this.getDataPaged(dataCriteria, prepState, rowMapper, null);
+	}
+
+	/**
+	 * Retrieves data from database according to specified criteria, as a list that loads its rows page by page (see the
+	 * version without a page listener). Getting a row whose page is not loaded yet does not wait (so a view's thread is not
+	 * held up while scrolling): the page is loaded by the page loader thread, the row is got as null meanwhile, and the
+	 * page listener is told once the page is loaded (walking the list, like copying it, still waits for every page).
+	 * @param <T>			the type that the rows are mapped to
+	 * @param dataCriteria	a list of data to retrieve data according to
+	 * @param prepState		(optional) the prepared statement to be used to retrieve data, or null (or empty string) for an auto-built statement
+	 * @param rowMapper		maps every retrieved row (once per page load) to the list element
+	 * @param pageListener	(optional) told (on the page loader thread) when a page whose rows were got as null is loaded,
+	 * 						or null for getting a row to wait for its page
+	 * @return				a list of the mapped rows that represent the retrieved data
+	 * @throws SQLException	thrown if a database access error/timeout occurs or this method is called on a closed connection
+	 */
+	public <T> List<T> getDataPaged(List<ModelDataCell<?>> dataCriteria, String prepState, Function<ModelDataRow, T> rowMapper, Runnable pageListener) throws SQLException {
+		if (dataCriteria.isEmpty()) {
+			return Collections.emptyList();
+		}
+		long tmpStart = System.nanoTime();
 		if (prepState == null || prepState.isEmpty()) { // If no prepared statement provided
-			StringBuilder tmpPrepStat = new StringBuilder("SELECT DISTINCT ");
-			List<String> tmpTables = dataCriteria.stream().map(ModelDataCell::getTableName).distinct().collect(Collectors.toList()); // Get table names (distinct) involved in query
-			List<ModelDataCell<?>> tmpSelects = dataCriteria.stream().filter(cell -> { // To be placed after SELECT (The requested data columns. The cells should be empty)
-				if (String.class == cell.getValueClass()) {
-					return cell.getValue() == null || ((String)cell.getValue()).isEmpty();
-				} else if (Integer.class == cell.getValueClass()) {
-					return ((Integer)cell.getValue()) < 0;
-				} else if (Boolean.class == cell.getValueClass()) {
-					return cell.getValue() == null;
-				} else if (ModelPersRole.class == cell.getValueClass()) {
-					return ((ModelPersRole)cell.getValue()) == ModelPersRole.NONE;
+			prepState = this.buildSearchStatement(dataCriteria);
+			dataCriteria = getConditionCells(dataCriteria);
+		}
+		Object tmpKey = this.meResultCache == null ? null : Arrays.asList("paged", this.bindCriteria(null, prepState, dataCriteria, -1));
+		List<ModelDataRow> tmpRows = tmpKey == null ? null : this.meResultCache.get(tmpKey);
+		if (tmpRows == null) {
+			ModelResultCache.ModelPendingResult tmpPending = tmpKey == null ? null : this.meResultCache.prepare(tmpKey, prepState); // (Before retrieving)
+			tmpRows = this.searchReplica(dataCriteria, prepState); // Already in memory (only paged for the row mapping)
+			tmpRows = tmpRows == null ? this.searchDatabasePaged(this.meAggregates.getOrDefault(prepState, prepState), dataCriteria) : tmpRows;
+			if (tmpPending != null) {
+				this.meResultCache.put(tmpPending, tmpRows, estimateBytes(tmpRows));
+			}
+		}
+		final List<ModelDataRow> tmpAllRows = tmpRows;
+		ModelPagedResult.ModelPageLoader tmpLoader = tmpAllRows instanceof ModelPagedResult ? ((ModelPagedResult<ModelDataRow>)tmpAllRows)::loadRows // (So its failed pages are not kept as empty)
+				: (offset, limit) -> tmpAllRows.subList(offset, Math.min(offset + limit, tmpAllRows.size()));
+		ModelPagedResult<T> outResults = new ModelPagedResult<>(tmpAllRows.size(), me_PAGE_SIZE, me_PAGE_CACHE_SIZE, tmpLoader, rowMapper,
+				pageListener == null ? null : this.mePageLoader, pageListener); // (Rows deleted since counted stay null)
+		if (!outResults.isEmpty()) {
+			outResults.load(0); // Map the first page now (waiting for it)
+		}
+		this.meMetrics.recordOperation("getDataPaged", tmpStart); // (Up to the first page)
+		return outResults;
+	}
+
+	/**
+	 * Retrieves the top search-as-you-type suggestions for the specified criteria (as many as the search popup shows), ranked
+	 * by the text criteria with the longest typed value: the rows whose value is the typed value first, then the rows whose
+	 * value starts with it, then the rows whose value contains it, each newest first. When all the criteria are of a table
+	 * whose text columns are autocompleted (the shows, personnel and genres) and there are enough prefix matches, they are
+	 * found in memory; otherwise they are retrieved from database by a ranked and limited statement.
+	 * @param <T>			the type that the rows are mapped to
+	 * @param dataCriteria	a list of (non-empty) data to suggest rows according to
+	 * @param rowMapper		maps every suggested row to the list element
+	 * @param searchNo		a number that identifies this search to 'cancelRunningQuery' (unique among the running searches)
+	 * @return				a list of the mapped rows that represent the suggestions (best first)
+	 * @throws SQLException	thrown if a database access error/timeout occurs, the search is cancelled, or this method is called on
+	 * 						a closed connection
+	 */
+	public <T> List<T> getSuggestions(List<ModelDataCell<?>> dataCriteria, Function<ModelDataRow, T> rowMapper, long searchNo) throws SQLException {
+		if (dataCriteria.isEmpty()) {
+			return Collections.emptyList();
+		}
+		long tmpStart = System.nanoTime();
+		List<ModelDataRow> tmpRows = getConditionCells(dataCriteria).size() < dataCriteria.size() ? null : this.meSuggestions.suggest(dataCriteria, me_SUGGESTION_LIMIT);
+		if (tmpRows == null) {
+			tmpRows = this.searchDatabaseTop(dataCriteria, me_SUGGESTION_LIMIT, searchNo);
+		}
+		List<T> outRows = tmpRows.stream().map(rowMapper).collect(Collectors.toList());
+		this.meMetrics.recordOperation("getSuggestions", tmpStart);
+		return outRows;
+	}
+
+	private List<ModelDataRow> searchDatabase(String theSql, List<ModelDataCell<?>> dataCriteria) throws SQLException {
+		ModelReaderPool.ModelReader tmpReader = this.meReaders.acquire();
+		try {
+			PreparedStatement tmpStat = tmpReader.getStatements().acquire(theSql);
+			try {
+				long tmpStart = System.nanoTime();
+				TraceQueryEvent tmpTrace = new TraceQueryEvent(theSql);
+				try {
+					ModelStatementEcho tmpEcho = this.bindCriteria(tmpStat, theSql, dataCriteria, tmpStat.getParameterMetaData().getParameterCount());
+					try (ResultSet tmpRes = tmpStat.executeQuery()) { // Executing query
+						List<ModelDataRow> outRows = this.readRows(tmpRes, tmpEcho);
+						this.meMetrics.recordStatement(theSql, tmpStart);
+						tmpTrace.finish(outRows.size());
+						this.logIfSlow(tmpStart, outRows.size(), () -> tmpEcho);
+						return outRows;
+					}
+				} catch (SQLException e) {
+					throw traceFailure(tmpTrace, e);
+				} finally {
+					tmpTrace.close();
 				}
-				return false;
-			}).collect(Collectors.toList());
-			List<ModelDataCell<?>> tmpConds = dataCriteria.stream().filter(cell -> { // To be placed as predicates (the cells should not be empty)
-				if (String.class == cell.getValueClass()) {
-					return !(cell.getValue() == null || ((String)cell.getValue()).isEmpty());
-				} else if (Integer.class == cell.getValueClass()) {
-					return ((Integer)cell.getValue())  > -1;
-				} else if (Boolean.class == cell.getValueClass()) {
-					return cell.getValue() != null;
-				} else if (ModelPersRole.class == cell.getValueClass()) {
-					return ((ModelPersRole)cell.getValue()) != ModelPersRole.NONE;
+			} finally {
+				tmpReader.getStatements().release(theSql, tmpStat);
+			}
+		} finally {
+			this.meReaders.release(tmpReader);
+		}
+	}
+
+	/**
+	 * Retrieves the top rows of an auto-built statement, ranked as the suggestions (see 'getSuggestions'). The ranking is the
+	 * statement order, so SQLite keeps only the top rows while scanning and the first rows read are the best ones.
+	 * @param dataCriteria	the criteria cells
+	 * @param maxRows		the maximum number of rows to retrieve
+	 * @param searchNo		the number that cancels the query while executing
+	 * @return				the rows retrieved
+	 * @throws SQLException	thrown if a database access error/timeout occurs
+	 */
+	private List<ModelDataRow> searchDatabaseTop(List<ModelDataCell<?>> dataCriteria, int maxRows, long searchNo) throws SQLException {
+		String tmpBase = this.buildSearchStatement(dataCriteria);
+		List<ModelDataCell<?>> tmpConds = getConditionCells(dataCriteria);
+		ModelDataCell<?> tmpRanking = ModelSuggestionIndex.getRankingCell(tmpConds);
+		String tmpRecency = (tmpRanking == null ? (tmpConds.isEmpty() ? dataCriteria : tmpConds).get(0) : tmpRanking).getTableName() + ".rowid DESC";
+		String tmpColumn = tmpRanking == null ? null : tmpRanking.getTableName() + '.' + tmpRanking.getColumnName();
+		String tmpSql = tmpBase.substring(0, tmpBase.length() - (tmpBase.endsWith(";") ? 1 : 0)) + "\nORDER BY "
+				+ (tmpColumn == null ? "" : "CASE WHEN " + tmpColumn + " LIKE ? THEN 0 WHEN " + tmpColumn + " LIKE ? THEN 1 ELSE 2 END, ") + tmpRecency + "\nLIMIT ?;";
+		ModelReaderPool.ModelReader tmpReader = this.meReaders.acquire();
+		try {
+			PreparedStatement tmpStat = tmpReader.getStatements().acquire(tmpSql);
+			try {
+				long tmpStart = System.nanoTime();
+				TraceQueryEvent tmpTrace = new TraceQueryEvent(tmpSql);
+				try {
+					ModelStatementEcho tmpEcho = this.bindCriteria(tmpStat, tmpSql, tmpConds, tmpConds.size());
+					int tmpParamNo = tmpConds.size();
+					if (tmpRanking != null) { // The exact and prefix patterns of the ranking value
+						for (String pattern : new String[] { tmpRanking.getValue().toString(), tmpRanking.getValue() + "%" }) {
+							tmpStat.setString(++tmpParamNo, pattern);
+							tmpEcho.setParameter(tmpParamNo, pattern, true);
+						}
+					}
+					tmpStat.setInt(++tmpParamNo, maxRows);
+					tmpEcho.setParameter(tmpParamNo, maxRows, false);
+					synchronized (this.meRunningQueries) {
+						this.meRunningQueries.put(searchNo, tmpStat);
+					}
+					try (ResultSet tmpRes = tmpStat.executeQuery()) {
+						List<ModelDataRow> outRows = this.readRows(tmpRes, tmpEcho);
+						this.meMetrics.recordStatement(tmpSql, tmpStart);
+						tmpTrace.finish(outRows.size());
+						this.logIfSlow(tmpStart, outRows.size(), () -> tmpEcho);
+						return outRows;
+					} finally {
+						synchronized (this.meRunningQueries) {
+							this.meRunningQueries.remove(searchNo);
+						}
+					}
+				} catch (SQLException e) {
+					throw traceFailure(tmpTrace, e);
+				} finally {
+					tmpTrace.close();
 				}
-				return false;
-			}).collect(Collectors.toList());
-			Map<String, String> tmpFKeys = new LinkedHashMap<>(this.meJoinONs); // A copy of all the table's foreign keys
-			final List<String> tmpAllOrdTables = Arrays.asList(tmpFKeys.keySet().toArray(new String[0]));					//
-			tmpTables.sort((tbl1, tbl2) -> tmpAllOrdTables.indexOf(tbl1) - tmpAllOrdTables.indexOf(tbl2));					//
-			for (i = 0; !tmpAllOrdTables.get(i).equals(tmpTables.get(0)); i++) {											// Here, we fill in all the table names between the
-				tmpFKeys.remove(tmpAllOrdTables.get(i));																	// first and last table contained in the criteria
-			}																												// (in the order: personnel, participates, hasgenre,
-			for (i = tmpAllOrdTables.size() - 1; !tmpAllOrdTables.get(i).equals(tmpTables.get(tmpTables.size() - 1)); i--) {// and genre).
-				tmpFKeys.remove(tmpAllOrdTables.get(i));																	//
-			}																												//
-			List<String> tmpAllTables = Arrays.asList(tmpFKeys.keySet().toArray(new String[0]));
-			if (tmpSelects.isEmpty()) {																	//
-				tmpPrepStat.append("*\nFROM ");															//
-			} else {																					//
-				tmpPrepStat.append(tmpSelects.get(0).getTableName());									//
-				tmpPrepStat.append('.');																//
-				tmpPrepStat.append(tmpSelects.get(0).getColumnName());									//
-				tmpSelects.stream().skip(1).forEach(cell -> {											//
-					tmpPrepStat.append(", ");															//
-					tmpPrepStat.append(cell.getTableName());											//
-					tmpPrepStat.append('.');															//
-					tmpPrepStat.append(cell.getColumnName());											//
-				});																						//
-				tmpPrepStat.append("\nFROM ");															//
-			}																							//
-			tmpPrepStat.append(tmpAllTables.get(0));													//
-			tmpAllTables.stream().skip(1).forEach(tblStr -> {											//
-				tmpPrepStat.append("\nJOIN ");															// Building prepared statement
-				tmpPrepStat.append(tblStr);																//
-				tmpPrepStat.append(" ON ");																//
-				tmpPrepStat.append(tmpFKeys.get(tblStr));												//
-			});																							//
-			if (!tmpConds.isEmpty()) {																	//
-				tmpPrepStat.append("\nWHERE ");															//
-				tmpPrepStat.append(tmpConds.get(0).getTableName());										//
-				tmpPrepStat.append('.');																//
-				tmpPrepStat.append(tmpConds.get(0).getColumnName());									//
-				tmpPrepStat.append(Types.VARCHAR == tmpConds.get(0).getSqlType() ? " LIKE ?" : "=?");	//
-				tmpConds.stream().skip(1).forEach(cell -> {												//
-					tmpPrepStat.append(" AND ");														//
-					tmpPrepStat.append(cell.getTableName());											//
-					tmpPrepStat.append('.');															//
-					tmpPrepStat.append(cell.getColumnName());											//
-					tmpPrepStat.append(Types.VARCHAR == cell.getSqlType() ? " LIKE ?" : "=?");			//
-				});																						//
-				tmpPrepStat.append(';');																//
-			}
-			dataCriteria = tmpConds; // To be handled in the next part
-			tmpStr = tmpPrepStat.toString();
-		} else { // If prepared statement was provided
-			tmpStr = prepState;
-		}
-		try (PreparedStatement tmpStat = this.meConn.prepareStatement(tmpStr)) {
-			for (i = 0; i < tmpStat.getParameterMetaData().getParameterCount(); i++) { // Loop and set prepared statement parameters (each using its own type)
-				if (Types.VARCHAR == dataCriteria.get(i % dataCriteria.size()).getSqlType()) { // Check if string to add '%' around parameter
-					tmpStat.setObject(i + 1, "%" + dataCriteria.get(i % dataCriteria.size()).getValue() + "%", dataCriteria.get(i % dataCriteria.size()).getSqlType());
-				} else {
-					tmpStat.setObject(i + 1, dataCriteria.get(i % dataCriteria.size()).getValue(), dataCriteria.get(i % dataCriteria.size()).getSqlType());
+			} finally {
+				tmpReader.getStatements().release(tmpSql, tmpStat);
+			}
+		} finally {
+			this.meReaders.release(tmpReader);
+		}
+	}
+
+	private List<ModelDataRow> searchDatabasePaged(String theSql, List<ModelDataCell<?>> dataCriteria) throws SQLException {
+		String tmpBase = theSql.trim();
+		tmpBase = tmpBase.endsWith(";") ? tmpBase.substring(0, tmpBase.length() - 1) : tmpBase;
+		String tmpCountSql = "SELECT COUNT (*) FROM (\n" + tmpBase + "\n);";
+		int tmpCount;
+		ModelStatementEcho tmpEcho;
+		ModelReaderPool.ModelReader tmpReader = this.meReaders.acquire();
+		boolean tmpIsKept = tmpReader.getConnection() != this.meConn; // (Not the writer connection that in-memory databases share)
+		try {
+			String tmpOrdered = this.meOrderedStatements.get(tmpBase);
+			if (tmpOrdered == null) {
+				StringBuilder tmpTies = new StringBuilder(me_ORDER_BY_END.matcher(tmpBase).matches() ? ", " : "\nORDER BY "); // Every column breaks the ties (a total order, so the pages are stable)
+				try (PreparedStatement tmpStat = tmpReader.getConnection().prepareStatement(tmpBase)) { // Only for the result columns (not executed)
+					for (int i = 1; i <= tmpStat.getMetaData().getColumnCount(); i++) {
+						tmpTies.append(i == 1 ? "" : ", ").append(i);
+					}
 				}
-				tmpStr = tmpStr.replaceFirst("\\?", dataCriteria.get(i % dataCriteria.size()).getSqlType() == Types.VARCHAR
-						? "'%" + dataCriteria.get(i % dataCriteria.size()).getValue().toString() + "%'"
-						: dataCriteria.get(i % dataCriteria.size()).getValue().toString());
-			}
-			try (ResultSet tmpRes = tmpStat.executeQuery()) { // Executing query
-				while (tmpRes.next()) { // Loop and retrieve data from result
-					outResults.add(new ModelDataRow(me_SERACH_TABLE_NAME, tmpStr));
-					for (i = 1; i <= tmpRes.getMetaData().getColumnCount(); i++) {
-						if (tmpRes.getObject(i) != null) { // Do not include NULL cells
-							boolean tmpIsKey = this.meKeys.contains(tmpRes.getMetaData().getTableName(i) + "." + tmpRes.getMetaData().getColumnName(i));
-							if (tmpRes.getMetaData().getColumnName(i).equals("role")) {
-								outResults.getLast().addCell(new ModelDataCell<>(tmpRes.getMetaData().getColumnName(i), me_SERACH_TABLE_NAME,
-										ModelPersRole.getValueOf((String)tmpRes.getObject(i)) , ModelPersRole.class, Types.VARCHAR, tmpIsKey, false));
-							} else if (tmpRes.getMetaData().getColumnName(i).equals("is_movie")) {
-								outResults.getLast().addCell(new ModelDataCell<>(tmpRes.getMetaData().getColumnName(i), me_SERACH_TABLE_NAME,
-										((Integer)tmpRes.getObject(i)) > 0, Boolean.class, Types.BOOLEAN, tmpIsKey, false));
-							} else if (String.class.isInstance(tmpRes.getObject(i))) {
-								outResults.getLast().addCell(new ModelDataCell<>(tmpRes.getMetaData().getColumnName(i), me_SERACH_TABLE_NAME,
-										(String)tmpRes.getObject(i), String.class, Types.VARCHAR, tmpIsKey, false));
-							} else if (Integer.class.isInstance(tmpRes.getObject(i))) {
-								outResults.getLast().addCell(new ModelDataCell<>(tmpRes.getMetaData().getColumnName(i), me_SERACH_TABLE_NAME,
-										(Integer)tmpRes.getObject(i), Integer.class, Types.INTEGER, tmpIsKey, false));
-							}
-						}
+				tmpOrdered = tmpBase + tmpTies;
+				this.meOrderedStatements.put(tmpBase, tmpOrdered);
+			}
+			tmpBase = tmpOrdered;
+			if (tmpIsKept) {
+				tmpReader.getConnection().setAutoCommit(false); // The count and the pages are read from one snapshot
+			}
+			PreparedStatement tmpStat = tmpReader.getStatements().acquire(tmpCountSql);
+			try {
+				long tmpStart = System.nanoTime();
+				TraceQueryEvent tmpTrace = new TraceQueryEvent(tmpCountSql);
+				try {
+					tmpEcho = this.bindCriteria(tmpStat, theSql, dataCriteria, tmpStat.getParameterMetaData().getParameterCount());
+					try (ResultSet tmpRes = tmpStat.executeQuery()) {
+						tmpCount = tmpRes.getInt(1);
+						this.meMetrics.recordStatement(tmpCountSql, tmpStart);
+						tmpTrace.finish(1);
+						this.logIfSlow(tmpStart, 1, () -> tmpEcho.rebase(tmpCountSql));
 					}
+				} catch (SQLException e) {
+					throw traceFailure(tmpTrace, e);
+				} finally {
+					tmpTrace.close();
 				}
+			} finally {
+				tmpReader.getStatements().release(tmpCountSql, tmpStat);
+			}
+		} catch (SQLException | RuntimeException e) {
+			if (tmpIsKept) {
+				try {
+					tmpReader.getConnection().setAutoCommit(true);
+				} catch (SQLException ex) {}
 			}
+			this.meReaders.release(tmpReader);
+			throw e;
+		}
+		if (!tmpIsKept) {
+			this.meReaders.release(tmpReader);
+		}
+		ModelPagedQuery tmpQuery = new ModelPagedQuery(tmpBase + "\nLIMIT ? OFFSET ?;", theSql, dataCriteria, tmpCount, tmpEcho, tmpIsKept ? tmpReader : null);
+		ModelPagedQuery tmpPrevious = this.mePagedQuery.getAndSet(tmpQuery);
+		if (tmpPrevious != null) { // (Its pages are read on any idle reader from now on)
+			tmpPrevious.close();
+		}
+		ModelPagedResult<ModelDataRow> outResults = new ModelPagedResult<>(tmpCount, me_PAGE_SIZE, me_PAGE_CACHE_SIZE, tmpQuery, row -> row, null, null); // (Read by the mapped list, on its loader)
+		if (outResults.isEmpty()) {
+			tmpQuery.close(); // (No page to read)
+		} else {
+			outResults.get(0); // Load the first page now (on the searching thread)
 		}
 		return outResults;
 	}
+
+	/**
+	 * Binds the criteria to the statement parameters (cycling through the criteria when there are more parameters).
+	 * @param theStat		the statement to bind the parameters of (or null to only create the echo)
+	 * @param theSql		the SQL text of the statement
+	 * @param dataCriteria	the criteria cells
+	 * @param paramCount	the number of parameters to bind (or negative for all the parameters of the SQL text)
+	 * @return				the echo of the statement (rendered with the parameter data only when shown to the user)
+	 * @throws SQLException	thrown if a database access error occurs
+	 */
+	private ModelStatementEcho bindCriteria(PreparedStatement theStat, String theSql, List<ModelDataCell<?>> dataCriteria, int paramCount) throws SQLException {
+		ModelStatementEcho outEcho = new ModelStatementEcho(theSql); // Numbered parameters (like '?1') can be used more than once
+		paramCount = paramCount < 0 ? outEcho.getParameterCount() : paramCount;
+		for (int i = 0; i < paramCount; i++) { // Loop and set prepared statement parameters (each using its own type)
+			ModelDataCell<?> tmpCell = dataCriteria.get(i % dataCriteria.size());
+			Object tmpValue = toBoundValue(tmpCell);
+			if (theStat != null) {
+				theStat.setObject(i + 1, tmpValue, tmpCell.getSqlType());
+			}
+			outEcho.setParameter(i + 1, tmpValue, tmpCell.getSqlType() == Types.VARCHAR);
+		}
+		return outEcho;
+	}
+
+	private void logIfSlow(long startNanos, int rowCount, Supplier<ModelStatementEcho> theEcho) {
+		if (this.meSlowLog != null) {
+			this.meSlowLog.offer(startNanos, rowCount, theEcho);
+		}
+	}
+
+	private static SQLException traceFailure(TraceQueryEvent theTrace, SQLException theErr) {
+		if (theErr.getErrorCode() == 9) { // SQLITE_INTERRUPT (cancelled by 'cancelRunningQuery'); other errors end it as failed
+			theTrace.cancel();
+		}
+		return theErr;
+	}
+
+	private static long estimateBytes(List<ModelDataRow> theRows) {
+		if (theRows.isEmpty()) {
+			return 0L;
+		} else if (theRows instanceof ModelPagedResult) { // Bounded by the pages it keeps (estimated by the first page)
+			int tmpPages = Math.min(me_PAGE_CACHE_SIZE, (theRows.size() + me_PAGE_SIZE - 1) / me_PAGE_SIZE);
+			return theRows.get(0).getResultColumns().getEstimatedBytes() * tmpPages;
+		}
+		return theRows.get(0).getResultColumns().getEstimatedBytes();
+	}
+
+	private static Object toBoundValue(ModelDataCell<?> theCell) {
+		if (theCell.getTableName().endsWith(me_FTS_SUFFIX)) { // Check if full-text words to convert to 'MATCH' expression
+			return toMatchExpression(theCell.getValue().toString());
+		} else if (Types.VARCHAR == theCell.getSqlType()) { // Check if string to add '%' around parameter
+			return "%" + theCell.getValue() + "%";
+		}
+		return theCell.getValue();
+	}
+
+	private List<ModelDataRow> readRows(ResultSet theRes, ModelStatementEcho theEcho) throws SQLException {
+		return this.readRows(theRes, theEcho, Integer.MAX_VALUE);
+	}
+
+	private List<ModelDataRow> readRows(ResultSet theRes, ModelStatementEcho theEcho, int maxRows) throws SQLException {
+		ModelRowMapper tmpMapper = new ModelRowMapper(theRes.getMetaData(), this.meKeys, me_SERACH_TABLE_NAME, this.meNestedColumns); // Worked out once per query
+		List<ModelDataRow> outRows = tmpMapper.mapRows(theRes, theEcho, maxRows).getRows(); // Rows are lightweight views over the columnar result
+		this.meMetrics.addRowsReturned(outRows.size());
+		return outRows;
+	}
+
+	private void loadReplica() throws SQLException {
+		ModelReaderPool.ModelReader tmpReader = this.meReaders.acquire(); // A consistent snapshot
+		try {
+			this.meReplicaMappers = new HashMap<>();
+			for (String sql : new String[] { me_QSEARCH_PERSONEL, me_QSEARCH_SHOW }) {
+				try (PreparedStatement tmpStat = tmpReader.getConnection().prepareStatement(sql)) { // Only for the result columns (not executed)
+					this.meReplicaMappers.put(sql, new ModelRowMapper(tmpStat.getMetaData(), this.meKeys, me_SERACH_TABLE_NAME));
+				}
+			}
+			this.meReplica = new ModelLibraryReplica(tmpReader.getConnection(), this.meReplicaMappers.get(me_QSEARCH_PERSONEL).getColumnNames(),
+					this.meReplicaMappers.get(me_QSEARCH_SHOW).getColumnNames());
+		} finally {
+			this.meReaders.release(tmpReader);
+		}
+	}
+
+	private void loadAggregates() throws SQLException {
+		String[][] tmpVariants = { // The statement, its aggregated variant, the count column (followed by the aggregated columns), and the column they are aggregated into
+			{ me_QSEARCH_PERSONEL, me_QSEARCH_PERSONEL_AGG, "show_count", "show_rows" },
+			{ me_QSEARCH_SHOW, me_QSEARCH_SHOW_AGG, "personnel_count", "personnel_rows" },
+			{ me_QSEARCH_PERSONEL_FTS, me_QSEARCH_PERSONEL_FTS_AGG, "show_count", "show_rows" },
+			{ me_QSEARCH_SHOW_FTS, me_QSEARCH_SHOW_FTS_AGG, "personnel_count", "personnel_rows" }
+		};
+		ModelReaderPool.ModelReader tmpReader = this.meReaders.acquire();
+		try {
+			for (String[] variant : tmpVariants) {
+				try (PreparedStatement tmpStat = tmpReader.getConnection().prepareStatement(variant[0])) { // Only for the result columns (not executed)
+					ModelRowMapper tmpMapper = new ModelRowMapper(tmpStat.getMetaData(), this.meKeys, me_SERACH_TABLE_NAME);
+					this.meNestedColumns.put(variant[3], tmpMapper.subMapper(Arrays.asList(tmpMapper.getColumnNames()).indexOf(variant[2]) + 1));
+				}
+				this.meAggregates.put(variant[0], variant[1]);
+			}
+		} finally {
+			this.meReaders.release(tmpReader);
+		}
+	}
+
+	/**
+	 * Answers a quick search from the in-memory replica (if enabled and the search is one that it answers).
+	 * @param dataCriteria	the criteria cells
+	 * @param theSql		the statement of the search
+	 * @return				the rows found, or null if the search has to go to the database
+	 * @throws SQLException	never (the criteria are only rendered to the statement echo)
+	 */
+	private List<ModelDataRow> searchReplica(List<ModelDataCell<?>> dataCriteria, String theSql) throws SQLException {
+		ModelRowMapper tmpMapper = this.meReplica == null ? null : this.meReplicaMappers.get(theSql);
+		if (tmpMapper == null || dataCriteria.size() != 3) {
+			return null;
+		}
+		Object[] tmpValues = dataCriteria.stream().map(HomeShowSqliteDAO::toBoundValue).toArray();
+		ModelResultColumns tmpCols = tmpMapper.createColumns(this.bindCriteria(null, theSql, dataCriteria, -1));
+		if (theSql.equals(me_QSEARCH_PERSONEL) && tmpValues[0] instanceof String && tmpValues[1] instanceof String && tmpValues[2] instanceof String) {
+			this.meReplica.searchPersonnel(tmpCols, (String)tmpValues[0], (String)tmpValues[1], (String)tmpValues[2]);
+		} else if (theSql.equals(me_QSEARCH_SHOW) && tmpValues[0] instanceof String && (tmpValues[1] == null || tmpValues[1] instanceof Integer) && tmpValues[2] instanceof String) {
+			this.meReplica.searchShows(tmpCols, (String)tmpValues[0], (Integer)tmpValues[1], (String)tmpValues[2]);
+		} else {
+			return null;
+		}
+		return tmpCols.getRows();
+	}
+
+	/**
+	 * Builds a select statement (that joins all the tables between the first and last table involved) for the specified criteria.
+	 * @param dataCriteria	a list of data to retrieve data according to (empty cells are selected and non-empty cells are conditions)
+	 * @return				the prepared statement
+	 */
+	private String buildSearchStatement(List<ModelDataCell<?>> dataCriteria) {
+		int i;
+		StringBuilder tmpPrepStat = new StringBuilder("SELECT DISTINCT ");
+		List<String> tmpTables = dataCriteria.stream().map(ModelDataCell::getTableName).distinct().collect(Collectors.toList()); // Get table names (distinct) involved in query
+		List<ModelDataCell<?>> tmpSelects = dataCriteria.stream().filter(cell -> { // To be placed after SELECT (The requested data columns. The cells should be empty)
+			if (String.class == cell.getValueClass()) {
+				return cell.getValue() == null || ((String)cell.getValue()).isEmpty();
+			} else if (Integer.class == cell.getValueClass()) {
+				return ((Integer)cell.getValue()) < 0;
+			} else if (Boolean.class == cell.getValueClass()) {
+				return cell.getValue() == null;
+			} else if (ModelPersRole.class == cell.getValueClass()) {
+				return ((ModelPersRole)cell.getValue()) == ModelPersRole.NONE;
+			}
+			return false;
+		}).collect(Collectors.toList());
+		List<ModelDataCell<?>> tmpConds = getConditionCells(dataCriteria); // To be placed as predicates (the cells should not be empty)
+		Map<String, String> tmpFKeys = new LinkedHashMap<>(this.meJoinONs); // A copy of all the table's foreign keys
+		final List<String> tmpAllOrdTables = Arrays.asList(tmpFKeys.keySet().toArray(new String[0]));					//
+		tmpTables.sort((tbl1, tbl2) -> tmpAllOrdTables.indexOf(tbl1) - tmpAllOrdTables.indexOf(tbl2));					//
+		for (i = 0; !tmpAllOrdTables.get(i).equals(tmpTables.get(0)); i++) {											// Here, we fill in all the table names between the
+			tmpFKeys.remove(tmpAllOrdTables.get(i));																	// first and last table contained in the criteria
+		}																												// (in the order: personnel, participates, hasgenre,
+		for (i = tmpAllOrdTables.size() - 1; !tmpAllOrdTables.get(i).equals(tmpTables.get(tmpTables.size() - 1)); i--) {// and genre).
+			tmpFKeys.remove(tmpAllOrdTables.get(i));																	//
+		}																												//
+		List<String> tmpAllTables = Arrays.asList(tmpFKeys.keySet().toArray(new String[0]));
+		if (tmpSelects.isEmpty()) {																	//
+			tmpPrepStat.append("*\nFROM ");															//
+		} else {																					//
+			tmpPrepStat.append(tmpSelects.get(0).getTableName());									//
+			tmpPrepStat.append('.');																//
+			tmpPrepStat.append(tmpSelects.get(0).getColumnName());									//
+			tmpSelects.stream().skip(1).forEach(cell -> {											//
+				tmpPrepStat.append(", ");															//
+				tmpPrepStat.append(cell.getTableName());											//
+				tmpPrepStat.append('.');															//
+				tmpPrepStat.append(cell.getColumnName());											//
+			});																						//
+			tmpPrepStat.append("\nFROM ");															//
+		}																							//
+		tmpPrepStat.append(tmpAllTables.get(0));													//
+		tmpAllTables.stream().skip(1).forEach(tblStr -> {											//
+			tmpPrepStat.append("\nJOIN ");															// Building prepared statement
+			tmpPrepStat.append(tblStr);																//
+			tmpPrepStat.append(" ON ");																//
+			tmpPrepStat.append(tmpFKeys.get(tblStr));												//
+		});																							//
+		if (!tmpConds.isEmpty()) {																	//
+			tmpPrepStat.append("\nWHERE ");															//
+			tmpPrepStat.append(tmpConds.get(0).getTableName());										//
+			tmpPrepStat.append('.');																//
+			tmpPrepStat.append(tmpConds.get(0).getColumnName());									//
+			tmpPrepStat.append(Types.VARCHAR == tmpConds.get(0).getSqlType() ? " LIKE ?" : "=?");	//
+			tmpConds.stream().skip(1).forEach(cell -> {												//
+				tmpPrepStat.append(" AND ");														//
+				tmpPrepStat.append(cell.getTableName());											//
+				tmpPrepStat.append('.');															//
+				tmpPrepStat.append(cell.getColumnName());											//
+				tmpPrepStat.append(Types.VARCHAR == cell.getSqlType() ? " LIKE ?" : "=?");			//
+			});																						//
+			tmpPrepStat.append(';');																//
+		}
+		return tmpPrepStat.toString();
+	}
+
+	private static String[] concat(String[] firstArr, String[] secondArr) {
+		String[] outArr = Arrays.copyOf(firstArr, firstArr.length + secondArr.length);
+		System.arraycopy(secondArr, 0, outArr, firstArr.length, secondArr.length);
+		return outArr;
+	}
+
+	/**
+	 * Converts the typed words into a full-text 'MATCH' expression, where every word is a (quoted) prefix token that must match.
+	 * @param theWords	the words as typed
+	 * @return			the 'MATCH' expression
+	 */
+	private static String toMatchExpression(String theWords) {
+		String outExpr = Arrays.stream(theWords.split("[^\\p{L}\\p{N}]+")).filter(word -> !word.isEmpty()).map(word -> "\"" + word + "\"*").collect(Collectors.joining(" "));
+		return outExpr.isEmpty() ? me_FTS_MATCH_NONE : outExpr;
+	}
+
+	private static List<ModelDataCell<?>> getConditionCells(List<ModelDataCell<?>> dataCriteria) {
+		return dataCriteria.stream().filter(cell -> { // The cells that should not be empty
+			if (String.class == cell.getValueClass()) {
+				return !(cell.getValue() == null || ((String)cell.getValue()).isEmpty());
+			} else if (Integer.class == cell.getValueClass()) {
+				return ((Integer)cell.getValue())  > -1;
+			} else if (Boolean.class == cell.getValueClass()) {
+				return cell.getValue() != null;
+			} else if (ModelPersRole.class == cell.getValueClass()) {
+				return ((ModelPersRole)cell.getValue()) != ModelPersRole.NONE;
+			}
+			return false;
+		}).collect(Collectors.toList());
+	}
+
+	/**
+	 * Runs 'EXPLAIN QUERY PLAN' on the quick search statements and on every auto-built join shape, to find the joined
+	 * tables that are fully scanned for each row of the outer loop (the outer loop itself has to scan when searching
+	 * with "LIKE '%value%'") or that need an automatic index to be built on every execution.
+	 * @return				a list of warnings
+	 * @throws SQLException	thrown if a database access error/timeout occurs
+	 */
+	private List<String> checkQueryPlans() throws SQLException {
+		List<String> outWarnings = new ArrayList<>();
+		Map<String, String> tmpShapes = new LinkedHashMap<>(); // Statement description -> statement
+		this.meQSearchTemplates.forEach(row -> tmpShapes.put("'" + row.getTableName() + "'", row.getPreparedStatement()));
+		for (int i = 0; i < this.meTableTemplates.size(); i++) {
+			ModelDataCell<?> tmpFirst = this.meTableTemplates.get(i).getCells().get(0); // All templates start with a text key
+			for (int j = i + 1; j < this.meTableTemplates.size(); j++) {
+				ModelDataCell<?> tmpLast = this.meTableTemplates.get(j).getCells().get(0);
+				tmpShapes.put("join from '" + tmpFirst.getTableName() + "' to '" + tmpLast.getTableName() + "'", this.buildSearchStatement(Arrays.asList(
+						new ModelDataCell<>(tmpFirst.getColumnName(), tmpFirst.getTableName(), "?", String.class, Types.VARCHAR, true, true),
+						tmpLast)));
+			}
+		}
+		for (Map.Entry<String, String> shape : tmpShapes.entrySet()) {
+			for (String scan : this.findInnerScans(shape.getValue())) {
+				outWarnings.add("The " + shape.getKey() + " statement falls back to a full scan inside a join: " + scan);
+			}
+		}
+		return outWarnings;
+	}
+
+	private List<String> findInnerScans(String theStatement) throws SQLException {
+		List<String> outScans = new ArrayList<>();
+		Set<Integer> tmpLoopParents = new HashSet<>(); // Parents that already have a loop (so later loops are inner ones)
+		try (PreparedStatement tmpStat = this.meConn.prepareStatement("EXPLAIN QUERY PLAN " + theStatement); ResultSet tmpRes = tmpStat.executeQuery()) {
+			while (tmpRes.next()) { // Columns: id, parent, notused, detail
+				String tmpDetail = tmpRes.getString(4);
+				if (tmpDetail.startsWith("SCAN ") || tmpDetail.startsWith("SEARCH ")) {
+					if (!tmpLoopParents.add(tmpRes.getInt(2)) && tmpDetail.startsWith("SCAN ")) {
+						outScans.add(tmpDetail);
+					} else if (tmpDetail.contains(" USING AUTOMATIC ") && this.meJoinONs.containsKey(tmpDetail.split(" ")[1])) { // A table index built on every execution
+						outScans.add(tmpDetail);
+					}
+				}
+			}
+		}
+		return outScans;
+	}
 }
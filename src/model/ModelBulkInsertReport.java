@@ -0,0 +1,94 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A class that represents the outcome of a bulk insert: how many rows were inserted and which rows were rejected (in
+ * total and per table).
+ * @author Janty Azmat
+ */
+public class ModelBulkInsertReport {
+
+	/**
+	 * A class that represents a single row rejected due to table constraint(s).
+	 * @author Janty Azmat
+	 */
+	public static class ModelRejectedRow {
+		// Fields
+		private ModelDataRow meRow;
+		private String meReason;
+
+		ModelRejectedRow(ModelDataRow theRow, String theReason) {
+			this.meRow = theRow;
+			this.meReason = theReason;
+		}
+
+		public ModelDataRow getRow() {
+			return this.meRow;
+		}
+
+		public String getReason() {
+			return this.meReason;
+		}
+	}
+
+	// Fields
+	private int meInserted;
+	private List<ModelRejectedRow> meRejected;
+	private Map<String, Integer> meTableInserted;
+	private Map<String, Integer> meTableRejected;
+
+	ModelBulkInsertReport() {
+		this.meRejected = new ArrayList<>();
+		this.meTableInserted = new HashMap<>();
+		this.meTableRejected = new HashMap<>();
+	}
+
+	void addInserted(ModelDataRow theRow) {
+		this.meInserted++;
+		this.meTableInserted.merge(theRow.getTableName(), 1, Integer::sum);
+	}
+
+	void addRejected(ModelDataRow theRow, String theReason) {
+		this.meRejected.add(new ModelRejectedRow(theRow, theReason));
+		this.meTableRejected.merge(theRow.getTableName(), 1, Integer::sum);
+	}
+
+	/**
+	 * Used to get the number of rows that were inserted.
+	 * @return	the number of inserted rows
+	 */
+	public int getInsertedCount() {
+		return this.meInserted;
+	}
+
+	/**
+	 * Used to get the number of rows of the specified table that were inserted.
+	 * @param theTable	the name of the table
+	 * @return			the number of inserted rows of the table
+	 */
+	public int getInsertedCount(String theTable) {
+		return this.meTableInserted.getOrDefault(theTable, 0);
+	}
+
+	/**
+	 * Used to get the number of rows of the specified table that were rejected.
+	 * @param theTable	the name of the table
+	 * @return			the number of rejected rows of the table
+	 */
+	public int getRejectedCount(String theTable) {
+		return this.meTableRejected.getOrDefault(theTable, 0);
+	}
+
+	/**
+	 * Used to get the rows that were rejected due to table constraint(s) (SQLite error code 19).
+	 * @return	the rejected rows (in the order they were passed)
+	 */
+	public List<ModelRejectedRow> getRejectedRows() {
+		return Collections.unmodifiableList(this.meRejected);
+	}
+}
@@ -10,6 +10,7 @@ public class ModelDataRow {
 	// Fields
 	private String meTable;
 	private String mePrepStat;
+	private ModelResultColumns meColumns; // The columnar query result (if a row of one) that renders the statement when requested
 	private List<ModelDataCell<?>> meCells;
 
 	public ModelDataRow(String tableName, String prepStatement) {
@@ -23,7 +24,26 @@ public class ModelDataRow {
 		this.meCells.addAll(theCells);
 	}
 
+	/**
+	 * Constructor of a lightweight (read-only) row of a columnar query result. Its cells are created when accessed.
+	 * @param theColumns	the columnar query result
+	 * @param rowIndex		the index of the row in the result
+	 */
+	ModelDataRow(ModelResultColumns theColumns, int rowIndex) {
+		this.meTable = theColumns.getTableName();
+		this.meColumns = theColumns;
+		this.meCells = theColumns.getRowCells(rowIndex);
+	}
+
+	/**
+	 * Adds a cell to the row.
+	 * @param newCell	the cell to add
+	 * @throws UnsupportedOperationException	thrown if the row is a (read-only) row of a columnar query result
+	 */
 	public void addCell(ModelDataCell<?> newCell) {
+		if (this.meColumns != null) {
+			throw new UnsupportedOperationException("The rows of a query result are read-only.");
+		}
 		this.meCells.add(newCell);
 	}
 
@@ -32,7 +52,15 @@ public class ModelDataRow {
 	}
 
 	public String getPreparedStatement() {
-		return this.mePrepStat;
+		return this.meColumns == null ? this.mePrepStat : this.meColumns.getEcho();
+	}
+
+	/**
+	 * Used to get the columnar query result that this row is a row of.
+	 * @return	the columnar query result (or null if not a row of a query result)
+	 */
+	ModelResultColumns getResultColumns() {
+		return this.meColumns;
 	}
 
 	public List<ModelDataCell<?>> getCells() {
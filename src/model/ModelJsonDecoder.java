@@ -0,0 +1,171 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class that represents a minimal decoder of the JSON arrays of arrays built by SQLite 'json_group_array' (of
+ * 'json_array' rows), whose values are only texts, numbers, booleans and nulls.
+ * @author Janty Azmat
+ */
+class ModelJsonDecoder {
+	// Fields
+	private String meJson;
+	private int mePos;
+
+	private ModelJsonDecoder(String theJson) {
+		this.meJson = theJson;
+	}
+
+	/**
+	 * Decodes a JSON array of arrays into rows of values (texts as 'String', integers as 'Integer' or 'Long', other
+	 * numbers as 'Double', booleans as 'Integer' 1 or 0 like SQLite, and nulls as null).
+	 * @param theJson	the JSON text
+	 * @return			the rows of values
+	 * @throws IllegalArgumentException	thrown if the text is not a JSON array of arrays of plain values
+	 */
+	public static List<Object[]> decodeRows(String theJson) {
+		ModelJsonDecoder tmpDecoder = new ModelJsonDecoder(theJson);
+		List<Object[]> outRows = new ArrayList<>();
+		List<Object> tmpValues = new ArrayList<>();
+		tmpDecoder.expect('[');
+		if (!tmpDecoder.skipIf(']')) {
+			do {
+				tmpDecoder.expect('[');
+				tmpValues.clear();
+				if (!tmpDecoder.skipIf(']')) {
+					do {
+						tmpValues.add(tmpDecoder.readValue());
+					} while (tmpDecoder.skipIf(','));
+					tmpDecoder.expect(']');
+				}
+				outRows.add(tmpValues.toArray());
+			} while (tmpDecoder.skipIf(','));
+			tmpDecoder.expect(']');
+		}
+		if (tmpDecoder.peek() != -1) {
+			throw tmpDecoder.error("end of text");
+		}
+		return outRows;
+	}
+
+	private Object readValue() {
+		int tmpChar = this.peek();
+		switch (tmpChar) {
+			case '"':
+				return this.readText();
+			case 'n':
+				this.expectWord("null");
+				return null;
+			case 't':
+				this.expectWord("true");
+				return 1;
+			case 'f':
+				this.expectWord("false");
+				return 0;
+			default:
+				if (tmpChar == '-' || (tmpChar >= '0' && tmpChar <= '9')) {
+					return this.readNumber();
+				}
+				throw this.error("value");
+		}
+	}
+
+	private String readText() {
+		StringBuilder outText = new StringBuilder();
+		this.mePos++; // The opening quote
+		while (this.mePos < this.meJson.length()) {
+			char tmpChar = this.meJson.charAt(this.mePos++);
+			if (tmpChar == '"') {
+				return outText.toString();
+			} else if (tmpChar != '\\') {
+				outText.append(tmpChar);
+			} else if (this.mePos < this.meJson.length()) {
+				tmpChar = this.meJson.charAt(this.mePos++);
+				switch (tmpChar) {
+					case 'b':
+						outText.append('\b');
+						break;
+					case 'f':
+						outText.append('\f');
+						break;
+					case 'n':
+						outText.append('\n');
+						break;
+					case 'r':
+						outText.append('\r');
+						break;
+					case 't':
+						outText.append('\t');
+						break;
+					case 'u':
+						if (this.mePos + 4 > this.meJson.length()) {
+							throw this.error("unicode escape");
+						}
+						try {
+							outText.append((char)Integer.parseInt(this.meJson.substring(this.mePos, this.mePos + 4), 16));
+						} catch (NumberFormatException e) {
+							throw this.error("unicode escape");
+						}
+						this.mePos += 4;
+						break;
+					default: // Quote, backslash and slash
+						outText.append(tmpChar);
+				}
+			}
+		}
+		throw this.error("closing quote");
+	}
+
+	private Object readNumber() {
+		int tmpStart = this.mePos;
+		boolean tmpIsInteger = true;
+		while (this.mePos < this.meJson.length() && "+-0123456789.eE".indexOf(this.meJson.charAt(this.mePos)) >= 0) {
+			tmpIsInteger &= Character.isDigit(this.meJson.charAt(this.mePos)) || this.mePos == tmpStart;
+			this.mePos++;
+		}
+		String tmpText = this.meJson.substring(tmpStart, this.mePos);
+		try {
+			if (tmpIsInteger) {
+				long tmpLong = Long.parseLong(tmpText);
+				return tmpLong == (int)tmpLong ? (Object)(int)tmpLong : (Object)tmpLong; // Like the JDBC driver reads integers
+			}
+			return Double.parseDouble(tmpText);
+		} catch (NumberFormatException e) {
+			this.mePos = tmpStart;
+			throw this.error("number");
+		}
+	}
+
+	private int peek() {
+		while (this.mePos < this.meJson.length() && Character.isWhitespace(this.meJson.charAt(this.mePos))) {
+			this.mePos++;
+		}
+		return this.mePos < this.meJson.length() ? this.meJson.charAt(this.mePos) : -1;
+	}
+
+	private boolean skipIf(char theChar) {
+		if (this.peek() == theChar) {
+			this.mePos++;
+			return true;
+		}
+		return false;
+	}
+
+	private void expect(char theChar) {
+		if (!this.skipIf(theChar)) {
+			throw this.error("'" + theChar + "'");
+		}
+	}
+
+	private void expectWord(String theWord) {
+		if (!this.meJson.startsWith(theWord, this.mePos)) {
+			throw this.error(theWord);
+		}
+		this.mePos += theWord.length();
+	}
+
+	private IllegalArgumentException error(String expectedText) {
+		return new IllegalArgumentException("Invalid JSON rows (expected " + expectedText + " at " + this.mePos + ").");
+	}
+}
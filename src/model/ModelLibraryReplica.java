@@ -0,0 +1,549 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import model.HomeShowSqliteDAO.ModelPersRole;
+
+/**
+ * A class that represents an in-memory replica of the shows, the personnel and their participations, used to answer
+ * the 'All Shows By Personnel' and 'All Personnel By Shows' quick searches without going to the database. It is loaded
+ * once and then kept current by applying the rows that the DAO writes (after they are committed). The personnel and
+ * shows are kept in lists indexed by an int id (ids are not reused), and their texts are pooled.
+ * @author Janty Azmat
+ */
+class ModelLibraryReplica {
+
+	/**
+	 * A class that represents a growable list of participations of a single personnel or show, each packed in a long as
+	 * the id of the other side and the role.
+	 * @author Janty Azmat
+	 */
+	private static class ModelPartList {
+		// Fields
+		private long[] meItems = new long[4];
+		private int meSize;
+
+		void add(int otherId, ModelPersRole theRole) {
+			if (this.meSize == this.meItems.length) {
+				this.meItems = Arrays.copyOf(this.meItems, this.meSize * 2);
+			}
+			this.meItems[this.meSize++] = pack(otherId, theRole);
+		}
+
+		void remove(int otherId, ModelPersRole theRole) {
+			long tmpItem = pack(otherId, theRole);
+			for (int i = 0; i < this.meSize; i++) {
+				if (this.meItems[i] == tmpItem) {
+					this.meItems[i] = this.meItems[--this.meSize];
+					return;
+				}
+			}
+		}
+
+		int getOtherId(int index) {
+			return (int)(this.meItems[index] >>> 8);
+		}
+
+		ModelPersRole getRole(int index) {
+			return ModelPersRole.values()[(int)(this.meItems[index] & 0xFF)];
+		}
+
+		private static long pack(int otherId, ModelPersRole theRole) {
+			return ((long)otherId << 8) | theRole.ordinal();
+		}
+	}
+
+	// Fields
+	private static final String me_NO_ROLE = "N/A"; // Matched against the role pattern when there are no participations (as the 'IFNULL' of the statements)
+	private static final int me_FIRST_NAME = 0;		//
+	private static final int me_LAST_NAME = 1;		//
+	private static final int me_TITLE = 2;			//
+	private static final int me_YEAR = 3;			//
+	private static final int me_DURATION = 4;		// The result columns (by the column names of the quick search statements)
+	private static final int me_FOLDER = 5;			//
+	private static final int me_IS_MOVIE = 6;		//
+	private static final int me_ROLE = 7;			//
+	private static final int me_COUNT = 8;			//
+	private ReadWriteLock meLock;
+	private Map<String, String> meTexts; // The text pool
+	private List<String> meFirstNames;		//
+	private List<String> meLastNames;		// Personnel by id (null when deleted)
+	private List<ModelPartList> mePersParts;//
+	private Map<String, Integer> mePersIds;
+	private TreeSet<Integer> mePersOrder; // Personnel ids ordered by name
+	private List<String> meTitles;			//
+	private int[] meYears;					//
+	private int[] meDurations;				// Shows by id (null title when deleted)
+	private List<String> meFolders;			//
+	private boolean[] meIsMovies;			//
+	private List<ModelPartList> meShowParts;//
+	private Map<String, Integer> meShowIds;
+	private TreeSet<Integer> meShowOrder; // Show ids ordered by title and year
+	private int[] mePersColumns; // The result columns of the 'All Shows By Personnel' search
+	private int[] meShowColumns; // The result columns of the 'All Personnel By Shows' search
+
+	/**
+	 * Constructor that loads the replica.
+	 * @param theConn		the connection to load the replica from
+	 * @param persColumns	the result column names of the 'All Shows By Personnel' search
+	 * @param showColumns	the result column names of the 'All Personnel By Shows' search
+	 * @throws SQLException	thrown if a database access error occurs
+	 */
+	public ModelLibraryReplica(Connection theConn, String[] persColumns, String[] showColumns) throws SQLException {
+		this.meLock = new ReentrantReadWriteLock();
+		this.meTexts = new HashMap<>();
+		this.meFirstNames = new ArrayList<>();
+		this.meLastNames = new ArrayList<>();
+		this.mePersParts = new ArrayList<>();
+		this.mePersIds = new HashMap<>();
+		this.mePersOrder = new TreeSet<>(Comparator.<Integer, String>comparing(this.meFirstNames::get, ModelLibraryReplica::compareText)
+				.thenComparing(this.meLastNames::get, ModelLibraryReplica::compareText));
+		this.meTitles = new ArrayList<>();
+		this.meYears = new int[64];
+		this.meDurations = new int[64];
+		this.meFolders = new ArrayList<>();
+		this.meIsMovies = new boolean[64];
+		this.meShowParts = new ArrayList<>();
+		this.meShowIds = new HashMap<>();
+		this.meShowOrder = new TreeSet<>(Comparator.<Integer, String>comparing(this.meTitles::get, ModelLibraryReplica::compareText)
+				.thenComparingInt(id -> this.meYears[id]));
+		this.mePersColumns = toColumns(persColumns);
+		this.meShowColumns = toColumns(showColumns);
+		try (Statement tmpStat = theConn.createStatement()) {
+			try (ResultSet tmpRes = tmpStat.executeQuery("SELECT first_name, last_name FROM personnel;")) {
+				while (tmpRes.next()) {
+					this.addPersonnel(tmpRes.getString(1), tmpRes.getString(2));
+				}
+			}
+			try (ResultSet tmpRes = tmpStat.executeQuery("SELECT title, year, duration, folder, is_movie FROM show;")) {
+				while (tmpRes.next()) {
+					this.addShow(tmpRes.getString(1), tmpRes.getInt(2), tmpRes.getInt(3), tmpRes.getString(4), tmpRes.getInt(5) > 0);
+				}
+			}
+			try (ResultSet tmpRes = tmpStat.executeQuery("SELECT personnel_fname, personnel_lname, show_title, show_year, role FROM participates;")) {
+				while (tmpRes.next()) {
+					this.addParticipation(tmpRes.getString(1), tmpRes.getString(2), tmpRes.getString(3), tmpRes.getInt(4), ModelPersRole.getValueOf(tmpRes.getString(5)));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Answers the 'All Shows By Personnel' search.
+	 * @param theCols		the empty result to add the rows to
+	 * @param fnamePattern	the 'LIKE' pattern of the first name
+	 * @param lnamePattern	the 'LIKE' pattern of the last name
+	 * @param rolePattern	the 'LIKE' pattern of the role
+	 */
+	public void searchPersonnel(ModelResultColumns theCols, String fnamePattern, String lnamePattern, String rolePattern) {
+		this.meLock.readLock().lock();
+		try {
+			for (int pers : this.mePersOrder) {
+				if (isLike(fnamePattern, this.meFirstNames.get(pers)) && isLike(lnamePattern, this.meLastNames.get(pers))) {
+					ModelPartList tmpParts = this.mePersParts.get(pers);
+					List<long[]> tmpMatches = matchParts(tmpParts, rolePattern); // {show id, role ordinal}
+					tmpMatches.sort(Comparator.<long[], String>comparing(part -> this.meTitles.get((int)part[0]), ModelLibraryReplica::compareText)
+							.thenComparingInt(part -> this.meYears[(int)part[0]]).thenComparing(part -> ModelPersRole.values()[(int)part[1]].toString())); // (Ties by role, as the primary key index)
+					for (long[] part : tmpMatches) {
+						this.addRow(theCols, this.mePersColumns, pers, (int)part[0], ModelPersRole.values()[(int)part[1]], tmpMatches.size());
+					}
+					if (tmpParts.meSize == 0 && isLike(rolePattern, me_NO_ROLE)) {
+						this.addRow(theCols, this.mePersColumns, pers, -1, null, 0);
+					}
+				}
+			}
+		} finally {
+			this.meLock.readLock().unlock();
+		}
+		theCols.trim();
+	}
+
+	/**
+	 * Answers the 'All Personnel By Shows' search.
+	 * @param theCols		the empty result to add the rows to
+	 * @param titlePattern	the 'LIKE' pattern of the title
+	 * @param theYear		the year (or null, or negative for any year)
+	 * @param rolePattern	the 'LIKE' pattern of the role
+	 */
+	public void searchShows(ModelResultColumns theCols, String titlePattern, Integer theYear, String rolePattern) {
+		this.meLock.readLock().lock();
+		try {
+			for (int show : this.meShowOrder) {
+				if (isLike(titlePattern, this.meTitles.get(show)) && (theYear == null || theYear < 0 || theYear == this.meYears[show])) {
+					ModelPartList tmpParts = this.meShowParts.get(show);
+					List<long[]> tmpMatches = matchParts(tmpParts, rolePattern); // {personnel id, role ordinal}
+					tmpMatches.sort(Comparator.<long[], String>comparing(part -> this.meFirstNames.get((int)part[0]), ModelLibraryReplica::compareText)
+							.thenComparing(part -> this.meLastNames.get((int)part[0]), ModelLibraryReplica::compareText).thenComparing(part -> ModelPersRole.values()[(int)part[1]].toString())); // (Ties by role, as the primary key index)
+					for (long[] part : tmpMatches) {
+						this.addRow(theCols, this.meShowColumns, (int)part[0], show, ModelPersRole.values()[(int)part[1]], tmpMatches.size());
+					}
+					if (tmpParts.meSize == 0 && isLike(rolePattern, me_NO_ROLE)) {
+						this.addRow(theCols, this.meShowColumns, -1, show, null, 0);
+					}
+				}
+			}
+		} finally {
+			this.meLock.readLock().unlock();
+		}
+		theCols.trim();
+	}
+
+	/**
+	 * Applies a row inserted into the database.
+	 * @param theRow	the inserted row
+	 */
+	public void applyInsert(ModelDataRow theRow) {
+		this.meLock.writeLock().lock();
+		try {
+			switch (theRow.getTableName()) {
+				case "personnel":
+					this.addPersonnel((String)getValue(theRow, "first_name"), (String)getValue(theRow, "last_name"));
+					break;
+				case "show":
+					this.addShow((String)getValue(theRow, "title"), (Integer)getValue(theRow, "year"), toInt(getValue(theRow, "duration")),
+							getValue(theRow, "folder") == null ? "" : (String)getValue(theRow, "folder"), Boolean.TRUE.equals(getValue(theRow, "is_movie")));
+					break;
+				case "participates":
+					this.addParticipation((String)getValue(theRow, "personnel_fname"), (String)getValue(theRow, "personnel_lname"), (String)getValue(theRow, "show_title"),
+							(Integer)getValue(theRow, "show_year"), (ModelPersRole)getValue(theRow, "role"));
+					break;
+				default: // Not replicated
+			}
+		} finally {
+			this.meLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Applies a row deleted from the database (with the deletes that cascade from it).
+	 * @param theTable		the table of the deleted row
+	 * @param keyCells		the key cells of the deleted row
+	 */
+	public void applyDelete(String theTable, List<ModelDataCell<?>> keyCells) {
+		this.meLock.writeLock().lock();
+		try {
+			Integer tmpId;
+			switch (theTable) {
+				case "personnel":
+					tmpId = this.mePersIds.get(toKey(getValue(keyCells, "first_name"), getValue(keyCells, "last_name")));
+					if (tmpId != null) {
+						this.removePersonnel(tmpId);
+					}
+					break;
+				case "show":
+					tmpId = this.meShowIds.get(toKey(getValue(keyCells, "title"), getValue(keyCells, "year")));
+					if (tmpId != null) {
+						this.removeShow(tmpId);
+					}
+					break;
+				case "participates":
+					this.removeParticipation(getValue(keyCells, "personnel_fname"), getValue(keyCells, "personnel_lname"), getValue(keyCells, "show_title"),
+							getValue(keyCells, "show_year"), (ModelPersRole)getValue(keyCells, "role"));
+					break;
+				default: // Not replicated
+			}
+		} finally {
+			this.meLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Applies a row updated in the database (with the updates that cascade from it).
+	 * @param theTable		the table of the updated row
+	 * @param keyCells		the (old) key cells of the updated row
+	 * @param newCells		the updated cells
+	 */
+	public void applyUpdate(String theTable, List<ModelDataCell<?>> keyCells, List<ModelDataCell<?>> newCells) {
+		this.meLock.writeLock().lock();
+		try {
+			Integer tmpId;
+			switch (theTable) {
+				case "personnel":
+					tmpId = this.mePersIds.get(toKey(getValue(keyCells, "first_name"), getValue(keyCells, "last_name")));
+					if (tmpId != null) {
+						this.mePersOrder.remove(tmpId);
+						this.mePersIds.remove(toKey(this.meFirstNames.get(tmpId), this.meLastNames.get(tmpId)));
+						for (ModelDataCell<?> cell : newCells) {
+							if (cell.getColumnName().equals("first_name")) {
+								this.meFirstNames.set(tmpId, this.pool((String)cell.getValue()));
+							} else if (cell.getColumnName().equals("last_name")) {
+								this.meLastNames.set(tmpId, this.pool((String)cell.getValue()));
+							}
+						}
+						this.mePersIds.put(toKey(this.meFirstNames.get(tmpId), this.meLastNames.get(tmpId)), tmpId);
+						this.mePersOrder.add(tmpId);
+					}
+					break;
+				case "show":
+					tmpId = this.meShowIds.get(toKey(getValue(keyCells, "title"), getValue(keyCells, "year")));
+					if (tmpId != null) {
+						this.meShowOrder.remove(tmpId);
+						this.meShowIds.remove(toKey(this.meTitles.get(tmpId), this.meYears[tmpId]));
+						for (ModelDataCell<?> cell : newCells) {
+							switch (cell.getColumnName()) {
+								case "title":
+									this.meTitles.set(tmpId, this.pool((String)cell.getValue()));
+									break;
+								case "year":
+									this.meYears[tmpId] = (Integer)cell.getValue();
+									break;
+								case "duration":
+									this.meDurations[tmpId] = toInt(cell.getValue());
+									break;
+								case "folder":
+									this.meFolders.set(tmpId, cell.getValue() == null ? "" : this.pool((String)cell.getValue()));
+									break;
+								case "is_movie":
+									this.meIsMovies[tmpId] = Boolean.TRUE.equals(cell.getValue());
+									break;
+								default:
+							}
+						}
+						this.meShowIds.put(toKey(this.meTitles.get(tmpId), this.meYears[tmpId]), tmpId);
+						this.meShowOrder.add(tmpId);
+					}
+					break;
+				case "participates":
+					Object[] tmpNew = { getValue(keyCells, "personnel_fname"), getValue(keyCells, "personnel_lname"), getValue(keyCells, "show_title"),
+							getValue(keyCells, "show_year"), getValue(keyCells, "role") };
+					String[] tmpColumns = { "personnel_fname", "personnel_lname", "show_title", "show_year", "role" };
+					this.removeParticipation(tmpNew[0], tmpNew[1], tmpNew[2], tmpNew[3], (ModelPersRole)tmpNew[4]);
+					for (ModelDataCell<?> cell : newCells) {
+						int tmpIndex = Arrays.asList(tmpColumns).indexOf(cell.getColumnName());
+						if (tmpIndex >= 0) {
+							tmpNew[tmpIndex] = cell.getValue();
+						}
+					}
+					this.addParticipation((String)tmpNew[0], (String)tmpNew[1], (String)tmpNew[2], (Integer)tmpNew[3], (ModelPersRole)tmpNew[4]);
+					break;
+				default: // Not replicated
+			}
+		} finally {
+			this.meLock.writeLock().unlock();
+		}
+	}
+
+	private void addPersonnel(String firstName, String lastName) {
+		int tmpId = this.meFirstNames.size();
+		this.meFirstNames.add(this.pool(firstName));
+		this.meLastNames.add(this.pool(lastName));
+		this.mePersParts.add(new ModelPartList());
+		this.mePersIds.put(toKey(firstName, lastName), tmpId);
+		this.mePersOrder.add(tmpId);
+	}
+
+	private void addShow(String theTitle, int theYear, int theDuration, String theFolder, boolean isMovie) {
+		Integer tmpOld = this.meShowIds.get(toKey(theTitle, theYear));
+		if (tmpOld != null) { // Upserted by the library scanner
+			this.meDurations[tmpOld] = theDuration;
+			this.meFolders.set(tmpOld, this.pool(theFolder));
+			this.meIsMovies[tmpOld] = isMovie;
+			return;
+		}
+		int tmpId = this.meTitles.size();
+		if (tmpId == this.meYears.length) {
+			this.meYears = Arrays.copyOf(this.meYears, tmpId * 2);
+			this.meDurations = Arrays.copyOf(this.meDurations, tmpId * 2);
+			this.meIsMovies = Arrays.copyOf(this.meIsMovies, tmpId * 2);
+		}
+		this.meTitles.add(this.pool(theTitle));
+		this.meYears[tmpId] = theYear;
+		this.meDurations[tmpId] = theDuration;
+		this.meFolders.add(this.pool(theFolder));
+		this.meIsMovies[tmpId] = isMovie;
+		this.meShowParts.add(new ModelPartList());
+		this.meShowIds.put(toKey(theTitle, theYear), tmpId);
+		this.meShowOrder.add(tmpId);
+	}
+
+	private void addParticipation(String firstName, String lastName, String showTitle, int showYear, ModelPersRole theRole) {
+		Integer tmpPers = this.mePersIds.get(toKey(firstName, lastName));
+		Integer tmpShow = this.meShowIds.get(toKey(showTitle, showYear));
+		if (tmpPers != null && tmpShow != null) { // Always (foreign keys)
+			this.mePersParts.get(tmpPers).add(tmpShow, theRole);
+			this.meShowParts.get(tmpShow).add(tmpPers, theRole);
+		}
+	}
+
+	private void removeParticipation(Object firstName, Object lastName, Object showTitle, Object showYear, ModelPersRole theRole) {
+		Integer tmpPers = this.mePersIds.get(toKey(firstName, lastName));
+		Integer tmpShow = this.meShowIds.get(toKey(showTitle, showYear));
+		if (tmpPers != null && tmpShow != null) {
+			this.mePersParts.get(tmpPers).remove(tmpShow, theRole);
+			this.meShowParts.get(tmpShow).remove(tmpPers, theRole);
+		}
+	}
+
+	private void removePersonnel(int persId) {
+		ModelPartList tmpParts = this.mePersParts.get(persId);
+		for (int i = 0; i < tmpParts.meSize; i++) { // 'ON DELETE CASCADE'
+			this.meShowParts.get(tmpParts.getOtherId(i)).remove(persId, tmpParts.getRole(i));
+		}
+		this.mePersOrder.remove(persId);
+		this.mePersIds.remove(toKey(this.meFirstNames.get(persId), this.meLastNames.get(persId)));
+		this.meFirstNames.set(persId, null);
+		this.meLastNames.set(persId, null);
+		this.mePersParts.set(persId, null);
+	}
+
+	private void removeShow(int showId) {
+		ModelPartList tmpParts = this.meShowParts.get(showId);
+		for (int i = 0; i < tmpParts.meSize; i++) { // 'ON DELETE CASCADE'
+			this.mePersParts.get(tmpParts.getOtherId(i)).remove(showId, tmpParts.getRole(i));
+		}
+		this.meShowOrder.remove(showId);
+		this.meShowIds.remove(toKey(this.meTitles.get(showId), this.meYears[showId]));
+		this.meTitles.set(showId, null);
+		this.meFolders.set(showId, null);
+		this.meShowParts.set(showId, null);
+	}
+
+	private void addRow(ModelResultColumns theCols, int[] theColumns, int persId, int showId, ModelPersRole theRole, int theCount) {
+		theCols.addRow();
+		for (int i = 0; i < theColumns.length; i++) {
+			Object tmpValue = null; // NULL for the missing side of the 'LEFT JOIN'
+			switch (theColumns[i]) {
+				case me_FIRST_NAME:
+					tmpValue = persId < 0 ? null : this.meFirstNames.get(persId);
+					break;
+				case me_LAST_NAME:
+					tmpValue = persId < 0 ? null : this.meLastNames.get(persId);
+					break;
+				case me_TITLE:
+					tmpValue = showId < 0 ? null : this.meTitles.get(showId);
+					break;
+				case me_YEAR:
+					tmpValue = showId < 0 ? null : this.meYears[showId];
+					break;
+				case me_DURATION:
+					tmpValue = showId < 0 ? null : this.meDurations[showId];
+					break;
+				case me_FOLDER:
+					tmpValue = showId < 0 ? null : this.meFolders.get(showId);
+					break;
+				case me_IS_MOVIE:
+					tmpValue = showId < 0 ? null : this.meIsMovies[showId] ? 1 : 0;
+					break;
+				case me_ROLE:
+					tmpValue = theRole == null ? null : theRole.toString();
+					break;
+				case me_COUNT:
+					tmpValue = theCount;
+					break;
+				default:
+			}
+			theCols.setValue(i, tmpValue);
+		}
+	}
+
+	private String pool(String theText) {
+		return this.meTexts.computeIfAbsent(theText, txt -> txt);
+	}
+
+	private static List<long[]> matchParts(ModelPartList theParts, String rolePattern) {
+		List<long[]> outMatches = new ArrayList<>(theParts.meSize);
+		for (int i = 0; i < theParts.meSize; i++) {
+			if (isLike(rolePattern, theParts.getRole(i).toString())) {
+				outMatches.add(new long[] { theParts.getOtherId(i), theParts.getRole(i).ordinal() });
+			}
+		}
+		return outMatches;
+	}
+
+	private static int[] toColumns(String[] columnNames) {
+		List<String> tmpNames = Arrays.asList("first_name", "last_name", "title", "year", "duration", "folder", "is_movie", "role"); // In the order of the constants
+		int[] outColumns = new int[columnNames.length];
+		for (int i = 0; i < columnNames.length; i++) {
+			outColumns[i] = tmpNames.contains(columnNames[i]) ? tmpNames.indexOf(columnNames[i]) : me_COUNT; // The count is the only other column
+		}
+		return outColumns;
+	}
+
+	private static String toKey(Object firstPart, Object secondPart) {
+		return firstPart + "\u0000" + secondPart;
+	}
+
+	private static int toInt(Object theValue) {
+		return theValue == null ? 0 : (Integer)theValue;
+	}
+
+	private static Object getValue(ModelDataRow theRow, String columnName) {
+		return getValue(theRow.getCells(), columnName);
+	}
+
+	private static Object getValue(List<ModelDataCell<?>> theCells, String columnName) {
+		return theCells.stream().filter(cell -> cell.getColumnName().equals(columnName)).findFirst().map(ModelDataCell::getValue).orElse(null);
+	}
+
+	/**
+	 * Compares two texts as SQLite's 'BINARY' collation does (by Unicode code points, as UTF-8 bytes compare).
+	 * @param firstText		the first text
+	 * @param secondText	the second text
+	 * @return				negative, zero or positive as the first text is less than, equal to or greater than the second
+	 */
+	static int compareText(String firstText, String secondText) {
+		int tmpLength = Math.min(firstText.length(), secondText.length());
+		for (int i = 0; i < tmpLength; i++) {
+			char tmpFirst = firstText.charAt(i);
+			char tmpSecond = secondText.charAt(i);
+			if (tmpFirst != tmpSecond) {
+				if (tmpFirst >= 0xD800 && tmpSecond >= 0xD800) { // Surrogates (supplementary code points) sort after the rest of the BMP
+					tmpFirst += tmpFirst >= 0xE000 ? -0x800 : 0x2000;
+					tmpSecond += tmpSecond >= 0xE000 ? -0x800 : 0x2000;
+				}
+				return tmpFirst - tmpSecond;
+			}
+		}
+		return firstText.length() - secondText.length();
+	}
+
+	/**
+	 * Checks a text against an SQLite 'LIKE' pattern ('%' matches any sequence, '_' any single character, and ASCII
+	 * letters match regardless of case).
+	 * @param thePattern	the pattern
+	 * @param theText		the text
+	 * @return				'true' if the text matches the pattern
+	 */
+	static boolean isLike(String thePattern, String theText) {
+		int tmpPat = 0;
+		int tmpTxt = 0;
+		int tmpStarPat = -1; // Where the pattern continues after the last '%'
+		int tmpStarTxt = -1; // Where the text that the last '%' matches ends
+		while (tmpTxt < theText.length()) {
+			int tmpPatChar = tmpPat < thePattern.length() ? thePattern.codePointAt(tmpPat) : -1;
+			int tmpTxtChar = theText.codePointAt(tmpTxt);
+			if (tmpPatChar == '%') {
+				tmpStarPat = ++tmpPat;
+				tmpStarTxt = tmpTxt;
+			} else if (tmpPatChar == '_' || (tmpPatChar >= 0 && foldCase(tmpPatChar) == foldCase(tmpTxtChar))) {
+				tmpPat += Character.charCount(tmpPatChar);
+				tmpTxt += Character.charCount(tmpTxtChar);
+			} else if (tmpStarPat >= 0) { // Let the last '%' match one more character
+				tmpStarTxt += Character.charCount(theText.codePointAt(tmpStarTxt));
+				tmpTxt = tmpStarTxt;
+				tmpPat = tmpStarPat;
+			} else {
+				return false;
+			}
+		}
+		while (tmpPat < thePattern.length() && thePattern.charAt(tmpPat) == '%') {
+			tmpPat++;
+		}
+		return tmpPat == thePattern.length();
+	}
+
+	private static int foldCase(int codePoint) {
+		return codePoint >= 'A' && codePoint <= 'Z' ? codePoint + ('a' - 'A') : codePoint;
+	}
+}
@@ -0,0 +1,295 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A class that scans rip library folders and streams the shows found into the database. Every volume (file store)
+ * is walked by its own thread, and show folders that did not change since the last scan are skipped.
+ * @author Janty Azmat
+ */
+public class ModelLibraryScanner {
+	// Fields
+	private static final String me_YEAR = "(?<!\\d)(18\\d{2}|19\\d{2}|20\\d{2}|2100)"; // As the 'show' table check constraint
+	private static final Pattern me_SHOW_FOLDER_BRACKETED = Pattern.compile("^(?:\\d{1,3}_)?(.+)[(\\[]" + me_YEAR + "[)\\]](?:[\\s._-].*)?$"); // 'Title (Year)' (the last one)
+	private static final Pattern me_SHOW_FOLDER = Pattern.compile("^(?:\\d{1,3}_)?(.+)" + me_YEAR + "(?:[\\s._-].*)?$"); // 'Title.Year' and alike (the last year)
+	private static final Pattern me_SEASON_FOLDER = Pattern.compile("(?i)^(?:season|series|s)[\\s._-]*\\d+.*");
+	private static final Pattern me_EPISODE_FILE = Pattern.compile("(?i).*s\\d{1,2}[\\s._-]*e\\d{1,3}.*");
+	private static final Set<String> me_VIDEO_EXTS = Set.of("mkv", "mp4", "m4v", "avi", "mov", "wmv", "mpg", "mpeg", "ts", "m2ts", "vob", "webm");
+	private static final Set<String> me_SERIES_PARENTS = Set.of("series", "tv", "tv-series", "tv shows");
+	private static final int me_COMMIT_INTERVAL = 100; // Small enough for the shows to appear while still scanning
+	private static final int me_MAX_DURATION = 4000000; // As the 'show' table check constraint
+	private static final long me_PROBE_TIMEOUT_SECS = 30L;
+	private static final ModelDataRow me_END = new ModelDataRow("", ""); // Marks the end of a volume's rows
+	private HomeShowSqliteDAO meDAO;
+	private String meShowIns;
+	private String meShowUpsert;
+	private volatile boolean meIsProbing; // Turned off if 'ffprobe' is not available
+
+	/**
+	 * Constructor.
+	 * @param theDAO	the data access object that the scanned shows are inserted through
+	 */
+	public ModelLibraryScanner(HomeShowSqliteDAO theDAO) {
+		this.meDAO = theDAO;
+		this.meShowIns = theDAO.getTableTemplates().stream().filter(row -> row.getTableName().equals("show")).findFirst().get().getPreparedStatement();
+		this.meShowUpsert = theDAO.getShowUpsertStatement();
+		this.meIsProbing = true;
+	}
+
+	/**
+	 * Scans the specified library folders and inserts the shows found. Every sub-folder named like 'Title (Year)' is
+	 * considered a show folder. New show folders of shows that already exist are reported as rejected rows, while the
+	 * shows of the changed show folders are updated.
+	 * @param libraryRoots	the library root folders
+	 * @return				a report of the inserted and rejected rows
+	 * @throws SQLException	thrown if a database access error/timeout occurs
+	 * @throws IOException	thrown if a library root folder cannot be read
+	 */
+	public ModelBulkInsertReport scan(List<Path> libraryRoots) throws SQLException, IOException {
+		Map<String, Long> tmpScanned = this.meDAO.getScannedFolders();
+		Map<FileStore, List<Path>> tmpVolumes = new LinkedHashMap<>(); // The folders to walk grouped by volume
+		for (Path root : libraryRoots) {
+			try (DirectoryStream<Path> tmpDir = Files.newDirectoryStream(root, Files::isDirectory)) { // Sub-folders can be mount points of other volumes
+				for (Path sub : tmpDir) {
+					tmpVolumes.computeIfAbsent(Files.getFileStore(sub), store -> new ArrayList<>()).add(sub);
+				}
+			}
+		}
+		BlockingQueue<ModelDataRow> tmpQueue = new ArrayBlockingQueue<>(2 * me_COMMIT_INTERVAL);
+		ExecutorService tmpExec = Executors.newFixedThreadPool(Math.max(1, tmpVolumes.size()), run -> {
+			Thread outThread = new Thread(run, "library-scan");
+			outThread.setDaemon(true);
+			return outThread;
+		});
+		try {
+			for (List<Path> folders : tmpVolumes.values()) {
+				tmpExec.execute(() -> {
+					try {
+						for (Path folder : folders) {
+							try {
+								Files.walkFileTree(folder, new ShowCollector(tmpScanned, tmpQueue));
+							} catch (IOException e) {} // Skip unreadable folders
+						}
+					} finally {
+						this.putRow(tmpQueue, me_END);
+					}
+				});
+			}
+			return this.meDAO.insertRows(() -> new QueueIterator(tmpQueue, tmpVolumes.size()), me_COMMIT_INTERVAL);
+		} finally {
+			tmpExec.shutdownNow();
+		}
+	}
+
+	/**
+	 * Used to walk one folder tree and queue the rows of the show folders that changed.
+	 * @author Janty Azmat
+	 */
+	private class ShowCollector extends SimpleFileVisitor<Path> {
+		// Fields
+		private Map<String, Long> meScanned;
+		private BlockingQueue<ModelDataRow> meQueue;
+		private Path meShow; // The show folder currently walked (or null)
+		private String meTitle;
+		private int meYear;
+		private long meMtime; // The latest last-modified time of the show folder and its sub-folders
+		private boolean meIsSeries;
+		private List<Path> meVideos;
+
+		ShowCollector(Map<String, Long> scannedFolders, BlockingQueue<ModelDataRow> rowQueue) {
+			this.meScanned = scannedFolders;
+			this.meQueue = rowQueue;
+		}
+
+		@Override
+		public FileVisitResult preVisitDirectory(Path theDir, BasicFileAttributes theAttrs) {
+			String tmpName = theDir.getFileName().toString();
+			Matcher tmpMatch;
+			if (this.meShow == null) {
+				if (((tmpMatch = me_SHOW_FOLDER_BRACKETED.matcher(tmpName)).matches() || (tmpMatch = me_SHOW_FOLDER.matcher(tmpName)).matches())
+						&& !(this.meTitle = tmpMatch.group(1).replaceAll("[._-]+", " ").trim()).isEmpty()) {
+					this.meShow = theDir;
+					this.meYear = Integer.parseInt(tmpMatch.group(2));
+					this.meMtime = theAttrs.lastModifiedTime().toMillis();
+					this.meVideos = new ArrayList<>();
+					this.meIsSeries = false;
+					for (Path name : theDir) {
+						if (me_SERIES_PARENTS.contains(name.toString().toLowerCase(Locale.ROOT))) {
+							this.meIsSeries = true;
+						}
+					}
+				}
+			} else {
+				this.meMtime = Math.max(this.meMtime, theAttrs.lastModifiedTime().toMillis());
+				if (me_SEASON_FOLDER.matcher(tmpName).matches()) {
+					this.meIsSeries = true;
+				}
+			}
+			return FileVisitResult.CONTINUE;
+		}
+
+		@Override
+		public FileVisitResult visitFile(Path theFile, BasicFileAttributes theAttrs) {
+			String tmpName = theFile.getFileName().toString();
+			int tmpDot = tmpName.lastIndexOf('.');
+			if (this.meShow != null && tmpDot > 0 && me_VIDEO_EXTS.contains(tmpName.substring(tmpDot + 1).toLowerCase(Locale.ROOT))) {
+				this.meVideos.add(theFile);
+				if (me_EPISODE_FILE.matcher(tmpName).matches()) {
+					this.meIsSeries = true;
+				}
+			}
+			return FileVisitResult.CONTINUE;
+		}
+
+		@Override
+		public FileVisitResult visitFileFailed(Path theFile, IOException theExc) {
+			return FileVisitResult.CONTINUE; // Skip unreadable files/folders
+		}
+
+		@Override
+		public FileVisitResult postVisitDirectory(Path theDir, IOException theExc) {
+			if (theDir.equals(this.meShow)) {
+				String tmpFolder = theDir.toAbsolutePath().toString();
+				Long tmpOldMtime = this.meScanned.get(tmpFolder);
+				if (tmpOldMtime == null || tmpOldMtime != this.meMtime) { // Only new or changed show folders (the changed ones are updated)
+					ModelDataRow tmpShow = new ModelDataRow("show", tmpOldMtime == null ? meShowIns : meShowUpsert, Arrays.asList(new ModelDataCell[] {
+						new ModelDataCell<>("title", "show", this.meTitle, String.class, Types.VARCHAR, true, true),
+						new ModelDataCell<>("year", "show", this.meYear, Integer.class, Types.INTEGER, true, true),
+						new ModelDataCell<>("duration", "show", probeDuration(this.meVideos, this.meIsSeries), Integer.class, Types.INTEGER, false, true),
+						new ModelDataCell<>("folder", "show", tmpFolder, String.class, Types.VARCHAR, false, true),
+						new ModelDataCell<>("is_movie", "show", !this.meIsSeries, Boolean.class, Types.BOOLEAN, false, true)
+					}));
+					putRow(this.meQueue, tmpShow);
+					putRow(this.meQueue, meDAO.createScannedFolderRow(tmpShow, this.meMtime));
+				}
+				this.meShow = null;
+				this.meVideos = null;
+			}
+			return FileVisitResult.CONTINUE;
+		}
+	}
+
+	/**
+	 * Used to iterate the queued rows until every volume is done.
+	 * @author Janty Azmat
+	 */
+	private static class QueueIterator implements Iterator<ModelDataRow> {
+		// Fields
+		private BlockingQueue<ModelDataRow> meQueue;
+		private int meRunning; // The number of volumes still being walked
+		private ModelDataRow meNext;
+
+		QueueIterator(BlockingQueue<ModelDataRow> rowQueue, int volumeCount) {
+			this.meQueue = rowQueue;
+			this.meRunning = volumeCount;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (this.meNext == null && this.meRunning > 0) {
+				try {
+					this.meNext = this.meQueue.take();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+				if (this.meNext == me_END) {
+					this.meNext = null;
+					this.meRunning--;
+				}
+			}
+			return this.meNext != null;
+		}
+
+		@Override
+		public ModelDataRow next() {
+			if (!this.hasNext()) {
+				throw new NoSuchElementException();
+			}
+			ModelDataRow outRow = this.meNext;
+			this.meNext = null;
+			return outRow;
+		}
+	}
+
+	private void putRow(BlockingQueue<ModelDataRow> rowQueue, ModelDataRow theRow) {
+		try {
+			rowQueue.put(theRow);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Probes the duration (in minutes) of a show: the whole length of a movie or the average length of a series episode.
+	 * @param theVideos	the video files of the show
+	 * @param isSeries	'true' if the show is a series
+	 * @return			the duration in minutes, or 0 if it cannot be probed
+	 */
+	private int probeDuration(List<Path> theVideos, boolean isSeries) {
+		double tmpTotal = 0.0;
+		int tmpCount = 0;
+		for (Path video : theVideos) {
+			double tmpSecs = this.probeSeconds(video);
+			if (tmpSecs > 0.0) {
+				tmpTotal += tmpSecs;
+				tmpCount++;
+			}
+		}
+		if (tmpCount == 0) {
+			return 0;
+		}
+		return (int)Math.min(me_MAX_DURATION, Math.round((isSeries ? tmpTotal / tmpCount : tmpTotal) / 60.0));
+	}
+
+	private double probeSeconds(Path theVideo) {
+		if (!this.meIsProbing) {
+			return 0.0;
+		}
+		try {
+			Process tmpProc = new ProcessBuilder("ffprobe", "-v", "error", "-show_entries", "format=duration", "-of", "default=noprint_wrappers=1:nokey=1",
+					theVideo.toString()).redirectErrorStream(true).start();
+			String tmpLine;
+			try (BufferedReader tmpOut = new BufferedReader(new InputStreamReader(tmpProc.getInputStream()))) {
+				tmpLine = tmpOut.readLine();
+			}
+			if (!tmpProc.waitFor(me_PROBE_TIMEOUT_SECS, TimeUnit.SECONDS)) {
+				tmpProc.destroyForcibly();
+				return 0.0;
+			}
+			return tmpLine == null ? 0.0 : Double.parseDouble(tmpLine.trim());
+		} catch (IOException e) { // 'ffprobe' is not installed/found
+			this.meIsProbing = false;
+		} catch (NumberFormatException e) {} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return 0.0;
+	}
+}
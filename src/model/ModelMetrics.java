@@ -0,0 +1,301 @@
+package model;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * A class that represents the (always-on) registry of the application metrics, exposed over JMX (see 'ModelMetricsMXBean').
+ * Recording is lock-free and allocation-free once a name is known (a latency is two counter additions and a maximum), so it
+ * stays on in production.
+ * @author Janty Azmat
+ */
+public class ModelMetrics implements ModelMetricsMXBean {
+
+	/**
+	 * A class that represents a summary of the latencies recorded under a name (in microseconds).
+	 * @author Janty Azmat
+	 */
+	public static class ModelLatencySummary {
+		// Fields
+		private long meCount;
+		private double meMean;
+		private double meP50;
+		private double meP99;
+		private double meMax;
+
+		ModelLatencySummary(long theCount, double theMean, double theP50, double theP99, double theMax) {
+			this.meCount = theCount;
+			this.meMean = theMean;
+			this.meP50 = theP50;
+			this.meP99 = theP99;
+			this.meMax = theMax;
+		}
+
+		/**
+		 * Used to get the number of latencies recorded.
+		 * @return	the number of latencies
+		 */
+		public long getCount() {
+			return this.meCount;
+		}
+
+		/**
+		 * Used to get the mean latency.
+		 * @return	the mean in microseconds
+		 */
+		public double getMeanMicros() {
+			return this.meMean;
+		}
+
+		/**
+		 * Used to get the median latency (the upper bound of its histogram bucket, so within 25% above the exact value).
+		 * @return	the median in microseconds
+		 */
+		public double getP50Micros() {
+			return this.meP50;
+		}
+
+		/**
+		 * Used to get the 99th percentile latency (the upper bound of its histogram bucket, so within 25% above the exact value).
+		 * @return	the 99th percentile in microseconds
+		 */
+		public double getP99Micros() {
+			return this.meP99;
+		}
+
+		/**
+		 * Used to get the maximum latency.
+		 * @return	the maximum in microseconds
+		 */
+		public double getMaxMicros() {
+			return this.meMax;
+		}
+	}
+
+	/**
+	 * A class that represents a latency histogram with 4 buckets per power of 2 (exact below 4 nanoseconds).
+	 * @author Janty Azmat
+	 */
+	private static class ModelLatencyHistogram {
+		// Fields
+		private static final int me_BUCKET_COUNT = 252; // Up to the largest positive 'long'
+		private AtomicLongArray meBuckets;
+		private LongAdder meTotal;
+		private LongAccumulator meMax;
+
+		ModelLatencyHistogram() {
+			this.meBuckets = new AtomicLongArray(me_BUCKET_COUNT);
+			this.meTotal = new LongAdder();
+			this.meMax = new LongAccumulator(Math::max, 0L);
+		}
+
+		void record(long theNanos) {
+			theNanos = Math.max(0L, theNanos);
+			this.meBuckets.incrementAndGet(bucketOf(theNanos));
+			this.meTotal.add(theNanos);
+			this.meMax.accumulate(theNanos);
+		}
+
+		ModelLatencySummary summarize() {
+			long[] tmpCounts = new long[me_BUCKET_COUNT];
+			long tmpCount = 0L;
+			for (int i = 0; i < me_BUCKET_COUNT; i++) {
+				tmpCounts[i] = this.meBuckets.get(i);
+				tmpCount += tmpCounts[i];
+			}
+			long tmpMax = this.meMax.get();
+			return new ModelLatencySummary(tmpCount, tmpCount == 0L ? 0.0 : this.meTotal.sum() / 1000.0 / tmpCount,
+					percentile(tmpCounts, tmpCount, 0.50, tmpMax) / 1000.0, percentile(tmpCounts, tmpCount, 0.99, tmpMax) / 1000.0, tmpMax / 1000.0);
+		}
+
+		private static int bucketOf(long theNanos) {
+			if (theNanos < 4L) {
+				return (int)theNanos;
+			}
+			int tmpLog = 63 - Long.numberOfLeadingZeros(theNanos); // The power of 2 (then the 2 bits after the leading one pick the quarter)
+			return ((tmpLog - 1) << 2) + (int)((theNanos >>> (tmpLog - 2)) & 3L);
+		}
+
+		private static long upperBoundOf(int theBucket) {
+			if (theBucket < 4) {
+				return theBucket;
+			}
+			int tmpShift = (theBucket >>> 2) - 1;
+			return ((5L + (theBucket & 3)) << tmpShift) - 1L;
+		}
+
+		private static long percentile(long[] theCounts, long theCount, double theFraction, long theMax) {
+			long tmpRank = (long)Math.ceil(theCount * theFraction);
+			long tmpSeen = 0L;
+			for (int i = 0; i < theCounts.length; i++) {
+				tmpSeen += theCounts[i];
+				if (tmpSeen >= tmpRank && tmpSeen > 0L) {
+					return Math.min(upperBoundOf(i), theMax);
+				}
+			}
+			return 0L;
+		}
+	}
+
+	// Fields
+	private static final String me_OBJECT_NAME = "homeShowRipOrganizer:type=Metrics";
+	private static final int me_MAX_NAMES = 256; // Per kind (the auto-built statements have many shapes, so the rest share one histogram)
+	private static final String me_OTHER_NAME = "(other)";
+	private static final ModelMetrics me_INSTANCE = new ModelMetrics();
+	private Map<String, ModelLatencyHistogram> meOperations;
+	private Map<String, ModelLatencyHistogram> meStatements;
+	private Map<String, ModelLatencyHistogram> meCallbacks;
+	private Map<String, ModelLatencyHistogram> meConversions;
+	private LongAdder meRowsReturned;
+	private LongAdder meRowsMapped;
+	private LongAdder meStatsPrepared;
+
+	private ModelMetrics() {
+		this.meOperations = new ConcurrentHashMap<>();
+		this.meStatements = new ConcurrentHashMap<>();
+		this.meCallbacks = new ConcurrentHashMap<>();
+		this.meConversions = new ConcurrentHashMap<>();
+		this.meRowsReturned = new LongAdder();
+		this.meRowsMapped = new LongAdder();
+		this.meStatsPrepared = new LongAdder();
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(me_OBJECT_NAME));
+		} catch (JMException | SecurityException e) {} // Still recorded (only not exposed), like when loaded twice by separate class loaders
+	}
+
+	/**
+	 * Used to get the metrics registry (registered with the platform MBean server when first used).
+	 * @return	the metrics registry
+	 */
+	public static ModelMetrics getInstance() {
+		return me_INSTANCE;
+	}
+
+	/**
+	 * Records the latency of a DAO operation.
+	 * @param theName		the operation name
+	 * @param startNanos	the 'System.nanoTime' when the operation started
+	 */
+	public void recordOperation(String theName, long startNanos) {
+		histogramOf(this.meOperations, theName).record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Records the latency of an executed statement (from binding its parameters to reading its results).
+	 * @param theSql		the SQL text of the statement (before filling in the parameter data)
+	 * @param startNanos	the 'System.nanoTime' when the statement started
+	 */
+	public void recordStatement(String theSql, long startNanos) {
+		histogramOf(this.meStatements, theSql).record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Records the time spent on the JavaFX application thread by a view observer callback.
+	 * @param theName		the callback name
+	 * @param startNanos	the 'System.nanoTime' when the callback started
+	 */
+	public void recordCallback(String theName, long startNanos) {
+		histogramOf(this.meCallbacks, theName).record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Records the latency of a model/view row conversion.
+	 * @param theName		the conversion name
+	 * @param startNanos	the 'System.nanoTime' when the conversion started
+	 */
+	public void recordConversion(String theName, long startNanos) {
+		histogramOf(this.meConversions, theName).record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Counts the rows read from a query result.
+	 * @param rowCount	the number of rows
+	 */
+	public void addRowsReturned(int rowCount) {
+		this.meRowsReturned.add(rowCount);
+	}
+
+	/**
+	 * Counts the result rows mapped to the view.
+	 * @param rowCount	the number of rows
+	 */
+	public void addRowsMapped(int rowCount) {
+		this.meRowsMapped.add(rowCount);
+	}
+
+	/**
+	 * Counts a statement prepared (not found in a statement cache).
+	 */
+	public void addStatementPrepared() {
+		this.meStatsPrepared.increment();
+	}
+
+	@Override
+	public Map<String, ModelLatencySummary> getOperationLatencies() {
+		return summarize(this.meOperations);
+	}
+
+	@Override
+	public Map<String, ModelLatencySummary> getStatementLatencies() {
+		Map<String, ModelLatencySummary> outSummaries = new TreeMap<>();
+		this.meStatements.forEach((sql, hist) -> outSummaries.put(sql.trim().replaceAll("\\s+", " "), hist.summarize())); // (One line each, when listed)
+		return outSummaries;
+	}
+
+	@Override
+	public Map<String, ModelLatencySummary> getCallbackLatencies() {
+		return summarize(this.meCallbacks);
+	}
+
+	@Override
+	public Map<String, ModelLatencySummary> getConversionLatencies() {
+		return summarize(this.meConversions);
+	}
+
+	@Override
+	public long getRowsReturned() {
+		return this.meRowsReturned.sum();
+	}
+
+	@Override
+	public long getRowsMapped() {
+		return this.meRowsMapped.sum();
+	}
+
+	@Override
+	public long getStatementsPrepared() {
+		return this.meStatsPrepared.sum();
+	}
+
+	@Override
+	public void reset() {
+		this.meOperations.clear();
+		this.meStatements.clear();
+		this.meCallbacks.clear();
+		this.meConversions.clear();
+		this.meRowsReturned.reset();
+		this.meRowsMapped.reset();
+		this.meStatsPrepared.reset();
+	}
+
+	private static ModelLatencyHistogram histogramOf(Map<String, ModelLatencyHistogram> theHistograms, String theName) {
+		ModelLatencyHistogram outHist = theHistograms.get(theName); // (Lock-free when already known)
+		if (outHist == null) {
+			outHist = theHistograms.computeIfAbsent(theHistograms.size() < me_MAX_NAMES ? theName : me_OTHER_NAME, name -> new ModelLatencyHistogram());
+		}
+		return outHist;
+	}
+
+	private static Map<String, ModelLatencySummary> summarize(Map<String, ModelLatencyHistogram> theHistograms) {
+		Map<String, ModelLatencySummary> outSummaries = new TreeMap<>();
+		theHistograms.forEach((name, hist) -> outSummaries.put(name, hist.summarize()));
+		return outSummaries;
+	}
+}
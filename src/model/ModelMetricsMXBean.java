@@ -0,0 +1,59 @@
+package model;
+
+import java.util.Map;
+
+/**
+ * An interface that represents the management interface of the metrics registry (registered with the platform MBean server
+ * as 'homeShowRipOrganizer:type=Metrics', so it can be watched with JConsole or any JMX client). All the latencies are in
+ * microseconds.
+ * @author Janty Azmat
+ */
+public interface ModelMetricsMXBean {
+
+	/**
+	 * Used to get the latencies of the DAO operations (like 'getData', 'insertRow' and 'insertRowAsync').
+	 * @return	a map of every operation name to its latency summary
+	 */
+	Map<String, ModelMetrics.ModelLatencySummary> getOperationLatencies();
+
+	/**
+	 * Used to get the latencies of the executed statements, by their SQL text (before filling in the parameter data).
+	 * @return	a map of every SQL shape to its latency summary
+	 */
+	Map<String, ModelMetrics.ModelLatencySummary> getStatementLatencies();
+
+	/**
+	 * Used to get the time spent on the JavaFX application thread by the view observer callbacks.
+	 * @return	a map of every callback name to its latency summary
+	 */
+	Map<String, ModelMetrics.ModelLatencySummary> getCallbackLatencies();
+
+	/**
+	 * Used to get the latencies of the model/view row conversions (of whole rows, like templates and written rows).
+	 * @return	a map of every conversion name to its latency summary
+	 */
+	Map<String, ModelMetrics.ModelLatencySummary> getConversionLatencies();
+
+	/**
+	 * Used to get the number of rows read from the query results.
+	 * @return	the number of rows
+	 */
+	long getRowsReturned();
+
+	/**
+	 * Used to get the number of result rows mapped to the view.
+	 * @return	the number of rows
+	 */
+	long getRowsMapped();
+
+	/**
+	 * Used to get the number of statements prepared (not found in a statement cache).
+	 * @return	the number of statements
+	 */
+	long getStatementsPrepared();
+
+	/**
+	 * Clears all the latencies and counters.
+	 */
+	void reset();
+}
@@ -0,0 +1,71 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * A class that represents the rows aggregated (as a JSON array) into a single cell of a query result row, like the
+ * shows of a personnel. The JSON text is only decoded (into a columnar result) when the rows are first accessed.
+ * @author Janty Azmat
+ */
+public class ModelNestedRows extends AbstractList<ModelDataRow> {
+	// Fields
+	private String meJson;
+	private int meJsonLength;
+	private ModelRowMapper meMapper;
+	private ModelStatementEcho meEcho;
+	private volatile List<ModelDataRow> meRows;
+
+	/**
+	 * Constructor.
+	 * @param theJson	the JSON array (of the rows as arrays of values)
+	 * @param theMapper	the columns of the rows (in the order of the values)
+	 * @param theEcho	the statement (with its parameter data) given to the rows
+	 */
+	ModelNestedRows(String theJson, ModelRowMapper theMapper, ModelStatementEcho theEcho) {
+		this.meJson = theJson;
+		this.meJsonLength = theJson.length();
+		this.meMapper = theMapper;
+		this.meEcho = theEcho;
+	}
+
+	@Override
+	public ModelDataRow get(int index) {
+		return this.getRows().get(index);
+	}
+
+	@Override
+	public int size() {
+		return this.getRows().size();
+	}
+
+	/**
+	 * Used to get the length of the JSON text (without decoding it), to estimate the memory used.
+	 * @return	the number of characters
+	 */
+	int getJsonLength() {
+		return this.meJsonLength;
+	}
+
+	private List<ModelDataRow> getRows() {
+		List<ModelDataRow> outRows = this.meRows;
+		if (outRows == null) {
+			synchronized (this) {
+				outRows = this.meRows;
+				if (outRows == null) {
+					ModelResultColumns tmpCols = this.meMapper.createColumns(this.meEcho);
+					for (Object[] values : ModelJsonDecoder.decodeRows(this.meJson)) {
+						tmpCols.addRow();
+						for (int i = 0; i < values.length && i < this.meMapper.getColumnCount(); i++) {
+							tmpCols.setValue(i, values[i]); // NULL values are not kept (as in query results)
+						}
+					}
+					tmpCols.trim();
+					this.meRows = outRows = tmpCols.getRows();
+					this.meJson = null; // (No longer needed)
+				}
+			}
+		}
+		return outRows;
+	}
+}
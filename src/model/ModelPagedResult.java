@@ -0,0 +1,263 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import trace.TraceContext;
+import trace.TracePageEvent;
+
+/**
+ * A class that represents a read-only list of search results that loads its rows page by page (when first accessed)
+ * instead of all at once. Only the most recently accessed pages are kept, so the memory used is bounded by the accessed
+ * window and not by the number of results. With a loader executor, the pages are loaded by it and 'get' never waits (so
+ * the accessing thread, like the JavaFX application thread, is not held up): the rows of a page not loaded yet are null
+ * until the page listener tells that it is loaded, and the page after the one accessed is loaded ahead. Walking the list
+ * (its iterator, and so the copying and streams) still waits for every page.
+ * @author Janty Azmat
+ * @param <T>	the type of the list elements (the retrieved rows mapped by the row mapper)
+ */
+class ModelPagedResult<T> extends AbstractList<T> {
+
+	/**
+	 * An interface that represents the loading of a single page of rows from the database.
+	 * @author Janty Azmat
+	 */
+	@FunctionalInterface
+	static interface ModelPageLoader {
+
+		/**
+		 * Loads a single page of rows.
+		 * @param theOffset		the index of the first row of the page
+		 * @param theLimit		the maximum number of rows in the page
+		 * @return				the rows of the page
+		 * @throws SQLException	thrown if a database access error/timeout occurs
+		 */
+		List<ModelDataRow> loadPage(int theOffset, int theLimit) throws SQLException;
+	}
+
+	// Fields
+	private int meSize;
+	private int mePageSize;
+	private int meMaxPages;
+	private ModelPageLoader meLoader;
+	private Function<ModelDataRow, T> meMapper;
+	private Executor meExecutor; // Loads the pages (or null to load them on the accessing thread)
+	private Runnable meListener; // Told when a page whose rows were got as null is loaded (or null)
+	private LinkedHashMap<Integer, List<T>> mePages; // Loaded pages (by page number) in access order (eldest first)
+	private Map<Integer, CompletableFuture<List<T>>> mePending; // Pages being loaded by the executor (guarded by the pages' monitor)
+	private Set<Integer> meGotEarly; // Pages being loaded whose rows were got as null (guarded by the pages' monitor)
+	private long meTraceId; // The trace of the search (the pages loaded later, while scrolling, are traced for it too)
+
+	/**
+	 * Constructor.
+	 * @param theSize		the number of rows (counted when searching)
+	 * @param pageSize		the number of rows in a page
+	 * @param maxPages		the maximum number of pages to keep
+	 * @param theLoader		loads the pages
+	 * @param rowMapper		maps every loaded row to the list element
+	 * @param theExecutor	loads the pages (or null to load them on the accessing thread, with 'get' waiting for them)
+	 * @param pageListener	(optional) told (on the executor) when a page whose rows were got as null (not loaded yet) is loaded
+	 */
+	public ModelPagedResult(int theSize, int pageSize, int maxPages, ModelPageLoader theLoader, Function<ModelDataRow, T> rowMapper, Executor theExecutor,
+			Runnable pageListener) {
+		this.meSize = theSize;
+		this.mePageSize = pageSize;
+		this.meMaxPages = maxPages;
+		this.meLoader = theLoader;
+		this.meMapper = rowMapper;
+		this.meExecutor = theExecutor;
+		this.meListener = pageListener;
+		this.mePages = new LinkedHashMap<>(16, 0.75f, true);
+		this.mePending = new HashMap<>();
+		this.meGotEarly = new HashSet<>();
+		this.meTraceId = TraceContext.getCurrentId();
+	}
+
+	/**
+	 * Returns the element at the specified index. Without a loader executor, waits for its page to be loaded if not loaded;
+	 * with one, returns null if its page is not loaded yet (the page listener is told when it is). Also returns null if the
+	 * row no longer exists (when rows were deleted after the search counted them) or its page could not be loaded (it is
+	 * then loaded again when next accessed).
+	 */
+	@Override
+	public T get(int index) {
+		Objects.checkIndex(index, this.meSize);
+		int tmpPageNo = index / this.mePageSize;
+		if (this.meExecutor == null) {
+			return this.elementOf(waitFor(this.requestPage(tmpPageNo, false)), index);
+		}
+		CompletableFuture<List<T>> tmpPage = this.requestPage(tmpPageNo, true);
+		if ((tmpPageNo + 1) * this.mePageSize < this.meSize) {
+			this.requestPage(tmpPageNo + 1, false); // Ahead of the scrolling
+		}
+		return tmpPage.isDone() ? this.elementOf(waitFor(tmpPage), index) : null; // (Not waited for)
+	}
+
+	/**
+	 * Returns the element at the specified index, waiting for its page to be loaded if not loaded (by the loader executor, if
+	 * any). Returns null if the row no longer exists or its page could not be loaded (see 'get').
+	 * @param index	the index of the element
+	 * @return		the element
+	 */
+	T load(int index) {
+		Objects.checkIndex(index, this.meSize);
+		return this.elementOf(waitFor(this.requestPage(index / this.mePageSize, false)), index);
+	}
+
+	/**
+	 * Loads the elements in the specified range, waiting for their pages to be loaded if not loaded (used as the page loader
+	 * of another paged result, like one that maps these elements). Unlike 'get', fails if a page could not be loaded.
+	 * @param theOffset		the index of the first element
+	 * @param theLimit		the maximum number of elements
+	 * @return				the elements (null for the rows that no longer exist)
+	 * @throws SQLException	thrown if a database access error/timeout occurs
+	 */
+	List<T> loadRows(int theOffset, int theLimit) throws SQLException {
+		List<T> outRows = new ArrayList<>();
+		int tmpEnd = Math.min(theOffset + theLimit, this.meSize);
+		for (int i = theOffset; i < tmpEnd;) {
+			int tmpPageNo = i / this.mePageSize;
+			List<T> tmpPage;
+			try {
+				tmpPage = this.requestPage(tmpPageNo, false).join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof SQLException) {
+					throw (SQLException)e.getCause();
+				}
+				throw e;
+			}
+			for (int tmpPageEnd = Math.min(tmpEnd, (tmpPageNo + 1) * this.mePageSize); i < tmpPageEnd; i++) {
+				outRows.add(this.elementOf(tmpPage, i));
+			}
+		}
+		return outRows;
+	}
+
+	/**
+	 * Returns an iterator that waits for every page to be loaded (so a walk through the list, like copying it, does not skip
+	 * the rows not loaded yet).
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			// Fields
+			private int meIndex;
+
+			@Override
+			public boolean hasNext() {
+				return this.meIndex < size();
+			}
+
+			@Override
+			public T next() {
+				if (!this.hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return load(this.meIndex++);
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return this.meSize;
+	}
+
+	private static <X> List<X> waitFor(CompletableFuture<List<X>> thePage) { // (Empty if it failed, as the thread loading it can be the view's)
+		try {
+			return thePage.join();
+		} catch (CompletionException e) {
+			return Collections.emptyList();
+		}
+	}
+
+	private T elementOf(List<T> thePage, int index) {
+		return index % this.mePageSize < thePage.size() ? thePage.get(index % this.mePageSize) : null;
+	}
+
+	private CompletableFuture<List<T>> requestPage(int pageNo, boolean isGotEarly) {
+		CompletableFuture<List<T>> outPage;
+		synchronized (this.mePages) {
+			List<T> tmpLoaded = this.mePages.get(pageNo);
+			if (tmpLoaded != null) {
+				return CompletableFuture.completedFuture(tmpLoaded);
+			}
+			if (isGotEarly) { // (Marked under the same lock the loaded page is kept with, so the listener is not missed)
+				this.meGotEarly.add(pageNo);
+			}
+			outPage = this.mePending.get(pageNo);
+			if (outPage != null) {
+				return outPage;
+			}
+			outPage = new CompletableFuture<>();
+			this.mePending.put(pageNo, outPage);
+		}
+		if (this.meExecutor == null) {
+			this.completePage(pageNo, outPage);
+		} else {
+			final CompletableFuture<List<T>> tmpPage = outPage;
+			this.meExecutor.execute(() -> this.completePage(pageNo, tmpPage));
+		}
+		return outPage;
+	}
+
+	private void completePage(int pageNo, CompletableFuture<List<T>> thePage) {
+		List<T> tmpPage = null;
+		Exception tmpError = null;
+		try {
+			tmpPage = this.loadPage(pageNo);
+		} catch (SQLException | RuntimeException e) {
+			tmpError = e;
+		}
+		boolean tmpIsTold;
+		synchronized (this.mePages) {
+			this.mePending.remove(pageNo);
+			tmpIsTold = this.meGotEarly.remove(pageNo) && tmpPage != null; // (Failed pages are loaded again when next got)
+			if (tmpPage != null) { // (Failed pages are not kept)
+				this.mePages.put(pageNo, tmpPage);
+				if (this.mePages.size() > this.meMaxPages) {
+					this.mePages.remove(this.mePages.keySet().iterator().next());
+				}
+			}
+		}
+		if (tmpPage == null) {
+			thePage.completeExceptionally(tmpError);
+		} else {
+			thePage.complete(tmpPage);
+		}
+		if (tmpIsTold && this.meListener != null) {
+			try {
+				this.meListener.run();
+			} catch (RuntimeException e) {} // (The loader thread keeps loading)
+		}
+	}
+
+	private List<T> loadPage(int pageNo) throws SQLException {
+		long tmpPrevTrace = TraceContext.enter(this.meTraceId);
+		TracePageEvent tmpTrace = new TracePageEvent(pageNo * this.mePageSize);
+		try {
+			List<T> outPage = this.meLoader.loadPage(pageNo * this.mePageSize, this.mePageSize).stream().map(row -> row == null ? null : this.meMapper.apply(row))
+					.collect(Collectors.toList());
+			tmpTrace.finish(outPage.size());
+			return outPage;
+		} finally {
+			tmpTrace.close();
+			TraceContext.exit(tmpPrevTrace);
+		}
+	}
+}
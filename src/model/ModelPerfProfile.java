@@ -0,0 +1,76 @@
+package model;
+
+/**
+ * An enumeration that represents the SQLite memory/IO tuning applied to every connection when the DAO starts. The
+ * profile is chosen with the 'homeshow.profile' system property ('lowmem', 'balanced' or 'throughput').
+ * @author Janty Azmat
+ */
+enum ModelPerfProfile {
+
+	/**
+	 * Small page cache and no memory-mapped I/O (for low-memory machines).
+	 */
+	LOWMEM(4096, 2048, 0L, "FILE"),
+
+	/**
+	 * Moderate page cache and memory-mapped I/O (the default).
+	 */
+	BALANCED(4096, 16384, 256L << 20, "MEMORY"),
+
+	/**
+	 * Large page cache and memory-mapped I/O (for large libraries on fast drives).
+	 */
+	THROUGHPUT(8192, 262144, 1L << 30, "MEMORY");
+
+	// Fields
+	public static final String PROPERTY = "homeshow.profile";
+	private final int mePageSize;
+	private final int meCacheKiB;
+	private final long meMmapSize;
+	private final String meTempStore;
+
+	ModelPerfProfile(int pageSize, int cacheKiB, long mmapSize, String tempStore) {
+		this.mePageSize = pageSize;
+		this.meCacheKiB = cacheKiB;
+		this.meMmapSize = mmapSize;
+		this.meTempStore = tempStore;
+	}
+
+	/**
+	 * Used to get the profile chosen with the 'homeshow.profile' system property ('BALANCED' if not set or unknown).
+	 * @return	the chosen profile
+	 */
+	public static ModelPerfProfile fromSystem() {
+		try {
+			return ModelPerfProfile.valueOf(System.getProperty(PROPERTY, BALANCED.name()).trim().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			return BALANCED;
+		}
+	}
+
+	/**
+	 * Used to get the 'PRAGMA' statement that sets the page size. It only takes effect on a new (empty) database, and
+	 * must run before the database is switched to WAL journal mode.
+	 * @return	the 'PRAGMA' statement
+	 */
+	public String getPageSizePragma() {
+		return "PRAGMA page_size = " + this.mePageSize + ";";
+	}
+
+	/**
+	 * Used to get the 'PRAGMA' statements (that are per connection) of the profile.
+	 * @return	the 'PRAGMA' statements
+	 */
+	public String[] getConnectionPragmas() {
+		return new String[] {
+			"PRAGMA cache_size = -" + this.meCacheKiB + ";",	// Negative for KiB (instead of pages)
+			"PRAGMA mmap_size = " + this.meMmapSize + ";",		// Reading pages without a system call each (capped by the SQLite build)
+			"PRAGMA temp_store = " + this.meTempStore + ";"		// Where sorting and temporary indexes are kept
+		};
+	}
+
+	@Override
+	public String toString() {
+		return this.name().toLowerCase();
+	}
+}
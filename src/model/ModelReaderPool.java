@@ -0,0 +1,151 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A class that represents a small fixed pool of read-only connections (each with its own prepared statements cache) to
+ * a database in WAL journal mode, so searches run in parallel with each other and with the writes (that use a separate
+ * writer connection). A reader is borrowed with 'acquire' and given back with 'release'.
+ * @author Janty Azmat
+ */
+class ModelReaderPool implements AutoCloseable {
+
+	/**
+	 * A class that represents a single pooled read-only connection and its prepared statements cache.
+	 * @author Janty Azmat
+	 */
+	static class ModelReader {
+		// Fields
+		private Connection meConn;
+		private ModelStatementCache meStatCache;
+
+		ModelReader(Connection theConnection, ModelStatementCache theStatements) {
+			this.meConn = theConnection;
+			this.meStatCache = theStatements;
+		}
+
+		public Connection getConnection() {
+			return this.meConn;
+		}
+
+		public ModelStatementCache getStatements() {
+			return this.meStatCache;
+		}
+	}
+
+	// Fields
+	private List<ModelReader> meAll;
+	private BlockingQueue<ModelReader> meIdle;
+	private ModelReader meShared; // Used (by everyone) instead of pooled readers when there are none
+
+	/**
+	 * Constructor that opens the read-only connections.
+	 * @param connString		the DBMS connection string (the database must already be in WAL journal mode)
+	 * @param readerCount		the number of read-only connections to open
+	 * @param readerPragmas		the 'PRAGMA' statements run on every read-only connection when opened
+	 * @param statCacheSize		the maximum number of idle prepared statements kept per connection
+	 * @throws SQLException		thrown if a database access error occurs
+	 */
+	public ModelReaderPool(String connString, int readerCount, String[] readerPragmas, int statCacheSize) throws SQLException {
+		this.meAll = new ArrayList<>(readerCount);
+		this.meIdle = new ArrayBlockingQueue<>(Math.max(1, readerCount));
+		try {
+			for (int i = 0; i < readerCount; i++) {
+				Connection tmpConn = DriverManager.getConnection(connString);
+				this.meAll.add(new ModelReader(tmpConn, new ModelStatementCache(tmpConn, statCacheSize))); // Added first, so it is closed if a pragma fails
+				try (Statement tmpStat = tmpConn.createStatement()) {
+					for (String pragma : readerPragmas) {
+						tmpStat.execute(pragma);
+					}
+				}
+			}
+		} catch (SQLException e) {
+			this.close();
+			throw e;
+		}
+		this.meIdle.addAll(this.meAll);
+	}
+
+	/**
+	 * Constructor of a pool without read-only connections, that shares the specified connection instead (for in-memory
+	 * databases, as every connection to those opens a separate database).
+	 * @param sharedConnection	the (writer) connection used by all reads
+	 * @param sharedStatements	the prepared statements cache of the shared connection
+	 */
+	public ModelReaderPool(Connection sharedConnection, ModelStatementCache sharedStatements) {
+		this.meAll = new ArrayList<>();
+		this.meIdle = new ArrayBlockingQueue<>(1);
+		this.meShared = new ModelReader(sharedConnection, sharedStatements);
+	}
+
+	/**
+	 * Borrows a reader, waiting until one is idle. It must be given back with 'release'.
+	 * @return				the borrowed reader
+	 * @throws SQLException	thrown if interrupted while waiting
+	 */
+	public ModelReader acquire() throws SQLException {
+		if (this.meShared != null) {
+			return this.meShared;
+		}
+		try {
+			return this.meIdle.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a database reader.", e);
+		}
+	}
+
+	/**
+	 * Gives back a reader that was borrowed with 'acquire'.
+	 * @param theReader	the borrowed reader
+	 */
+	public void release(ModelReader theReader) {
+		if (theReader != this.meShared) {
+			this.meIdle.offer(theReader);
+		}
+	}
+
+	/**
+	 * Used to get the number of times a statement was found in the readers caches.
+	 * @return	the number of cache hits
+	 */
+	public long getHitCount() {
+		return this.meAll.stream().mapToLong(reader -> reader.meStatCache.getHitCount()).sum();
+	}
+
+	/**
+	 * Used to get the number of times a statement had to be prepared by the readers.
+	 * @return	the number of cache misses
+	 */
+	public long getMissCount() {
+		return this.meAll.stream().mapToLong(reader -> reader.meStatCache.getMissCount()).sum();
+	}
+
+	@Override
+	public void close() throws SQLException {
+		SQLException tmpFirst = null;
+		for (ModelReader reader : this.meAll) {
+			for (AutoCloseable closeable : new AutoCloseable[] { reader.meStatCache, reader.meConn }) { // The statements first
+				try {
+					closeable.close();
+				} catch (Exception e) {
+					if (tmpFirst == null) {
+						tmpFirst = e instanceof SQLException ? (SQLException)e : new SQLException(e);
+					}
+				}
+			}
+		}
+		this.meAll.clear();
+		this.meIdle.clear();
+		if (tmpFirst != null) {
+			throw tmpFirst;
+		}
+	}
+}
@@ -0,0 +1,208 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A class that represents a bounded (by entries and estimated memory) LRU cache of search results, keyed by the
+ * statement and its parameter data. Every table has a version that is increased when the table is written (along with
+ * the tables that its foreign keys cascade to), and a cached result is only returned while the versions of the tables
+ * its statement reads are the ones seen before the statement ran.
+ * @author Janty Azmat
+ */
+class ModelResultCache {
+
+	/**
+	 * A class that represents a result about to be retrieved (with the table versions seen before retrieving it), to be
+	 * cached with 'put'.
+	 * @author Janty Azmat
+	 */
+	static class ModelPendingResult {
+		// Fields
+		private Object meKey;
+		private String[] meTables;
+		private long[] meVersions;
+
+		ModelPendingResult(Object theKey, String[] theTables, long[] theVersions) {
+			this.meKey = theKey;
+			this.meTables = theTables;
+			this.meVersions = theVersions;
+		}
+	}
+
+	/**
+	 * A class that represents a cached result.
+	 * @author Janty Azmat
+	 */
+	private static class ModelCachedResult {
+		// Fields
+		private List<ModelDataRow> meValue;
+		private ModelPendingResult meSource;
+		private long meBytes;
+
+		ModelCachedResult(List<ModelDataRow> theValue, ModelPendingResult theSource, long theBytes) {
+			this.meValue = theValue;
+			this.meSource = theSource;
+			this.meBytes = theBytes;
+		}
+	}
+
+	// Fields
+	private static final String me_FTS_SUFFIX = "_fts"; // Full-text tables are read as their content tables
+	private Map<String, AtomicLong> meVersions; // Version of every table
+	private Map<String, Set<String>> meCascades; // The tables that the writes of every table cascade to
+	private Pattern meTableNames;
+	private LinkedHashMap<Object, ModelCachedResult> meResults; // In access order (eldest first)
+	private int meMaxEntries;
+	private long meMaxBytes;
+	private long meBytes;
+	private AtomicLong meHits;
+	private AtomicLong meMisses;
+
+	/**
+	 * Constructor.
+	 * @param tableCascades	every table with the tables that its deletes and updates cascade to (by foreign keys)
+	 * @param maxEntries	the maximum number of cached results
+	 * @param maxBytes		the maximum estimated memory of the cached results
+	 */
+	public ModelResultCache(Map<String, Set<String>> tableCascades, int maxEntries, long maxBytes) {
+		this.meVersions = new HashMap<>();
+		tableCascades.keySet().forEach(table -> this.meVersions.put(table, new AtomicLong()));
+		this.meCascades = tableCascades;
+		this.meTableNames = Pattern.compile("\\b(" + String.join("|", tableCascades.keySet()) + ")(" + me_FTS_SUFFIX + ")?\\b");
+		this.meResults = new LinkedHashMap<>(16, 0.75f, true);
+		this.meMaxEntries = maxEntries;
+		this.meMaxBytes = maxBytes;
+		this.meHits = new AtomicLong();
+		this.meMisses = new AtomicLong();
+	}
+
+	/**
+	 * Used to get a cached result (if still valid).
+	 * @param theKey	the statement and its parameter data
+	 * @return			the cached result, or null if none
+	 */
+	public List<ModelDataRow> get(Object theKey) {
+		synchronized (this.meResults) {
+			ModelCachedResult tmpResult = this.meResults.get(theKey);
+			if (tmpResult != null) {
+				if (this.isCurrent(tmpResult.meSource)) {
+					this.meHits.incrementAndGet();
+					return tmpResult.meValue;
+				}
+				this.remove(theKey);
+			}
+		}
+		this.meMisses.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * Records the versions of the tables read by a statement. Must be called before retrieving the result to cache.
+	 * @param theKey	the statement and its parameter data
+	 * @param theSql	the statement SQL text (to find the tables it reads)
+	 * @return			the pending result to pass to 'put'
+	 */
+	public ModelPendingResult prepare(Object theKey, String theSql) {
+		List<String> tmpTables = new ArrayList<>();
+		Matcher tmpMatch = this.meTableNames.matcher(theSql);
+		while (tmpMatch.find()) {
+			if (!tmpTables.contains(tmpMatch.group(1))) {
+				tmpTables.add(tmpMatch.group(1));
+			}
+		}
+		String[] tmpArr = tmpTables.toArray(new String[0]);
+		return new ModelPendingResult(theKey, tmpArr, Arrays.stream(tmpArr).mapToLong(table -> this.meVersions.get(table).get()).toArray());
+	}
+
+	/**
+	 * Caches a result (unless a table it reads was written since 'prepare', or it is larger than the cache), evicting
+	 * the least recently used results when over the bounds.
+	 * @param thePending	the pending result (returned by 'prepare')
+	 * @param theValue		the result
+	 * @param estimatedBytes	the estimated memory of the result
+	 */
+	public void put(ModelPendingResult thePending, List<ModelDataRow> theValue, long estimatedBytes) {
+		if (estimatedBytes > this.meMaxBytes) {
+			return;
+		}
+		synchronized (this.meResults) {
+			if (!this.isCurrent(thePending)) {
+				return;
+			}
+			this.remove(thePending.meKey);
+			this.meResults.put(thePending.meKey, new ModelCachedResult(theValue, thePending, estimatedBytes));
+			this.meBytes += estimatedBytes;
+			Iterator<Map.Entry<Object, ModelCachedResult>> tmpIter = this.meResults.entrySet().iterator();
+			while (this.meResults.size() > this.meMaxEntries || this.meBytes > this.meMaxBytes) {
+				this.meBytes -= tmpIter.next().getValue().meBytes;
+				tmpIter.remove();
+			}
+		}
+	}
+
+	/**
+	 * Invalidates the cached results that read the specified table (and the tables its writes cascade to).
+	 * @param theTable		the written table
+	 * @param isCascading	'true' for deletes and updates (that cascade to the referencing tables), 'false' for inserts
+	 */
+	public void invalidate(String theTable, boolean isCascading) {
+		List<String> tmpTables = new ArrayList<>();
+		tmpTables.add(theTable);
+		if (isCascading) {
+			tmpTables.addAll(this.meCascades.getOrDefault(theTable, Collections.emptySet()));
+		}
+		synchronized (this.meResults) {
+			tmpTables.stream().map(this.meVersions::get).filter(version -> version != null).forEach(AtomicLong::incrementAndGet); // Also fails the results still being retrieved
+			this.meResults.values().removeIf(result -> {
+				if (!this.isCurrent(result.meSource)) {
+					this.meBytes -= result.meBytes;
+					return true;
+				}
+				return false;
+			});
+		}
+	}
+
+	/**
+	 * Used to get the number of times a valid result was found in the cache.
+	 * @return	the number of cache hits
+	 */
+	public long getHitCount() {
+		return this.meHits.get();
+	}
+
+	/**
+	 * Used to get the number of times a result had to be retrieved.
+	 * @return	the number of cache misses
+	 */
+	public long getMissCount() {
+		return this.meMisses.get();
+	}
+
+	private boolean isCurrent(ModelPendingResult theSource) {
+		for (int i = 0; i < theSource.meTables.length; i++) {
+			if (this.meVersions.get(theSource.meTables[i]).get() != theSource.meVersions[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void remove(Object theKey) {
+		ModelCachedResult tmpOld = this.meResults.remove(theKey);
+		if (tmpOld != null) {
+			this.meBytes -= tmpOld.meBytes;
+		}
+	}
+}
@@ -0,0 +1,297 @@
+package model;
+
+import java.sql.Types;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import model.HomeShowSqliteDAO.ModelPersRole;
+import model.ModelRowMapper.ModelColumnKind;
+
+/**
+ * A class that represents the rows of a query result stored column by column. The column descriptors are shared by all
+ * the rows, integers (and booleans and roles) are kept in primitive arrays and texts are dictionary-encoded (every
+ * distinct text is kept once per column). The rows are read through lightweight data rows whose cells are created when
+ * accessed.
+ * @author Janty Azmat
+ */
+class ModelResultColumns {
+
+	/**
+	 * An enumeration that represents how the values of a plain column are stored (decided by its first value, as
+	 * SQLite columns are dynamically typed).
+	 * @author Janty Azmat
+	 */
+	private static enum ModelStorage {
+		NONE,		// No value yet
+		INTEGER,	// In the integer array
+		TEXT,		// As dictionary codes in the integer array
+		OBJECT		// In the object array (when a column has mixed value types, or for nested rows)
+	}
+
+	// Fields
+	private static final int me_INIT_CAPACITY = 64;
+	private String meTable;
+	private ModelStatementEcho meEcho;
+	private String[] meNames;
+	private boolean[] meIsKeys;
+	private ModelColumnKind[] meKinds;
+	private ModelRowMapper[] meNested;
+	private ModelStorage[] meStorages;
+	private BitSet[] meHasValues; // The rows that have a (non-NULL) value, per column
+	private int[][] meInts;
+	private Object[][] meObjects;
+	private List<List<String>> meDicts; // The distinct texts of every text column (indexed by dictionary code)
+	private List<Map<String, Integer>> meDictCodes; // Only needed while appending rows
+	private int meRowCount;
+	private int meCapacity;
+
+	/**
+	 * Constructor.
+	 * @param theTable	the table name given to the rows and cells
+	 * @param theEcho	the statement (with its parameter data) given to the rows
+	 * @param theNames	the column names
+	 * @param theKeys	whether each column is a key
+	 * @param theKinds	how each column value is converted to a cell value
+	 * @param theNested	the columns of the nested rows of each nested column (null for other columns)
+	 */
+	public ModelResultColumns(String theTable, ModelStatementEcho theEcho, String[] theNames, boolean[] theKeys, ModelColumnKind[] theKinds, ModelRowMapper[] theNested) {
+		this.meTable = theTable;
+		this.meEcho = theEcho;
+		this.meNames = theNames;
+		this.meIsKeys = theKeys;
+		this.meKinds = theKinds;
+		this.meNested = theNested;
+		this.meCapacity = me_INIT_CAPACITY;
+		this.meStorages = new ModelStorage[theNames.length];
+		this.meHasValues = new BitSet[theNames.length];
+		this.meInts = new int[theNames.length][];
+		this.meObjects = new Object[theNames.length][];
+		this.meDicts = new ArrayList<>();
+		this.meDictCodes = new ArrayList<>();
+		for (int i = 0; i < theNames.length; i++) {
+			this.meStorages[i] = theKinds[i] == ModelColumnKind.PLAIN ? ModelStorage.NONE : theKinds[i] == ModelColumnKind.NESTED ? ModelStorage.OBJECT : ModelStorage.INTEGER;
+			this.meHasValues[i] = new BitSet();
+			this.meInts[i] = this.meStorages[i] == ModelStorage.INTEGER ? new int[this.meCapacity] : null;
+			this.meObjects[i] = this.meStorages[i] == ModelStorage.OBJECT ? new Object[this.meCapacity] : null;
+			this.meDicts.add(null);
+			this.meDictCodes.add(null);
+		}
+	}
+
+	/**
+	 * Adds a row with no values (all NULL).
+	 * @return	the index of the added row
+	 */
+	public int addRow() {
+		if (this.meRowCount == this.meCapacity) {
+			this.meCapacity *= 2;
+			for (int i = 0; i < this.meNames.length; i++) {
+				this.meInts[i] = this.meInts[i] == null ? null : Arrays.copyOf(this.meInts[i], this.meCapacity);
+				this.meObjects[i] = this.meObjects[i] == null ? null : Arrays.copyOf(this.meObjects[i], this.meCapacity);
+			}
+		}
+		return this.meRowCount++;
+	}
+
+	/**
+	 * Sets a value of the last added row. Only text and integer values are kept (others are left as NULL).
+	 * @param columnIndex	the index of the column
+	 * @param theValue		the value as read from the result (or null)
+	 */
+	public void setValue(int columnIndex, Object theValue) {
+		int tmpRow = this.meRowCount - 1;
+		if (theValue == null) {
+			return;
+		}
+		switch (this.meKinds[columnIndex]) {
+			case ROLE:
+				this.meInts[columnIndex][tmpRow] = ModelPersRole.getValueOf((String)theValue).ordinal();
+				break;
+			case IS_MOVIE:
+				this.meInts[columnIndex][tmpRow] = ((Integer)theValue) > 0 ? 1 : 0;
+				break;
+			case NESTED:
+				this.meObjects[columnIndex][tmpRow] = new ModelNestedRows((String)theValue, this.meNested[columnIndex], this.meEcho);
+				break;
+			case PLAIN:
+				if (!(theValue instanceof String || theValue instanceof Integer)) {
+					return;
+				}
+				if (this.meStorages[columnIndex] == ModelStorage.NONE) { // The first value decides the storage
+					this.meStorages[columnIndex] = theValue instanceof String ? ModelStorage.TEXT : ModelStorage.INTEGER;
+					this.meInts[columnIndex] = new int[this.meCapacity];
+					if (theValue instanceof String) {
+						this.meDicts.set(columnIndex, new ArrayList<>());
+						this.meDictCodes.set(columnIndex, new HashMap<>());
+					}
+				} else if ((this.meStorages[columnIndex] == ModelStorage.TEXT) != (theValue instanceof String) && this.meStorages[columnIndex] != ModelStorage.OBJECT) {
+					this.moveToObjects(columnIndex);
+				}
+				switch (this.meStorages[columnIndex]) {
+					case INTEGER:
+						this.meInts[columnIndex][tmpRow] = (Integer)theValue;
+						break;
+					case TEXT:
+						this.meInts[columnIndex][tmpRow] = this.meDictCodes.get(columnIndex).computeIfAbsent((String)theValue, txt -> {
+							this.meDicts.get(columnIndex).add(txt);
+							return this.meDicts.get(columnIndex).size() - 1;
+						});
+						break;
+					default:
+						this.meObjects[columnIndex][tmpRow] = theValue;
+				}
+		}
+		this.meHasValues[columnIndex].set(tmpRow);
+	}
+
+	/**
+	 * Releases the spare capacity and the data only needed while adding rows.
+	 */
+	public void trim() {
+		for (int i = 0; i < this.meNames.length; i++) {
+			this.meInts[i] = this.meInts[i] == null ? null : Arrays.copyOf(this.meInts[i], this.meRowCount);
+			this.meObjects[i] = this.meObjects[i] == null ? null : Arrays.copyOf(this.meObjects[i], this.meRowCount);
+			this.meDictCodes.set(i, null);
+		}
+		this.meCapacity = this.meRowCount;
+	}
+
+	/**
+	 * Used to get the rows as a list of lightweight (read-only) data rows.
+	 * @return	the list of data rows
+	 */
+	public List<ModelDataRow> getRows() {
+		return new AbstractList<ModelDataRow>() {
+
+			@Override
+			public ModelDataRow get(int index) {
+				Objects.checkIndex(index, meRowCount);
+				return new ModelDataRow(ModelResultColumns.this, index);
+			}
+
+			@Override
+			public int size() {
+				return meRowCount;
+			}
+		};
+	}
+
+	/**
+	 * Used to get the table name given to the rows and cells.
+	 * @return	the table name
+	 */
+	public String getTableName() {
+		return this.meTable;
+	}
+
+	/**
+	 * Used to get the statement (with its parameter data) given to the rows. It is rendered when first requested.
+	 * @return	the statement
+	 */
+	public String getEcho() {
+		return this.meEcho.toString();
+	}
+
+	/**
+	 * Used to get a rough estimate of the memory used by the stored values (the arrays, the value flags and the distinct
+	 * texts), to bound the memory of the cached results.
+	 * @return	the estimated number of bytes
+	 */
+	public long getEstimatedBytes() {
+		long outBytes = 64L * this.meNames.length;
+		for (int i = 0; i < this.meNames.length; i++) {
+			outBytes += this.meInts[i] == null ? 0L : 4L * this.meInts[i].length;
+			outBytes += this.meObjects[i] == null ? 0L : 24L * this.meObjects[i].length; // The reference and (roughly) a boxed value
+			outBytes += this.meHasValues[i].size() / 8;
+			if (this.meKinds[i] == ModelColumnKind.NESTED) { // Plus the JSON texts (kept until decoded)
+				for (int j = this.meHasValues[i].nextSetBit(0); j >= 0; j = this.meHasValues[i].nextSetBit(j + 1)) {
+					outBytes += 2L * ((ModelNestedRows)this.meObjects[i][j]).getJsonLength();
+				}
+			}
+			if (this.meDicts.get(i) != null) {
+				for (String txt : this.meDicts.get(i)) {
+					outBytes += 48L + 2L * txt.length(); // The list reference, the string object and its characters
+				}
+			}
+		}
+		return outBytes;
+	}
+
+	/**
+	 * Used to get the cells of a row as a read-only list whose cells are created when first accessed (then kept, so the
+	 * same cell is returned on every access). The columns with values are found once, when the list is created.
+	 * @param rowIndex	the index of the row
+	 * @return			the cells with values (NULL cells are not included)
+	 */
+	public List<ModelDataCell<?>> getRowCells(int rowIndex) {
+		int[] tmpColumns = new int[this.meNames.length];
+		int tmpCount = 0;
+		for (int i = 0; i < this.meNames.length; i++) {
+			if (this.meHasValues[i].get(rowIndex)) {
+				tmpColumns[tmpCount++] = i;
+			}
+		}
+		final int tmpSize = tmpCount;
+		ModelDataCell<?>[] tmpCells = new ModelDataCell<?>[tmpSize];
+		return new AbstractList<ModelDataCell<?>>() {
+
+			@Override
+			public ModelDataCell<?> get(int index) {
+				Objects.checkIndex(index, tmpSize);
+				if (tmpCells[index] == null) {
+					tmpCells[index] = createCell(tmpColumns[index], rowIndex);
+				}
+				return tmpCells[index];
+			}
+
+			@Override
+			public int size() {
+				return tmpSize;
+			}
+		};
+	}
+
+	private ModelDataCell<?> createCell(int columnIndex, int rowIndex) {
+		switch (this.meKinds[columnIndex]) {
+			case ROLE:
+				return new ModelDataCell<>(this.meNames[columnIndex], this.meTable, ModelPersRole.values()[this.meInts[columnIndex][rowIndex]], ModelPersRole.class, Types.VARCHAR, this.meIsKeys[columnIndex], false);
+			case IS_MOVIE:
+				return new ModelDataCell<>(this.meNames[columnIndex], this.meTable, this.meInts[columnIndex][rowIndex] > 0, Boolean.class, Types.BOOLEAN, this.meIsKeys[columnIndex], false);
+			case NESTED:
+				return new ModelDataCell<>(this.meNames[columnIndex], this.meTable, (ModelNestedRows)this.meObjects[columnIndex][rowIndex], ModelNestedRows.class, Types.OTHER, false, false);
+			default:
+				Object tmpVal = this.getPlainValue(columnIndex, rowIndex);
+				if (tmpVal instanceof String) {
+					return new ModelDataCell<>(this.meNames[columnIndex], this.meTable, (String)tmpVal, String.class, Types.VARCHAR, this.meIsKeys[columnIndex], false);
+				}
+				return new ModelDataCell<>(this.meNames[columnIndex], this.meTable, (Integer)tmpVal, Integer.class, Types.INTEGER, this.meIsKeys[columnIndex], false);
+		}
+	}
+
+	private Object getPlainValue(int columnIndex, int rowIndex) {
+		switch (this.meStorages[columnIndex]) {
+			case INTEGER:
+				return this.meInts[columnIndex][rowIndex];
+			case TEXT:
+				return this.meDicts.get(columnIndex).get(this.meInts[columnIndex][rowIndex]);
+			default:
+				return this.meObjects[columnIndex][rowIndex];
+		}
+	}
+
+	private void moveToObjects(int columnIndex) { // When a column turns out to have mixed value types
+		this.meObjects[columnIndex] = new Object[this.meCapacity];
+		for (int i = this.meHasValues[columnIndex].nextSetBit(0); i >= 0; i = this.meHasValues[columnIndex].nextSetBit(i + 1)) {
+			this.meObjects[columnIndex][i] = this.getPlainValue(columnIndex, i);
+		}
+		this.meStorages[columnIndex] = ModelStorage.OBJECT;
+		this.meInts[columnIndex] = null;
+		this.meDicts.set(columnIndex, null);
+		this.meDictCodes.set(columnIndex, null);
+	}
+}
@@ -0,0 +1,157 @@
+package model;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A class that maps the rows of a single query result to a columnar result. Everything that only depends on the result
+ * columns (the column names, whether they are keys, and their special conversions) is worked out once from the metadata,
+ * so mapping a row only reads each value once.
+ * @author Janty Azmat
+ */
+class ModelRowMapper {
+
+	/**
+	 * An enumeration that represents how a column value is converted to a cell value.
+	 * @author Janty Azmat
+	 */
+	static enum ModelColumnKind {
+		ROLE,		// Text converted to a personnel role
+		IS_MOVIE,	// Integer converted to a boolean
+		NESTED,		// JSON array of rows converted to nested rows (decoded when accessed)
+		PLAIN		// Text or integer as is
+	}
+
+	// Fields
+	private String meTable;
+	private String[] meNames;
+	private boolean[] meIsKeys;
+	private ModelColumnKind[] meKinds;
+	private ModelRowMapper[] meNested; // The columns of the nested rows (only for the nested columns)
+
+	/**
+	 * Constructor.
+	 * @param theMeta		the metadata of the query result
+	 * @param theKeys		all the keys (in the form 'table.column')
+	 * @param resultTable	the table name given to the mapped rows and cells
+	 * @throws SQLException	thrown if a database access error occurs
+	 */
+	public ModelRowMapper(ResultSetMetaData theMeta, Set<String> theKeys, String resultTable) throws SQLException {
+		this(theMeta, theKeys, resultTable, Collections.emptyMap());
+	}
+
+	/**
+	 * Constructor.
+	 * @param theMeta		the metadata of the query result
+	 * @param theKeys		all the keys (in the form 'table.column')
+	 * @param resultTable	the table name given to the mapped rows and cells
+	 * @param nestedColumns	the columns of the nested rows (by the name of the column they are aggregated into)
+	 * @throws SQLException	thrown if a database access error occurs
+	 */
+	public ModelRowMapper(ResultSetMetaData theMeta, Set<String> theKeys, String resultTable, Map<String, ModelRowMapper> nestedColumns) throws SQLException {
+		int tmpCount = theMeta.getColumnCount();
+		this.meTable = resultTable;
+		this.meNames = new String[tmpCount];
+		this.meIsKeys = new boolean[tmpCount];
+		this.meKinds = new ModelColumnKind[tmpCount];
+		this.meNested = new ModelRowMapper[tmpCount];
+		for (int i = 0; i < tmpCount; i++) {
+			this.meNames[i] = theMeta.getColumnName(i + 1);
+			this.meIsKeys[i] = theKeys.contains(theMeta.getTableName(i + 1) + "." + this.meNames[i]);
+			this.meNested[i] = nestedColumns.get(this.meNames[i]);
+			if (this.meNested[i] != null) {
+				this.meKinds[i] = ModelColumnKind.NESTED;
+				continue;
+			}
+			switch (this.meNames[i]) {
+				case "role":
+					this.meKinds[i] = ModelColumnKind.ROLE;
+					break;
+				case "is_movie":
+					this.meKinds[i] = ModelColumnKind.IS_MOVIE;
+					break;
+				default:
+					this.meKinds[i] = ModelColumnKind.PLAIN;
+			}
+		}
+	}
+
+	private ModelRowMapper(ModelRowMapper theSource, int fromColumn) {
+		this.meTable = theSource.meTable;
+		this.meNames = Arrays.copyOfRange(theSource.meNames, fromColumn, theSource.meNames.length);
+		this.meIsKeys = Arrays.copyOfRange(theSource.meIsKeys, fromColumn, theSource.meIsKeys.length);
+		this.meKinds = Arrays.copyOfRange(theSource.meKinds, fromColumn, theSource.meKinds.length);
+		this.meNested = Arrays.copyOfRange(theSource.meNested, fromColumn, theSource.meNested.length);
+	}
+
+	/**
+	 * Creates a mapper of the last columns only (like the columns of a flat query result that an aggregated query nests).
+	 * @param fromColumn	the index of the first column to keep
+	 * @return				the mapper of the kept columns
+	 */
+	public ModelRowMapper subMapper(int fromColumn) {
+		return new ModelRowMapper(this, fromColumn);
+	}
+
+	/**
+	 * Creates an empty columnar result (with the columns of the query result) to add rows to.
+	 * @param theEcho	the statement (with its parameter data) given to the rows
+	 * @return			the columnar result
+	 */
+	public ModelResultColumns createColumns(ModelStatementEcho theEcho) {
+		return new ModelResultColumns(this.meTable, theEcho, this.meNames, this.meIsKeys, this.meKinds, this.meNested);
+	}
+
+	/**
+	 * Used to get the column names of the query result.
+	 * @return	the column names
+	 */
+	public String[] getColumnNames() {
+		return this.meNames.clone();
+	}
+
+	/**
+	 * Used to get the number of columns of the query result.
+	 * @return	the number of columns
+	 */
+	public int getColumnCount() {
+		return this.meNames.length;
+	}
+
+	/**
+	 * Maps all the (remaining) rows of the result into a columnar result.
+	 * @param theRes		the result to map
+	 * @param theEcho		the statement (with its parameter data) given to the mapped rows
+	 * @return				the columnar result
+	 * @throws SQLException	thrown if a database access error occurs
+	 */
+	public ModelResultColumns mapRows(ResultSet theRes, ModelStatementEcho theEcho) throws SQLException {
+		return this.mapRows(theRes, theEcho, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Maps up to the specified number of the (remaining) rows of the result into a columnar result (the result is left
+	 * open after them, so the next rows can be mapped later).
+	 * @param theRes		the result to map
+	 * @param theEcho		the statement (with its parameter data) given to the mapped rows
+	 * @param maxRows		the maximum number of rows to map
+	 * @return				the columnar result
+	 * @throws SQLException	thrown if a database access error occurs
+	 */
+	public ModelResultColumns mapRows(ResultSet theRes, ModelStatementEcho theEcho, int maxRows) throws SQLException {
+		ModelResultColumns outCols = this.createColumns(theEcho);
+		for (int tmpCount = 0; tmpCount < maxRows && theRes.next(); tmpCount++) {
+			outCols.addRow();
+			for (int i = 0; i < this.meNames.length; i++) {
+				outCols.setValue(i, theRes.getObject(i + 1)); // NULL values are not kept
+			}
+		}
+		outCols.trim();
+		return outCols;
+	}
+}
@@ -0,0 +1,182 @@
+package model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A class that represents the log of the queries slower than a threshold, with their statement, parameter data, elapsed
+ * time, row count and query plan. The searching threads only queue the slow queries (dropping them if the log is that far
+ * behind), and a logger thread finds their query plans (with 'EXPLAIN QUERY PLAN' on an idle reader) and appends them to
+ * the log file, which is rotated when it gets too big (the log file gets the suffix '.1', the '.1' file '.2', and so on).
+ * @author Janty Azmat
+ */
+class ModelSlowQueryLog implements AutoCloseable {
+
+	/**
+	 * A class that represents a queued slow query.
+	 * @author Janty Azmat
+	 */
+	private static class ModelSlowQuery {
+		// Fields
+		private LocalDateTime meTime;
+		private ModelStatementEcho meEcho;
+		private long meElapsedNanos;
+		private int meRowCount;
+
+		ModelSlowQuery(ModelStatementEcho theEcho, long elapsedNanos, int rowCount) {
+			this.meTime = LocalDateTime.now();
+			this.meEcho = theEcho;
+			this.meElapsedNanos = elapsedNanos;
+			this.meRowCount = rowCount;
+		}
+	}
+
+	// Fields
+	private static final int me_QUEUE_SIZE = 64; // Slow queries waiting to be logged (more are dropped)
+	private static final ModelSlowQuery me_STOP = new ModelSlowQuery(null, 0L, 0); // Queued by 'close' after the last slow query
+	private Path meFile;
+	private long meThresholdNanos;
+	private long meMaxFileBytes;
+	private int meMaxOldFiles;
+	private ModelReaderPool meReaders;
+	private BlockingQueue<ModelSlowQuery> meQueue;
+	private AtomicLong meDropped; // Slow queries dropped since the last one logged
+	private Thread meLogger;
+
+	/**
+	 * Constructor (starts the logger thread).
+	 * @param theFile			the log file
+	 * @param thresholdMillis	the elapsed time (in milliseconds) from which a query is logged
+	 * @param maxFileBytes		the size from which the log file is rotated
+	 * @param maxOldFiles		the number of rotated log files kept
+	 * @param theReaders		the readers used to find the query plans
+	 */
+	public ModelSlowQueryLog(Path theFile, long thresholdMillis, long maxFileBytes, int maxOldFiles, ModelReaderPool theReaders) {
+		this.meFile = theFile.toAbsolutePath();
+		this.meThresholdNanos = thresholdMillis * 1000000L;
+		this.meMaxFileBytes = maxFileBytes;
+		this.meMaxOldFiles = maxOldFiles;
+		this.meReaders = theReaders;
+		this.meQueue = new ArrayBlockingQueue<>(me_QUEUE_SIZE);
+		this.meDropped = new AtomicLong();
+		this.meLogger = new Thread(this::drain, "homeshow-slow-query-log");
+		this.meLogger.setDaemon(true);
+		this.meLogger.start();
+	}
+
+	/**
+	 * Queues the specified query to be logged if it was slower than the threshold (never waits).
+	 * @param startNanos	the 'System.nanoTime' when the query started
+	 * @param rowCount		the number of rows read
+	 * @param theEcho		supplies the echo of the statement (only called if the query is logged)
+	 */
+	public void offer(long startNanos, int rowCount, Supplier<ModelStatementEcho> theEcho) {
+		long tmpElapsed = System.nanoTime() - startNanos;
+		if (tmpElapsed >= this.meThresholdNanos && !this.meQueue.offer(new ModelSlowQuery(theEcho.get(), tmpElapsed, rowCount))) {
+			this.meDropped.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Stops the logger thread once the queued slow queries are logged.
+	 */
+	@Override
+	public void close() {
+		try {
+			this.meQueue.put(me_STOP); // (The logger keeps taking, so there is room soon)
+			this.meLogger.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void drain() {
+		while (true) {
+			ModelSlowQuery tmpQuery;
+			try {
+				tmpQuery = this.meQueue.take();
+			} catch (InterruptedException e) {
+				continue; // (Only stopped by 'close')
+			}
+			if (tmpQuery == me_STOP) {
+				return;
+			}
+			try {
+				this.append(this.format(tmpQuery));
+			} catch (IOException | RuntimeException e) {} // Logging must not stop the application (the entry is lost)
+		}
+	}
+
+	private String format(ModelSlowQuery theQuery) {
+		StringBuilder outEntry = new StringBuilder();
+		long tmpDropped = this.meDropped.getAndSet(0L);
+		if (tmpDropped > 0L) {
+			outEntry.append("(").append(tmpDropped).append(" slow queries were not logged; the log was behind)\n\n");
+		}
+		outEntry.append(theQuery.meTime).append("  ").append(String.format("%.1f", theQuery.meElapsedNanos / 1000000.0)).append(" ms, ")
+				.append(theQuery.meRowCount).append(" rows\n");
+		outEntry.append("Statement:\n").append(theQuery.meEcho).append('\n');
+		outEntry.append("Parameters:");
+		for (int i = 1; i <= theQuery.meEcho.getParameterCount(); i++) {
+			outEntry.append(i == 1 ? " " : ", ").append('?').append(i).append('=').append(theQuery.meEcho.getParameterLiteral(i));
+		}
+		outEntry.append("\nQuery plan:\n");
+		try {
+			outEntry.append(this.explain(theQuery.meEcho.toString()));
+		} catch (SQLException e) {
+			outEntry.append("  (not available: ").append(e.getMessage()).append(")\n");
+		}
+		return outEntry.append('\n').toString();
+	}
+
+	private String explain(String theStatement) throws SQLException {
+		StringBuilder outPlan = new StringBuilder();
+		Map<Integer, Integer> tmpDepths = new HashMap<>(); // The depth of every plan row (by id)
+		ModelReaderPool.ModelReader tmpReader = this.meReaders.acquire();
+		try (PreparedStatement tmpStat = tmpReader.getConnection().prepareStatement("EXPLAIN QUERY PLAN " + theStatement); ResultSet tmpRes = tmpStat.executeQuery()) {
+			while (tmpRes.next()) { // Columns: id, parent, notused, detail
+				int tmpDepth = tmpDepths.getOrDefault(tmpRes.getInt(2), 0) + 1;
+				tmpDepths.put(tmpRes.getInt(1), tmpDepth);
+				outPlan.append("  ".repeat(tmpDepth)).append(tmpRes.getString(4)).append('\n');
+			}
+		} finally {
+			this.meReaders.release(tmpReader);
+		}
+		return outPlan.toString();
+	}
+
+	private void append(String theEntry) throws IOException {
+		byte[] tmpBytes = theEntry.getBytes(StandardCharsets.UTF_8);
+		if (Files.exists(this.meFile) && Files.size(this.meFile) + tmpBytes.length > this.meMaxFileBytes) {
+			this.rotate();
+		}
+		Files.write(this.meFile, tmpBytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+	}
+
+	private void rotate() throws IOException {
+		for (int i = this.meMaxOldFiles; i > 0; i--) { // The oldest is overwritten
+			Path tmpOld = i == 1 ? this.meFile : Paths.get(this.meFile + "." + (i - 1));
+			if (Files.exists(tmpOld)) {
+				Files.move(tmpOld, Paths.get(this.meFile + "." + i), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		if (this.meMaxOldFiles < 1) {
+			Files.deleteIfExists(this.meFile);
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A class that represents a bounded LRU cache of prepared statements (keyed by their SQL text) for a single connection.
+ * Statements are borrowed with 'acquire' and given back with 'release', so that a statement is never used by two
+ * threads at the same time (a second borrower of the same SQL just gets a fresh statement).
+ * @author Janty Azmat
+ */
+class ModelStatementCache implements AutoCloseable {
+	// Fields
+	private Connection meConn;
+	private int meMaxSize;
+	private LinkedHashMap<String, PreparedStatement> meIdle; // Idle statements in access order (eldest first)
+	private AtomicLong meHits;
+	private AtomicLong meMisses;
+
+	/**
+	 * Constructor.
+	 * @param theConnection	the connection that the statements are prepared on
+	 * @param maxSize		the maximum number of idle statements to keep
+	 */
+	public ModelStatementCache(Connection theConnection, int maxSize) {
+		this.meConn = theConnection;
+		this.meMaxSize = maxSize;
+		this.meHits = new AtomicLong();
+		this.meMisses = new AtomicLong();
+		this.meIdle = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	/**
+	 * Borrows a prepared statement for the specified SQL (preparing it if not cached). It must be given back with 'release'.
+	 * @param theSql		the SQL text of the statement
+	 * @return				the prepared statement
+	 * @throws SQLException	thrown if a database access error occurs
+	 */
+	public PreparedStatement acquire(String theSql) throws SQLException {
+		PreparedStatement outStat;
+		synchronized (this.meIdle) {
+			outStat = this.meIdle.remove(theSql);
+		}
+		if (outStat == null) {
+			this.meMisses.incrementAndGet();
+			ModelMetrics.getInstance().addStatementPrepared();
+			outStat = this.meConn.prepareStatement(theSql);
+		} else {
+			this.meHits.incrementAndGet();
+		}
+		return outStat;
+	}
+
+	/**
+	 * Gives back a statement that was borrowed with 'acquire'. The eldest idle statement is closed if the cache is full.
+	 * @param theSql	the SQL text the statement was borrowed for
+	 * @param theStat	the borrowed statement
+	 */
+	public void release(String theSql, PreparedStatement theStat) {
+		PreparedStatement tmpEvicted = null;
+		try {
+			theStat.clearParameters();
+		} catch (SQLException e) { // Broken statement; do not keep it
+			this.closeQuietly(theStat);
+			return;
+		}
+		synchronized (this.meIdle) {
+			if (this.meIdle.containsKey(theSql)) { // Another borrower already gave back the same SQL
+				tmpEvicted = theStat;
+			} else {
+				this.meIdle.put(theSql, theStat);
+				if (this.meIdle.size() > this.meMaxSize) {
+					Map.Entry<String, PreparedStatement> tmpEldest = this.meIdle.entrySet().iterator().next();
+					tmpEvicted = tmpEldest.getValue();
+					this.meIdle.remove(tmpEldest.getKey());
+				}
+			}
+		}
+		if (tmpEvicted != null) {
+			this.closeQuietly(tmpEvicted);
+		}
+	}
+
+	/**
+	 * Used to get the number of times a statement was found in the cache.
+	 * @return	the number of cache hits
+	 */
+	public long getHitCount() {
+		return this.meHits.get();
+	}
+
+	/**
+	 * Used to get the number of times a statement had to be prepared.
+	 * @return	the number of cache misses
+	 */
+	public long getMissCount() {
+		return this.meMisses.get();
+	}
+
+	@Override
+	public void close() throws SQLException {
+		SQLException tmpFirst = null;
+		synchronized (this.meIdle) {
+			for (PreparedStatement stat : this.meIdle.values()) {
+				try {
+					stat.close();
+				} catch (SQLException e) {
+					if (tmpFirst == null) {
+						tmpFirst = e;
+					}
+				}
+			}
+			this.meIdle.clear();
+		}
+		if (tmpFirst != null) {
+			throw tmpFirst;
+		}
+	}
+
+	private void closeQuietly(PreparedStatement theStat) {
+		try {
+			theStat.close();
+		} catch (SQLException e) {}
+	}
+}
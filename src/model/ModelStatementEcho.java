@@ -0,0 +1,143 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A class that represents the echo of a prepared statement: its SQL text with the parameter data filled in (to show the
+ * user). The SQL text is tokenised once (finding the parameter markers outside literals and comments), and the echo is
+ * only rendered (in a single pass, with the text literals escaped) when first requested.
+ * @author Janty Azmat
+ */
+class ModelStatementEcho {
+	// Fields
+	private String meSql;
+	private int[] meMarkerStarts; // Where each parameter marker starts in the SQL text
+	private int[] meMarkerEnds; // Where each parameter marker ends (exclusive)
+	private int[] meMarkerParams; // The (1-based) parameter number of each parameter marker
+	private String[] meLiterals; // The literal of each parameter number (index 0 not used)
+	private volatile String meRendered;
+
+	/**
+	 * Constructor.
+	 * @param theSql	the SQL text of the prepared statement
+	 */
+	public ModelStatementEcho(String theSql) {
+		List<int[]> tmpMarkers = new ArrayList<>(); // Each is {start, end, parameter number}
+		int tmpMaxParam = 0;
+		int i = 0;
+		this.meSql = theSql;
+		while (i < theSql.length()) {
+			char tmpChar = theSql.charAt(i);
+			if (tmpChar == '\'' || tmpChar == '"' || tmpChar == '`') { // Literal or quoted identifier (a doubled quote is just two literals in a row)
+				int tmpEnd = theSql.indexOf(tmpChar, i + 1);
+				i = tmpEnd < 0 ? theSql.length() : tmpEnd + 1;
+			} else if (tmpChar == '[') { // Quoted identifier
+				int tmpEnd = theSql.indexOf(']', i + 1);
+				i = tmpEnd < 0 ? theSql.length() : tmpEnd + 1;
+			} else if (theSql.startsWith("--", i)) { // Line comment
+				int tmpEnd = theSql.indexOf('\n', i + 2);
+				i = tmpEnd < 0 ? theSql.length() : tmpEnd + 1;
+			} else if (theSql.startsWith("/*", i)) { // Block comment
+				int tmpEnd = theSql.indexOf("*/", i + 2);
+				i = tmpEnd < 0 ? theSql.length() : tmpEnd + 2;
+			} else if (tmpChar == '?') { // Parameter marker: '?' (the next number) or '?NNN'
+				int tmpEnd = i + 1;
+				while (tmpEnd < theSql.length() && Character.isDigit(theSql.charAt(tmpEnd))) {
+					tmpEnd++;
+				}
+				int tmpParam = tmpEnd > i + 1 ? Integer.parseInt(theSql.substring(i + 1, tmpEnd)) : tmpMaxParam + 1;
+				tmpMaxParam = Math.max(tmpMaxParam, tmpParam);
+				tmpMarkers.add(new int[] { i, tmpEnd, tmpParam });
+				i = tmpEnd;
+			} else {
+				i++;
+			}
+		}
+		this.meMarkerStarts = tmpMarkers.stream().mapToInt(marker -> marker[0]).toArray();
+		this.meMarkerEnds = tmpMarkers.stream().mapToInt(marker -> marker[1]).toArray();
+		this.meMarkerParams = tmpMarkers.stream().mapToInt(marker -> marker[2]).toArray();
+		this.meLiterals = new String[tmpMaxParam + 1];
+	}
+
+	/**
+	 * Sets the data of a parameter.
+	 * @param paramNo	the (1-based) parameter number
+	 * @param theValue	the parameter data
+	 * @param isText	'true' to show the data as a text literal
+	 */
+	public void setParameter(int paramNo, Object theValue, boolean isText) {
+		if (paramNo < this.meLiterals.length) {
+			if (theValue == null) {
+				this.meLiterals[paramNo] = "NULL";
+			} else {
+				this.meLiterals[paramNo] = isText ? "'" + theValue.toString().replace("'", "''") + "'" : theValue.toString();
+			}
+			this.meRendered = null;
+		}
+	}
+
+	/**
+	 * Used to get the data of a parameter as shown in the echo.
+	 * @param paramNo	the (1-based) parameter number
+	 * @return			the literal of the parameter data (or null if it has no data)
+	 */
+	public String getParameterLiteral(int paramNo) {
+		return paramNo < this.meLiterals.length ? this.meLiterals[paramNo] : null;
+	}
+
+	/**
+	 * Creates the echo of another statement whose leading parameters are the parameters of this statement (like a
+	 * statement that wraps this one), with their data copied.
+	 * @param theSql	the SQL text of the other statement
+	 * @return			the echo of the other statement
+	 */
+	public ModelStatementEcho rebase(String theSql) {
+		ModelStatementEcho outEcho = new ModelStatementEcho(theSql);
+		System.arraycopy(this.meLiterals, 0, outEcho.meLiterals, 0, Math.min(this.meLiterals.length, outEcho.meLiterals.length));
+		return outEcho;
+	}
+
+	/**
+	 * Used to get the number of parameters (the highest parameter number) of the statement.
+	 * @return	the number of parameters
+	 */
+	public int getParameterCount() {
+		return this.meLiterals.length - 1;
+	}
+
+	/**
+	 * Renders (only once, unless parameters change) the SQL text with the parameter data filled in. Parameters with no
+	 * data are left as markers.
+	 * @return	the echo of the statement
+	 */
+	@Override
+	public String toString() {
+		String outRendered = this.meRendered;
+		if (outRendered == null) {
+			StringBuilder tmpBuild = new StringBuilder(this.meSql.length() + 16 * this.meMarkerStarts.length);
+			int tmpPos = 0;
+			for (int i = 0; i < this.meMarkerStarts.length; i++) {
+				String tmpLiteral = this.meLiterals[this.meMarkerParams[i]];
+				tmpBuild.append(this.meSql, tmpPos, this.meMarkerStarts[i]);
+				tmpBuild.append(tmpLiteral == null ? this.meSql.substring(this.meMarkerStarts[i], this.meMarkerEnds[i]) : tmpLiteral);
+				tmpPos = this.meMarkerEnds[i];
+			}
+			tmpBuild.append(this.meSql, tmpPos, this.meSql.length());
+			outRendered = tmpBuild.toString();
+			this.meRendered = outRendered;
+		}
+		return outRendered;
+	}
+
+	@Override
+	public int hashCode() {
+		return this.meSql.hashCode() * 31 + Arrays.hashCode(this.meLiterals);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof ModelStatementEcho && ((ModelStatementEcho)obj).meSql.equals(this.meSql) && Arrays.equals(((ModelStatementEcho)obj).meLiterals, this.meLiterals);
+	}
+}
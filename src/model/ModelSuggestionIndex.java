@@ -0,0 +1,332 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * A class that represents an in-memory autocomplete index over the text columns of some tables (like the show titles,
+ * the personnel names and the genre names), used to feed the search-as-you-type suggestions without going to the
+ * database. Every text column is a sorted map from its case-folded values to their rows, so the completions of a typed
+ * prefix are a range of the map; the short prefixes (whose ranges are large) also have their rows kept newest first, so
+ * their newest completions are found without walking the range. It is loaded once and then kept current by applying the
+ * rows that the DAO writes.
+ * @author Janty Azmat
+ */
+class ModelSuggestionIndex {
+
+	/**
+	 * A class that represents an indexed row along with its recency (its rowid when loaded, or a larger number when inserted
+	 * later), so the newest rows are suggested first.
+	 * @author Janty Azmat
+	 */
+	private static class ModelIndexedRow {
+		// Fields
+		private ModelDataRow meRow;
+		private long meRecency;
+
+		ModelIndexedRow(ModelDataRow theRow, long theRecency) {
+			this.meRow = theRow;
+			this.meRecency = theRecency;
+		}
+	}
+
+	// Fields
+	private static final char me_KEY_SEPARATOR = '\0'; // Separates the folded value from the row key (sorts before any text, so exact values come first)
+	private static final char me_KEY_END = Character.MAX_VALUE; // Bounds the range of a prefix
+	private static final int me_SHORT_PREFIX_LENGTH = 2; // The longest prefix whose rows are also kept newest first
+	private static final int me_SCAN_LIMIT = 2000; // The most index entries examined by a suggestion (beyond that, it is left to the database)
+	private Map<String, ModelDataRow> meTemplates; // The row template of every indexed table
+	private Map<String, Map<String, ModelIndexedRow>> meRows; // The rows of every indexed table (by their row key)
+	private Map<String, ConcurrentSkipListMap<String, ModelIndexedRow>> meColumns; // The sorted values of every text column (by 'table.column')
+	private Map<String, ConcurrentMap<String, ConcurrentSkipListMap<Long, ModelIndexedRow>>> meShortPrefixes; // The rows of every short prefix of every text column, newest first (by 'table.column', then prefix)
+	private AtomicLong meLastRecency; // The recency of the newest row
+
+	/**
+	 * Constructor.
+	 * @param tableTemplates	the row templates of the tables to index (their text cells are the indexed columns)
+	 */
+	public ModelSuggestionIndex(List<ModelDataRow> tableTemplates) {
+		this.meTemplates = new HashMap<>();
+		this.meRows = new HashMap<>();
+		this.meColumns = new HashMap<>();
+		this.meShortPrefixes = new HashMap<>();
+		this.meLastRecency = new AtomicLong();
+		for (ModelDataRow template : tableTemplates) {
+			this.meTemplates.put(template.getTableName(), template);
+			this.meRows.put(template.getTableName(), new ConcurrentHashMap<>());
+			template.getCells().stream().filter(cell -> String.class == cell.getValueClass())
+					.forEach(cell -> {
+						this.meColumns.put(cell.getTableName() + '.' + cell.getColumnName(), new ConcurrentSkipListMap<>());
+						this.meShortPrefixes.put(cell.getTableName() + '.' + cell.getColumnName(), new ConcurrentHashMap<>());
+					});
+		}
+	}
+
+	/**
+	 * Loads the rows of the indexed tables.
+	 * @param theConnection	the connection to read the tables from
+	 * @throws SQLException	thrown if a database access error occurs
+	 */
+	public void load(Connection theConnection) throws SQLException {
+		try (Statement tmpStat = theConnection.createStatement()) {
+			for (ModelDataRow template : this.meTemplates.values()) {
+				String tmpSql = "SELECT rowid, " + template.getCells().stream().map(ModelDataCell::getColumnName).collect(Collectors.joining(", ")) + " FROM " + template.getTableName() + ";";
+				try (ResultSet tmpRes = tmpStat.executeQuery(tmpSql)) {
+					while (tmpRes.next()) {
+						List<ModelDataCell<?>> tmpCells = new ArrayList<>(template.getCells().size());
+						for (int i = 0; i < template.getCells().size(); i++) {
+							tmpCells.add(readCell(template.getCells().get(i), tmpRes, i + 2));
+						}
+						this.add(new ModelIndexedRow(new ModelDataRow(template.getTableName(), "", tmpCells), tmpRes.getLong(1)));
+						this.meLastRecency.accumulateAndGet(tmpRes.getLong(1), Math::max);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Used to get the criteria cell that the suggestions are ranked by: the text criteria with the longest typed value (also
+	 * the most selective range of the index).
+	 * @param dataCriteria	the criteria
+	 * @return				the ranking cell, or null if there is no text criteria
+	 */
+	public static ModelDataCell<?> getRankingCell(List<ModelDataCell<?>> dataCriteria) {
+		ModelDataCell<?> outCell = null;
+		for (ModelDataCell<?> cell : dataCriteria) {
+			if (String.class == cell.getValueClass() && (outCell == null || cell.getValue().toString().length() > outCell.getValue().toString().length())) {
+				outCell = cell;
+			}
+		}
+		return outCell;
+	}
+
+	/**
+	 * Finds the top rows whose ranking criteria value (see 'getRankingCell') starts with the typed value, whose other text
+	 * criteria values contain the typed values (ignoring case), and whose other criteria values are equal. The rows whose
+	 * ranking value is the typed value come first, then the others, each newest first. Only the prefix matches are found
+	 * here, so when there are fewer than requested (and the rows that merely contain the typed value would follow) the
+	 * criteria are left to the database; as they are when finding the rows would examine too many index entries (a long
+	 * prefix shared by many values, or other criteria that few of the newest rows match).
+	 * @param dataCriteria	the criteria (all of them non-empty cells of a single indexed table)
+	 * @param maxRows		the number of rows to find
+	 * @return				the found rows, or null if the criteria can not be answered by the index
+	 */
+	public List<ModelDataRow> suggest(List<ModelDataCell<?>> dataCriteria, int maxRows) {
+		ModelDataCell<?> tmpLookup = getRankingCell(dataCriteria);
+		if (tmpLookup == null || dataCriteria.stream().anyMatch(cell -> !this.meTemplates.containsKey(cell.getTableName()) || !cell.getTableName().equals(tmpLookup.getTableName()))) {
+			return null;
+		}
+		String tmpPrefix = fold(tmpLookup.getValue().toString());
+		String tmpColumn = tmpLookup.getTableName() + '.' + tmpLookup.getColumnName();
+		Comparator<ModelIndexedRow> tmpNewestFirst = Comparator.comparingLong((ModelIndexedRow row) -> row.meRecency).reversed();
+		List<ModelIndexedRow> tmpExact = new ArrayList<>();
+		List<ModelIndexedRow> tmpFound = !tmpPrefix.isEmpty() && tmpPrefix.length() <= me_SHORT_PREFIX_LENGTH
+				? this.findNewestPrefixed(tmpColumn, tmpPrefix, dataCriteria, tmpLookup, maxRows, tmpExact)
+				: this.findPrefixed(tmpColumn, tmpPrefix, dataCriteria, tmpLookup, maxRows, tmpExact);
+		if (tmpFound == null || tmpExact.size() + tmpFound.size() < maxRows) {
+			return null;
+		}
+		tmpExact.sort(tmpNewestFirst);
+		tmpFound.sort(tmpNewestFirst);
+		tmpExact.addAll(tmpFound);
+		StringBuilder tmpEcho = new StringBuilder("(Autocomplete index)\nSELECT * FROM ").append(tmpLookup.getTableName()).append("\nWHERE ");
+		tmpEcho.append(dataCriteria.stream().map(cell -> cell.getColumnName() + (String.class == cell.getValueClass()
+				? " LIKE '" + (cell == tmpLookup ? "" : "%") + cell.getValue().toString().replace("'", "''") + "%'" : "=" + cell.getValue())).collect(Collectors.joining(" AND ")));
+		tmpEcho.append("\nORDER BY ").append(tmpLookup.getColumnName()).append(" LIKE '").append(tmpLookup.getValue().toString().replace("'", "''")).append("' DESC, rowid DESC\nLIMIT ")
+				.append(maxRows).append(';');
+		return tmpExact.stream().limit(maxRows).map(row -> new ModelDataRow(row.meRow.getTableName(), tmpEcho.toString(), row.meRow.getCells())).collect(Collectors.toList());
+	}
+
+	private List<ModelIndexedRow> findPrefixed(String theColumn, String thePrefix, List<ModelDataCell<?>> dataCriteria, ModelDataCell<?> rankingCell, int maxRows,
+			List<ModelIndexedRow> exactRows) { // Walks the range of the prefix (the exact values first), keeping the newest matches (or null if too many examined)
+		Comparator<ModelIndexedRow> tmpOldestFirst = Comparator.comparingLong((ModelIndexedRow row) -> row.meRecency);
+		PriorityQueue<ModelIndexedRow> tmpPrefixed = new PriorityQueue<>(tmpOldestFirst); // The newest prefix matches (oldest at the head, to be dropped)
+		int tmpExamined = 0;
+		for (Map.Entry<String, ModelIndexedRow> entry : this.meColumns.get(theColumn).subMap(thePrefix, true, thePrefix + me_KEY_END, false).entrySet()) {
+			if (++tmpExamined > me_SCAN_LIMIT) {
+				return null;
+			} else if (!matches(entry.getValue().meRow, dataCriteria, rankingCell)) {
+				continue;
+			} else if (entry.getKey().charAt(thePrefix.length()) == me_KEY_SEPARATOR) {
+				exactRows.add(entry.getValue());
+			} else if (exactRows.size() >= maxRows) {
+				break; // (No room left for the prefix matches)
+			} else {
+				tmpPrefixed.add(entry.getValue());
+				if (exactRows.size() + tmpPrefixed.size() > maxRows) {
+					tmpPrefixed.poll();
+				}
+			}
+		}
+		return new ArrayList<>(tmpPrefixed);
+	}
+
+	private List<ModelIndexedRow> findNewestPrefixed(String theColumn, String thePrefix, List<ModelDataCell<?>> dataCriteria, ModelDataCell<?> rankingCell, int maxRows,
+			List<ModelIndexedRow> exactRows) { // Walks the exact values, then the rows of the (short) prefix newest first until enough match (or null if too many examined)
+		List<ModelIndexedRow> outRows = new ArrayList<>();
+		int tmpExamined = 0;
+		for (ModelIndexedRow row : this.meColumns.get(theColumn).subMap(thePrefix + me_KEY_SEPARATOR, true, thePrefix + me_KEY_SEPARATOR + me_KEY_END, false).values()) {
+			if (++tmpExamined > me_SCAN_LIMIT) {
+				return null;
+			} else if (matches(row.meRow, dataCriteria, rankingCell)) {
+				exactRows.add(row);
+			}
+		}
+		ConcurrentSkipListMap<Long, ModelIndexedRow> tmpNewest = this.meShortPrefixes.get(theColumn).get(thePrefix);
+		if (tmpNewest != null) {
+			for (ModelIndexedRow row : tmpNewest.values()) {
+				if (exactRows.size() + outRows.size() >= maxRows) {
+					break;
+				} else if (++tmpExamined > me_SCAN_LIMIT) {
+					return null;
+				} else if (matches(row.meRow, dataCriteria, rankingCell) && !thePrefix.equals(fold(getValue(row.meRow.getCells(), rankingCell.getColumnName()).toString()))) { // (The exact values are found already)
+					outRows.add(row);
+				}
+			}
+		}
+		return outRows;
+	}
+
+	/**
+	 * Applies an inserted row (ignored if not of an indexed table).
+	 * @param theRow	the inserted row
+	 */
+	public void applyInsert(ModelDataRow theRow) {
+		ModelDataRow tmpTemplate = this.meTemplates.get(theRow.getTableName());
+		if (tmpTemplate != null) {
+			this.add(new ModelIndexedRow(new ModelDataRow(theRow.getTableName(), "", tmpTemplate.getCells().stream()
+					.map(cell -> copyCell(cell, getValue(theRow.getCells(), cell.getColumnName()))).collect(Collectors.toList())), this.meLastRecency.incrementAndGet()));
+		}
+	}
+
+	/**
+	 * Applies a deleted row (ignored if not of an indexed table).
+	 * @param theTable		the table of the deleted row
+	 * @param keyCells		the key cells of the deleted row
+	 */
+	public void applyDelete(String theTable, List<ModelDataCell<?>> keyCells) {
+		Map<String, ModelIndexedRow> tmpRows = this.meRows.get(theTable);
+		if (tmpRows != null) {
+			this.remove(tmpRows.get(toRowKey(keyCells)));
+		}
+	}
+
+	/**
+	 * Applies an updated row (ignored if not of an indexed table).
+	 * @param theTable		the table of the updated row
+	 * @param keyCells		the old key cells of the updated row
+	 * @param newCells		the updated cells
+	 */
+	public void applyUpdate(String theTable, List<ModelDataCell<?>> keyCells, List<ModelDataCell<?>> newCells) {
+		Map<String, ModelIndexedRow> tmpRows = this.meRows.get(theTable);
+		ModelIndexedRow tmpOld = tmpRows == null ? null : tmpRows.get(toRowKey(keyCells));
+		if (tmpOld != null) {
+			this.remove(tmpOld);
+			this.add(new ModelIndexedRow(new ModelDataRow(theTable, "", tmpOld.meRow.getCells().stream().map(cell -> { // The cells not updated keep their old values
+				Object tmpNew = getValue(newCells, cell.getColumnName());
+				return tmpNew == null ? cell : copyCell(cell, tmpNew);
+			}).collect(Collectors.toList())), tmpOld.meRecency)); // (Updates keep the rowid)
+		}
+	}
+
+	private void add(ModelIndexedRow theRow) {
+		String tmpRowKey = toRowKey(theRow.meRow.getCells().stream().filter(ModelDataCell::isKey).collect(Collectors.toList()));
+		this.remove(this.meRows.get(theRow.meRow.getTableName()).put(tmpRowKey, theRow)); // (Replaced if already there)
+		for (ModelDataCell<?> cell : theRow.meRow.getCells()) {
+			if (String.class == cell.getValueClass() && cell.getValue() != null) {
+				String tmpValue = fold(cell.getValue().toString());
+				this.meColumns.get(cell.getTableName() + '.' + cell.getColumnName()).put(tmpValue + me_KEY_SEPARATOR + tmpRowKey, theRow);
+				for (int i = 1; i <= Math.min(me_SHORT_PREFIX_LENGTH, tmpValue.length()); i++) {
+					this.meShortPrefixes.get(cell.getTableName() + '.' + cell.getColumnName()).computeIfAbsent(tmpValue.substring(0, i), pref -> new ConcurrentSkipListMap<>(Comparator.reverseOrder()))
+							.put(theRow.meRecency, theRow);
+				}
+			}
+		}
+	}
+
+	private void remove(ModelIndexedRow theRow) {
+		if (theRow != null) {
+			String tmpRowKey = toRowKey(theRow.meRow.getCells().stream().filter(ModelDataCell::isKey).collect(Collectors.toList()));
+			this.meRows.get(theRow.meRow.getTableName()).remove(tmpRowKey, theRow);
+			for (ModelDataCell<?> cell : theRow.meRow.getCells()) {
+				if (String.class == cell.getValueClass() && cell.getValue() != null) {
+					String tmpValue = fold(cell.getValue().toString());
+					this.meColumns.get(cell.getTableName() + '.' + cell.getColumnName()).remove(tmpValue + me_KEY_SEPARATOR + tmpRowKey, theRow);
+					for (int i = 1; i <= Math.min(me_SHORT_PREFIX_LENGTH, tmpValue.length()); i++) {
+						ConcurrentSkipListMap<Long, ModelIndexedRow> tmpNewest = this.meShortPrefixes.get(cell.getTableName() + '.' + cell.getColumnName()).get(tmpValue.substring(0, i));
+						if (tmpNewest != null) {
+							tmpNewest.remove(theRow.meRecency, theRow);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private static boolean matches(ModelDataRow theRow, List<ModelDataCell<?>> dataCriteria, ModelDataCell<?> rankingCell) { // (The ranking value is matched by the range)
+		for (ModelDataCell<?> crit : dataCriteria) {
+			Object tmpValue = getValue(theRow.getCells(), crit.getColumnName());
+			if (crit == rankingCell) {
+				continue;
+			} else if (String.class == crit.getValueClass()) {
+				if (tmpValue == null || !fold(tmpValue.toString()).contains(fold(crit.getValue().toString()))) { // As matched by the database
+					return false;
+				}
+			} else if (!crit.getValue().equals(tmpValue)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String toRowKey(List<ModelDataCell<?>> keyCells) {
+		return keyCells.stream().map(cell -> String.valueOf(cell.getValue())).collect(Collectors.joining(String.valueOf(me_KEY_SEPARATOR)));
+	}
+
+	private static String fold(String theText) {
+		return theText.toLowerCase(Locale.ROOT);
+	}
+
+	private static Object getValue(List<ModelDataCell<?>> theCells, String columnName) {
+		for (ModelDataCell<?> cell : theCells) {
+			if (cell.getColumnName().equals(columnName)) {
+				return cell.getValue();
+			}
+		}
+		return null;
+	}
+
+	private static ModelDataCell<?> readCell(ModelDataCell<?> theTemplate, ResultSet theRes, int columnNo) throws SQLException {
+		Object tmpValue;
+		if (Integer.class == theTemplate.getValueClass()) {
+			tmpValue = theRes.getInt(columnNo);
+		} else if (Boolean.class == theTemplate.getValueClass()) {
+			tmpValue = theRes.getBoolean(columnNo);
+		} else if (Long.class == theTemplate.getValueClass()) {
+			tmpValue = theRes.getLong(columnNo);
+		} else {
+			tmpValue = theRes.getString(columnNo);
+		}
+		return copyCell(theTemplate, theRes.wasNull() ? null : tmpValue);
+	}
+
+	private static <X> ModelDataCell<?> copyCell(ModelDataCell<X> theTemplate, Object theValue) {
+		return new ModelDataCell<>(theTemplate.getColumnName(), theTemplate.getTableName(), theTemplate.getValueClass().cast(theValue), theTemplate.getValueClass(),
+				theTemplate.getSqlType(), theTemplate.isKey(), theTemplate.isSearchOnEdit());
+	}
+}
@@ -0,0 +1,194 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import trace.TraceContext;
+
+/**
+ * A class that represents a write-behind queue of single-row writes, drained in order by one writer thread. The writes
+ * waiting when the writer gets to them are committed together in one transaction (so a burst of writes costs one sync),
+ * each inside its own savepoint, so a write that fails (like on a table constraint) is undone alone and reported through
+ * its future while the others are still committed. The writer holds the connection's monitor for every transaction and
+ * while applying its commits (to the in-memory structures), so the other writers of the connection must synchronize on
+ * it too, and apply their commits before releasing it, for the commits to be applied in the order they were made.
+ * @author Janty Azmat
+ */
+class ModelWriteQueue implements AutoCloseable {
+
+	/**
+	 * An interface that represents the database part of a write (run by the writer thread inside the transaction).
+	 * @author Janty Azmat
+	 */
+	@FunctionalInterface
+	static interface ModelWriteWork {
+
+		/**
+		 * Executes the write.
+		 * @return				the actual statement used (the prepared statement filled with parameter data)
+		 * @throws SQLException	thrown if a database access error occurs or a table constraint fails
+		 */
+		String execute() throws SQLException;
+	}
+
+	/**
+	 * A class that represents a queued write with its future.
+	 * @author Janty Azmat
+	 */
+	private static class ModelQueuedWrite {
+		// Fields
+		private ModelWriteWork meWork;
+		private Runnable meOnCommit;
+		private CompletableFuture<String> meFuture;
+		private long meTraceId; // The trace of the submitting thread (so the write is traced for it)
+		private String meEcho;
+		private Exception meError; // (Runtime exceptions are reported too, so the writer thread keeps running)
+
+		ModelQueuedWrite(ModelWriteWork theWork, Runnable onCommit) {
+			this.meWork = theWork;
+			this.meOnCommit = onCommit;
+			this.meFuture = new CompletableFuture<>();
+			this.meTraceId = TraceContext.getCurrentId();
+		}
+	}
+
+	// Fields
+	private static final ModelQueuedWrite me_STOP = new ModelQueuedWrite(null, null); // Queued by 'close' after the last write
+	private Connection meConn;
+	private int meMaxGroup;
+	private BlockingQueue<ModelQueuedWrite> meQueue;
+	private Thread meWriter;
+	private boolean meIsClosed; // (Guarded by the queue's monitor)
+
+	/**
+	 * Constructor (starts the writer thread).
+	 * @param theConnection	the (writer) connection
+	 * @param maxGroup		the maximum number of writes committed together
+	 */
+	public ModelWriteQueue(Connection theConnection, int maxGroup) {
+		this.meConn = theConnection;
+		this.meMaxGroup = maxGroup;
+		this.meQueue = new LinkedBlockingQueue<>();
+		this.meWriter = new Thread(this::drain, "homeshow-writer");
+		this.meWriter.setDaemon(true);
+		this.meWriter.start();
+	}
+
+	/**
+	 * Queues a write.
+	 * @param theWork	the database part of the write
+	 * @param onCommit	run by the writer thread once the write is committed, still holding the connection's monitor (like
+	 * 					updating the in-memory structures)
+	 * @return			a future completed with the actual statement used when committed, or exceptionally with the
+	 * 					'SQLException' of the write (or of its transaction) or the runtime exception of 'onCommit'
+	 * 					(the write is then committed but not applied)
+	 */
+	public CompletableFuture<String> submit(ModelWriteWork theWork, Runnable onCommit) {
+		ModelQueuedWrite tmpWrite = new ModelQueuedWrite(theWork, onCommit);
+		synchronized (this.meQueue) { // (Not queued after the stop marker)
+			if (this.meIsClosed) {
+				tmpWrite.meFuture.completeExceptionally(new SQLException("The write queue is closed."));
+			} else {
+				this.meQueue.add(tmpWrite);
+			}
+		}
+		return tmpWrite.meFuture;
+	}
+
+	/**
+	 * Stops accepting writes and waits for the queued ones to be committed.
+	 */
+	@Override
+	public void close() {
+		synchronized (this.meQueue) {
+			if (!this.meIsClosed) {
+				this.meIsClosed = true;
+				this.meQueue.add(me_STOP);
+			}
+		}
+		try {
+			this.meWriter.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void drain() {
+		List<ModelQueuedWrite> tmpGroup = new ArrayList<>(this.meMaxGroup);
+		boolean tmpIsStopping = false;
+		while (!tmpIsStopping) {
+			try {
+				tmpGroup.add(this.meQueue.take());
+			} catch (InterruptedException e) {
+				continue; // (Only stopped by 'close')
+			}
+			this.meQueue.drainTo(tmpGroup, this.meMaxGroup - 1); // The writes queued meanwhile join the same transaction
+			tmpIsStopping = tmpGroup.remove(me_STOP);
+			try {
+				if (!tmpGroup.isEmpty()) {
+					this.commitGroup(tmpGroup);
+				}
+			} catch (RuntimeException e) { // (The writer thread keeps running, so the later writes are still done)
+				tmpGroup.forEach(write -> write.meFuture.completeExceptionally(e)); // (Not the already completed ones)
+			}
+			tmpGroup.clear();
+		}
+	}
+
+	private void commitGroup(List<ModelQueuedWrite> theGroup) {
+		synchronized (this.meConn) {
+			try {
+				boolean tmpAutoCommit = this.meConn.getAutoCommit();
+				this.meConn.setAutoCommit(false);
+				try {
+					for (ModelQueuedWrite write : theGroup) {
+						Savepoint tmpSave = this.meConn.setSavepoint();
+						long tmpPrevTrace = TraceContext.enter(write.meTraceId);
+						try {
+							write.meEcho = write.meWork.execute();
+						} catch (SQLException | RuntimeException e) {
+							this.meConn.rollback(tmpSave); // Only this write is undone
+							write.meError = e;
+						} finally {
+							TraceContext.exit(tmpPrevTrace);
+						}
+						this.meConn.releaseSavepoint(tmpSave);
+					}
+					this.meConn.commit();
+				} catch (SQLException e) {
+					this.meConn.rollback();
+					throw e;
+				} finally {
+					this.meConn.setAutoCommit(tmpAutoCommit);
+				}
+			} catch (SQLException e) { // The whole transaction failed
+				theGroup.stream().filter(write -> write.meError == null).forEach(write -> write.meError = e);
+			}
+			for (ModelQueuedWrite write : theGroup) { // Applied in the order committed (before the other writers of the connection commit)
+				if (write.meError == null) {
+					try {
+						write.meOnCommit.run();
+					} catch (RuntimeException e) { // Committed, but not applied
+						write.meError = e;
+					}
+				}
+			}
+		}
+		for (ModelQueuedWrite write : theGroup) { // (The futures' dependent actions do not hold the connection's monitor)
+			try {
+				if (write.meError == null) {
+					write.meFuture.complete(write.meEcho);
+				} else {
+					write.meFuture.completeExceptionally(write.meError);
+				}
+			} catch (RuntimeException e) {
+				write.meFuture.completeExceptionally(e);
+			}
+		}
+	}
+}
@@ -3,7 +3,10 @@
  */
 module homeShowRipOrganizer {
 	requires java.sql;
+	requires java.management;
+	requires jdk.jfr;
 	requires javafx.graphics;
 	requires javafx.controls;
 	opens loader to javafx.graphics;
+	exports model to java.management; // For the metrics MXBean (see 'ModelMetricsMXBean')
 }
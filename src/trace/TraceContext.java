@@ -0,0 +1,91 @@
+package trace;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A class that holds the correlation ID of the trace (a search or an edit, followed from the view through the controller
+ * and the DAO back to the view) that the current thread works for, so the flight recorder events of all the layers can be
+ * joined into its critical path. The work handed to another thread carries the ID along (see 'supplier' and 'consumer').
+ * @author Janty Azmat
+ */
+public class TraceContext {
+	// Fields
+	private static final AtomicLong me_LAST_ID = new AtomicLong();
+	private static final ThreadLocal<long[]> me_CURRENT = ThreadLocal.withInitial(() -> new long[1]); // (A holder, so switching allocates nothing)
+
+	private TraceContext() {}
+
+	/**
+	 * Used to get a new (unique) correlation ID.
+	 * @return	the new ID
+	 */
+	public static long newId() {
+		return me_LAST_ID.incrementAndGet();
+	}
+
+	/**
+	 * Used to get the correlation ID of the trace the current thread works for.
+	 * @return	the ID (or 0 if none)
+	 */
+	public static long getCurrentId() {
+		return me_CURRENT.get()[0];
+	}
+
+	/**
+	 * Makes the current thread work for the specified trace (until 'exit').
+	 * @param traceId	the correlation ID of the trace
+	 * @return			the ID that the thread worked for before (to be given to 'exit')
+	 */
+	public static long enter(long traceId) {
+		long[] tmpHolder = me_CURRENT.get();
+		long outPrevious = tmpHolder[0];
+		tmpHolder[0] = traceId;
+		return outPrevious;
+	}
+
+	/**
+	 * Makes the current thread work again for the trace it worked for before 'enter'.
+	 * @param previousId	the ID returned by 'enter'
+	 */
+	public static void exit(long previousId) {
+		me_CURRENT.get()[0] = previousId;
+	}
+
+	/**
+	 * Wraps a supplier so that it works for the specified trace on whichever thread it runs.
+	 * @param <T>			the type of the supplied results
+	 * @param traceId		the correlation ID of the trace
+	 * @param theSupplier	the supplier to wrap
+	 * @return				the wrapping supplier
+	 */
+	public static <T> Supplier<T> supplier(long traceId, Supplier<T> theSupplier) {
+		return () -> {
+			long tmpPrevious = enter(traceId);
+			try {
+				return theSupplier.get();
+			} finally {
+				exit(tmpPrevious);
+			}
+		};
+	}
+
+	/**
+	 * Wraps a consumer so that it works for the specified trace on whichever thread it runs.
+	 * @param <T>			the type of the consumed values
+	 * @param traceId		the correlation ID of the trace
+	 * @param theConsumer	the consumer to wrap
+	 * @return				the wrapping consumer
+	 */
+	public static <T> Consumer<T> consumer(long traceId, Consumer<T> theConsumer) {
+		return value -> {
+			long tmpPrevious = enter(traceId);
+			try {
+				theConsumer.accept(value);
+			} finally {
+				exit(tmpPrevious);
+			}
+		};
+	}
+}
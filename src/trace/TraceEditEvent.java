@@ -0,0 +1,32 @@
+package trace;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A class that represents the handling of an edited value in the view (including the search-as-you-type it schedules).
+ * Every edit starts a trace.
+ * @author Janty Azmat
+ */
+@Name("homeShowRipOrganizer.Edit")
+@Label("Edit")
+public class TraceEditEvent extends TraceEvent {
+	// Fields
+	@Label("Column")
+	String column;
+
+	/**
+	 * Constructor (begins the event).
+	 * @param theColumn	the name of the column whose value was edited
+	 */
+	public TraceEditEvent(String theColumn) {
+		this.column = theColumn;
+	}
+
+	/**
+	 * Commits the event (if enabled) as successful.
+	 */
+	public void finish() {
+		this.endWith("ok");
+	}
+}
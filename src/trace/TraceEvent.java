@@ -0,0 +1,60 @@
+package trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * A class that represents the common part of the flight recorder events of the application: the correlation ID of the
+ * trace they were recorded for (taken from 'TraceContext' when created) and how the traced work ended. Every event is
+ * begun when created, committed once when it ends (finished, cancelled or closed unfinished), and only costs a check of
+ * whether it is enabled when no recording is running. The field names are the recorded names.
+ * @author Janty Azmat
+ */
+@Category("HomeShowRipOrganizer")
+@StackTrace(false)
+public abstract class TraceEvent extends Event implements AutoCloseable {
+	// Fields
+	@Label("Trace ID")
+	@Description("The correlation ID of the search or edit that the event was recorded for (0 if none)")
+	long traceId;
+	@Label("Outcome")
+	@Description("'ok', 'failed' (ended by an error) or 'cancelled' (superseded or interrupted before it finished)")
+	String outcome;
+	private transient boolean meIsEnded; // (Not recorded)
+
+	TraceEvent() {
+		this.traceId = TraceContext.getCurrentId();
+		this.begin();
+	}
+
+	/**
+	 * Commits the event (if enabled) as cancelled, unless it has already ended.
+	 */
+	public void cancel() {
+		this.endWith("cancelled");
+	}
+
+	/**
+	 * Commits the event (if enabled) as failed, unless it has already ended (finished or cancelled). Called in a 'finally'
+	 * block, so the work that ends with an exception is recorded too.
+	 */
+	@Override
+	public void close() {
+		this.endWith("failed");
+	}
+
+	/**
+	 * Commits the event (if enabled) with the specified outcome, unless it has already ended.
+	 * @param theOutcome	the outcome ('ok', 'failed' or 'cancelled')
+	 */
+	synchronized void endWith(String theOutcome) { // (Can end on another thread than the one that began it)
+		if (!this.meIsEnded) {
+			this.meIsEnded = true;
+			this.outcome = theOutcome;
+			this.commit();
+		}
+	}
+}
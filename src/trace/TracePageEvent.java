@@ -0,0 +1,36 @@
+package trace;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A class that represents the loading of a page of search results, including the mapping of its rows (for the view).
+ * Pages loaded while scrolling are recorded for the trace of the search that found them.
+ * @author Janty Azmat
+ */
+@Name("homeShowRipOrganizer.Page")
+@Label("Page")
+public class TracePageEvent extends TraceEvent {
+	// Fields
+	@Label("Offset")
+	int offset;
+	@Label("Rows")
+	int rowCount;
+
+	/**
+	 * Constructor (begins the event).
+	 * @param theOffset	the index of the first row of the page
+	 */
+	public TracePageEvent(int theOffset) {
+		this.offset = theOffset;
+	}
+
+	/**
+	 * Commits the event (if enabled) as successful.
+	 * @param rowCount	the number of rows loaded
+	 */
+	public void finish(int rowCount) {
+		this.rowCount = rowCount;
+		this.endWith("ok");
+	}
+}
@@ -0,0 +1,35 @@
+package trace;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A class that represents a conversion of view data to model data in the controller (like the search criteria).
+ * @author Janty Azmat
+ */
+@Name("homeShowRipOrganizer.Parse")
+@Label("Parse")
+public class TraceParseEvent extends TraceEvent {
+	// Fields
+	@Label("Conversion")
+	String conversion;
+	@Label("Cells")
+	int cellCount;
+
+	/**
+	 * Constructor (begins the event).
+	 * @param theConversion	the name of the conversion (the controller method)
+	 */
+	public TraceParseEvent(String theConversion) {
+		this.conversion = theConversion;
+	}
+
+	/**
+	 * Commits the event (if enabled) as successful.
+	 * @param cellCount	the number of cells converted
+	 */
+	public void finish(int cellCount) {
+		this.cellCount = cellCount;
+		this.endWith("ok");
+	}
+}
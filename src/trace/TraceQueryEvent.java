@@ -0,0 +1,38 @@
+package trace;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A class that represents the execution of a statement by the DAO, from binding its parameters to reading its results.
+ * @author Janty Azmat
+ */
+@Name("homeShowRipOrganizer.Query")
+@Label("Query")
+public class TraceQueryEvent extends TraceEvent {
+	// Fields
+	@Label("SQL")
+	@Description("The SQL text of the statement (before filling in the parameter data)")
+	String sql;
+	@Label("Rows")
+	@Description("The number of rows read (0 for the writes)")
+	int rowCount;
+
+	/**
+	 * Constructor (begins the event).
+	 * @param theSql	the SQL text of the statement
+	 */
+	public TraceQueryEvent(String theSql) {
+		this.sql = theSql;
+	}
+
+	/**
+	 * Commits the event (if enabled) as successful.
+	 * @param rowCount	the number of rows read
+	 */
+	public void finish(int rowCount) {
+		this.rowCount = rowCount;
+		this.endWith("ok");
+	}
+}
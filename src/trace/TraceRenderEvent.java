@@ -0,0 +1,30 @@
+package trace;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A class that represents the building of a results table in the view.
+ * @author Janty Azmat
+ */
+@Name("homeShowRipOrganizer.Render")
+@Label("Render")
+public class TraceRenderEvent extends TraceEvent {
+	// Fields
+	@Label("Rows")
+	int rowCount;
+
+	/**
+	 * Constructor (begins the event).
+	 */
+	public TraceRenderEvent() {}
+
+	/**
+	 * Commits the event (if enabled) as successful.
+	 * @param rowCount	the number of rows in the table
+	 */
+	public void finish(int rowCount) {
+		this.rowCount = rowCount;
+		this.endWith("ok");
+	}
+}
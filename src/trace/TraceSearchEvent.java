@@ -0,0 +1,38 @@
+package trace;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A class that represents a whole search, from the request in the view (the keystroke or the button) to the results
+ * table being built, across the threads it runs on. The other events of its trace are the stages of its critical path.
+ * @author Janty Azmat
+ */
+@Name("homeShowRipOrganizer.Search")
+@Label("Search")
+public class TraceSearchEvent extends TraceEvent {
+	// Fields
+	@Label("Kind")
+	@Description("'suggestions' (search-as-you-type), 'quick' or 'criteria'")
+	String kind;
+	@Label("Rows")
+	int rowCount;
+
+	/**
+	 * Constructor (begins the event).
+	 * @param theKind	the kind of search ('suggestions', 'quick' or 'criteria')
+	 */
+	public TraceSearchEvent(String theKind) {
+		this.kind = theKind;
+	}
+
+	/**
+	 * Commits the event (if enabled) as successful.
+	 * @param rowCount	the number of result rows
+	 */
+	public void finish(int rowCount) {
+		this.rowCount = rowCount;
+		this.endWith("ok");
+	}
+}
@@ -23,6 +23,12 @@ public interface IViewObserver {
 	 */
 	void searchPageRequested(boolean isQuick);
 
+	/**
+	 * Triggered when scanning a rip library folder (to insert the shows found in it) is requested.
+	 * @param rootFolder	the root folder of the rip library
+	 */
+	void scanLibraryRequested(String rootFolder);
+
 	/**
 	 * Triggered when the exiting of application is requested.
 	 */
@@ -51,7 +57,22 @@ public interface IViewObserver {
 	 * Triggered when searching for data is requested.
 	 * @param searchCriteria	the list of data cells that contains the search criteria
 	 * @param prepState			(optional) the prepared statement to be used to retrieve data, or null (or empty string) to auto-build statement
-	 * @return
+	 * @param onRowsLoaded		called (from another thread) when result rows that were got as null (not loaded yet) are loaded
+	 * @return					the result rows (loaded when first got; the rows not loaded yet are got as null)
+	 */
+	List<ViewDataRow> searchDataRequested(List<ViewDataCell<?>> searchCriteria, String prepState, Runnable onRowsLoaded);
+
+	/**
+	 * Triggered when suggestions for the data being typed (search-as-you-type) are requested.
+	 * @param searchCriteria	the list of (non-empty) data cells typed so far
+	 * @param searchNo			the number of the search (to cancel it by)
+	 * @return					the suggested data rows
+	 */
+	List<ViewDataRow> suggestionsRequested(List<ViewDataCell<?>> searchCriteria, long searchNo);
+
+	/**
+	 * Triggered when a suggestions search, that may be currently running (from another thread), is no longer needed.
+	 * @param searchNo	the number of the search (nothing is cancelled if it is not running)
 	 */
-	List<ViewDataRow> searchDataRequested(List<ViewDataCell<?>> searchCriteria, String prepState);
+	void searchCancelRequested(long searchNo);
 }
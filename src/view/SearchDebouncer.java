@@ -0,0 +1,98 @@
+package view;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import javafx.application.Platform;
+
+/**
+ * A class that runs the search-as-you-type requests away from the JavaFX application thread. Requests coming from
+ * the same source (row) are debounced, and any search that gets superseded by a newer one from the same source is
+ * dropped (and cancelled if it is already running); the searches of other sources are not affected. Every search is
+ * given its number (generation), which is what cancels it, so cancelling one never reaches the search that runs after it.
+ * @author Janty Azmat
+ */
+class SearchDebouncer {
+	// Fields
+	private static final long me_DELAY_MILLIS = 250L; // How long to wait for typing to settle before searching
+	private ScheduledExecutorService meExec;
+	private Map<Object, ScheduledFuture<?>> mePending; // Only accessed from the JavaFX application thread
+	private AtomicLong meGenerations; // Numbers the submitted searches (so a generation is never reused)
+	private Map<Object, Long> meLatest; // The generation of the latest search of every source (older generations of the source are superseded)
+	private LongConsumer meCanceller;
+
+	/**
+	 * Constructor.
+	 * @param runningSearchCanceller	called (on the JavaFX application thread) with the generation of a superseded search, to
+	 * 									cancel it if it is running (and to do nothing otherwise)
+	 */
+	public SearchDebouncer(LongConsumer runningSearchCanceller) {
+		this.meCanceller = runningSearchCanceller;
+		this.mePending = new HashMap<>();
+		this.meGenerations = new AtomicLong();
+		this.meLatest = new ConcurrentHashMap<>(); // (Also read by the search thread)
+		this.meExec = Executors.newSingleThreadScheduledExecutor(run -> {
+			Thread outThread = new Thread(run, "search-as-you-type");
+			outThread.setDaemon(true); // Do not keep the application alive
+			return outThread;
+		});
+	}
+
+	/**
+	 * Schedules a search for the specified source, superseding any earlier search of the source. Must be called on the JavaFX
+	 * application thread.
+	 * @param theSource		the source (row) that requested the search; used to debounce its requests
+	 * @param theSearch		the search to run (on the search thread), given its generation (what the canceller is called with)
+	 * @param onResults		receives the search results (on the JavaFX application thread) unless superseded meanwhile
+	 */
+	public void submit(Object theSource, LongFunction<List<ViewDataRow>> theSearch, Consumer<List<ViewDataRow>> onResults) {
+		long tmpGen = this.meGenerations.incrementAndGet();
+		this.supersede(theSource, this.meLatest.put(theSource, tmpGen));
+		this.mePending.put(theSource, this.meExec.schedule(() -> {
+			if (!Long.valueOf(tmpGen).equals(this.meLatest.get(theSource))) {
+				return;
+			}
+			List<ViewDataRow> tmpRes = theSearch.apply(tmpGen);
+			Platform.runLater(() -> {
+				if (this.meLatest.remove(theSource, tmpGen)) { // Still the latest of the source
+					this.mePending.remove(theSource);
+					onResults.accept(tmpRes);
+				}
+			});
+		}, me_DELAY_MILLIS, TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * Drops any pending or running search without starting a new one. Must be called on the JavaFX application thread.
+	 * @param theSource	the source (row) whose pending search to drop
+	 */
+	public void cancel(Object theSource) {
+		this.supersede(theSource, this.meLatest.remove(theSource));
+	}
+
+	/**
+	 * Stops the search thread.
+	 */
+	public void shutdown() {
+		this.meExec.shutdownNow();
+	}
+
+	private void supersede(Object theSource, Long oldGeneration) {
+		ScheduledFuture<?> tmpOld = this.mePending.remove(theSource);
+		if (tmpOld != null) {
+			tmpOld.cancel(false);
+		}
+		if (oldGeneration != null) { // The earlier search of the source (if running, only it is cancelled)
+			this.meCanceller.accept(oldGeneration);
+		}
+	}
+}
@@ -1,5 +1,9 @@
 package view;
 
+import java.util.Objects;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+
 /**
  * @author Janty Azmat
  */
@@ -11,6 +15,7 @@ public class ViewDataCell<X> {
 	private Class<X> meClass;
 	private boolean meIsKey;
 	private boolean meIsSearchOnEdit;
+	private ReadOnlyObjectWrapper<X> meValProp; // Created when first requested (by the table column that shows the cell)
 
 	public ViewDataCell(String columnName, String tableName, X theValue, Class<X> theClass, boolean isKey, boolean isSearchOnEdit) {
 		if (theValue != null && !theClass.isInstance(theValue)) {
@@ -46,6 +51,20 @@ public class ViewDataCell<X> {
 			throw new RuntimeException("The passed object should be an instance of the class of this cell.");
 		}
 		this.meVal = (X)newVal;
+		if (this.meValProp != null) {
+			this.meValProp.set(this.meVal);
+		}
+	}
+
+	/**
+	 * Used to get a read-only property of the value of this cell (the same property every time).
+	 * @return	the value property
+	 */
+	public ReadOnlyObjectProperty<X> valueProperty() {
+		if (this.meValProp == null) {
+			this.meValProp = new ReadOnlyObjectWrapper<>(this, "value", this.meVal);
+		}
+		return this.meValProp.getReadOnlyProperty();
 	}
 
 	public Class<X> getValueClass() {
@@ -70,7 +89,7 @@ public class ViewDataCell<X> {
 			@SuppressWarnings("unchecked")
 			ViewDataCell<X> tmpOther = (ViewDataCell<X>)obj;
 //			if (this.meVal.getValue().equals(tmpOther.meVal.getValue()) && this.meColumn.equals(tmpOther.meColumn) && this.meTable.equals(tmpOther.meTable)) {
-			if (this.meVal.equals(tmpOther.meVal) && this.meColumn.equals(tmpOther.meColumn) && this.meTable.equals(tmpOther.meTable)) {
+			if (Objects.equals(this.meVal, tmpOther.meVal) && this.meColumn.equals(tmpOther.meColumn) && this.meTable.equals(tmpOther.meTable)) {
 				return true;
 			}
 		}
@@ -79,7 +98,7 @@ public class ViewDataCell<X> {
 
 	@Override
 	public int hashCode() {
-		return this.meVal == null ? 0 : this.meVal.hashCode();
+		return 31 * this.meColumn.hashCode() + Objects.hashCode(this.meVal); // (Consistent with 'equals')
 	}
 
 	@Override
@@ -1,8 +1,12 @@
 package view;
 
-import java.util.LinkedList;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -12,12 +16,13 @@ public class ViewDataRow {
 	// Fields
 	private String meTable;
 	private String mePrepStat;
+	private Supplier<String> mePrepStatGetter; // Renders the statement when first requested (for lightweight rows)
 	private List<ViewDataCell<?>> meCells;
 
 	public ViewDataRow(String tableName, String prepStatement) {
 		this.meTable = tableName;
 		this.mePrepStat = prepStatement;
-		this.meCells = new LinkedList<ViewDataCell<? extends Object>>();
+		this.meCells = new ArrayList<ViewDataCell<? extends Object>>(); // (Random access, as the table columns read the cells by index)
 	}
 
 	public ViewDataRow(String theTable, String prepStatement, List<ViewDataCell<?>> theCells) {
@@ -25,8 +30,30 @@ public class ViewDataRow {
 		this.meCells.addAll(theCells);
 	}
 
+	public ViewDataRow(String theTable, Supplier<String> prepStatement, int cellCount, IntFunction<ViewDataCell<?>> cellGetter) { // A lightweight (read-only) row whose cells (and statement) are created when first accessed
+		this.meTable = theTable;
+		this.mePrepStatGetter = prepStatement;
+		this.meCells = new AbstractList<ViewDataCell<?>>() {
+			private ViewDataCell<?>[] meCreated = new ViewDataCell<?>[cellCount]; // Kept, so a shown cell keeps its value property
+
+			@Override
+			public ViewDataCell<?> get(int index) {
+				Objects.checkIndex(index, cellCount);
+				if (this.meCreated[index] == null) {
+					this.meCreated[index] = cellGetter.apply(index);
+				}
+				return this.meCreated[index];
+			}
+
+			@Override
+			public int size() {
+				return cellCount;
+			}
+		};
+	}
+
 	public ViewDataRow(ViewDataRow origRow) { // Copy Constructor
-		this(origRow.meTable, origRow.mePrepStat);
+		this(origRow.meTable, origRow.getPreparedStatement());
 		this.meCells = origRow.meCells.stream().map(cell -> new ViewDataCell<>(cell)).collect(Collectors.toList());
 	}
 
@@ -39,6 +66,9 @@ public class ViewDataRow {
 	}
 
 	public String getPreparedStatement() {
+		if (this.mePrepStat == null && this.mePrepStatGetter != null) {
+			this.mePrepStat = this.mePrepStatGetter.get();
+		}
 		return this.mePrepStat;
 	}
 
@@ -66,9 +96,9 @@ public class ViewDataRow {
 		if (this.meCells.isEmpty()) {
 			return 0;
 		}
-		int outHash = this.meCells.get(0).hashCode();
-		for (int i = 1; i < this.meCells.size(); i++) {
-			outHash ^= this.meCells.get(i).hashCode();
+		int outHash = 1;
+		for (ViewDataCell<?> cell : this.meCells) { // Ordered (so swapped or repeated values do not cancel out)
+			outHash = 31 * outHash + cell.hashCode();
 		}
 		return outHash;
 	}
@@ -5,6 +5,8 @@ package view;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import trace.TraceContext;
+import trace.TraceEditEvent;
 import view.ViewHomeShowRip.ViewPersonnelRole;
 import javafx.beans.InvalidationListener;
 import javafx.beans.property.ObjectProperty;
@@ -229,14 +231,22 @@ class ViewEditableDataCell<X> extends VBox {
 	}
 
 	private void handleValueChanged(ObservableValue<? extends Object> theObs, Object oldVal, Object newVal) {
-		this.meOrigCell.setValue(newVal);
-		if (this.meCtrl.isFocused() && this.meOrigCell.isSearchOnEdit()) {
-			this.meEditListeners.forEach(lsn -> lsn.changed(theObs, oldVal, newVal));
-		}
-		if (newVal == null || (String.class == this.meOrigCell.getValueClass() && ((String)newVal).isEmpty()) ||
-				(Integer.class == this.meOrigCell.getValueClass() && (Integer)newVal < 0) ||
-				(ViewPersonnelRole.class == this.meOrigCell.getValueClass() && (ViewPersonnelRole)newVal == ViewPersonnelRole.NONE)) {
-			this.meClearListeners.forEach(lsn -> lsn.invalidated(theObs));
+		long tmpPrevTrace = TraceContext.enter(TraceContext.newId()); // Every edit starts a trace (carried on by the search it schedules)
+		TraceEditEvent tmpTrace = new TraceEditEvent(this.meOrigCell.getColumnName());
+		try {
+			this.meOrigCell.setValue(newVal);
+			if (this.meCtrl.isFocused() && this.meOrigCell.isSearchOnEdit()) {
+				this.meEditListeners.forEach(lsn -> lsn.changed(theObs, oldVal, newVal));
+			}
+			if (newVal == null || (String.class == this.meOrigCell.getValueClass() && ((String)newVal).isEmpty()) ||
+					(Integer.class == this.meOrigCell.getValueClass() && (Integer)newVal < 0) ||
+					(ViewPersonnelRole.class == this.meOrigCell.getValueClass() && (ViewPersonnelRole)newVal == ViewPersonnelRole.NONE)) {
+				this.meClearListeners.forEach(lsn -> lsn.invalidated(theObs));
+			}
+			tmpTrace.finish();
+		} finally {
+			tmpTrace.close();
+			TraceContext.exit(tmpPrevTrace);
 		}
 	}
 
@@ -1,11 +1,17 @@
 package view;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import trace.TraceContext;
+import trace.TraceSearchEvent;
 import view.ViewEditableDataRow.ViewEdRowStruct;
+import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ObservableValue;
@@ -31,6 +37,7 @@ import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.Modality;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
@@ -94,6 +101,8 @@ public class ViewHomeShowRip extends BorderPane {
 	private Label meBot;
 	private ImageView meImage;
 	private FloatingWindow meFlWin;
+	private SearchDebouncer meSearcher;
+	private Map<ViewEditableDataRow, TraceSearchEvent> meSuggestionTraces; // The trace events of the latest suggestion searches (by row)
 
 	public ViewHomeShowRip(Stage theStage) {
 		theStage.setTitle(me_TITLE);
@@ -102,9 +111,14 @@ public class ViewHomeShowRip extends BorderPane {
 		theStage.setMinHeight(me_MIN_STAGE_HEIGHT);
 		theStage.setWidth(me_STAGE_WIDTH);
 		theStage.setHeight(me_STAGE_HEIGHT);
-		theStage.setOnCloseRequest(winev -> this.meObserver.exitRequested()); // On the event of close is requested
+		theStage.setOnCloseRequest(winev -> { // On the event of close is requested
+			this.meSearcher.shutdown();
+			this.meObserver.exitRequested();
+		});
 		theStage.centerOnScreen();
 		this.meFlWin = new FloatingWindow();
+		this.meSearcher = new SearchDebouncer(searchNo -> this.meObserver.searchCancelRequested(searchNo));
+		this.meSuggestionTraces = new HashMap<>();
 		this.meMid = new ScrollPane();
 		ScrollPane tmpTop = new ScrollPane();
 		ScrollPane tmpBot = new ScrollPane();
@@ -174,6 +188,10 @@ public class ViewHomeShowRip extends BorderPane {
 	}
 
 	private void displayMessage(String theMsg, String theTitle, AlertType theType) {
+		if (!Platform.isFxApplicationThread()) { // Messages can be requested from the search thread too
+			Platform.runLater(() -> this.displayMessage(theMsg, theTitle, theType));
+			return;
+		}
 		Alert tmpAlert = new Alert(theType);
 		((Label)tmpAlert.getDialogPane().getChildren().get(1)).setMinWidth(600.0);
 		String tmpStyle = "-fx-font-size: 16px; -fx-font-weight: bold;";
@@ -203,11 +221,20 @@ public class ViewHomeShowRip extends BorderPane {
 		Button tmpInsBut = new Button("Insert/Update/Delete Data");	//
 		Button tmpMixSrchBut = new Button("Mixed Criteria Search");	// Buttons for the main page
 		Button tmpQuickSrchBut = new Button("Quick Search");		//
+		Button tmpScanBut = new Button("Scan Rip Library");			//
 		tmpInsBut.setOnAction(ev -> this.meObserver.inserPageRequested());				//
 		tmpMixSrchBut.setOnAction(ev -> this.meObserver.searchPageRequested(false));	// Assigning actions to buttons
 		tmpQuickSrchBut.setOnAction(ev -> this.meObserver.searchPageRequested(true));	//
+		tmpScanBut.setOnAction(ev -> {													//
+			DirectoryChooser tmpChooser = new DirectoryChooser();
+			tmpChooser.setTitle("Select Rip Library Folder");
+			File tmpRoot = tmpChooser.showDialog(this.getScene().getWindow());
+			if (tmpRoot != null) {
+				this.meObserver.scanLibraryRequested(tmpRoot.getAbsolutePath());
+			}
+		});
 		this.meBot.setText("Welcome to " + me_TITLE + ". Please select your choice.");
-		this.meTop.getChildren().addAll(tmpInsBut, tmpMixSrchBut, tmpQuickSrchBut); // Add buttons to top pane
+		this.meTop.getChildren().addAll(tmpInsBut, tmpMixSrchBut, tmpQuickSrchBut, tmpScanBut); // Add buttons to top pane
 		this.setCenter(this.meImage); // Put image in main page center
 	}
 
@@ -315,7 +342,6 @@ public class ViewHomeShowRip extends BorderPane {
 	private void handleSearchListener(ObservableValue<? extends Object> theObs, Object oldVal, Object newVal) {
 		Node tmpNode = (Node)((ReadOnlyProperty<? extends Object>)theObs).getBean(); // For the control that triggered the edit change
 		ViewEditableDataRow tmpEditedRow = (ViewEditableDataRow)tmpNode.getParent().getParent();
-		List<ViewDataRow> tmpSearch = Collections.emptyList(); // To store search results
 		List<ViewDataCell<?>> tmpCrit = tmpEditedRow.getCells().stream().filter(cell -> { // Extract the search criteria
 			if (cell.isSearchOnEdit()) {
 				if (String.class == cell.getValueClass()) {
@@ -329,26 +355,50 @@ public class ViewHomeShowRip extends BorderPane {
 				}
 			}
 			return false;
-		}).map(ViewEditableDataCell::getOriginalCell).collect(Collectors.toList());
-		if (!tmpCrit.isEmpty()) {
-			tmpSearch = this.meObserver.searchDataRequested(tmpCrit, null);//.stream().map(ViewEditableDataRow::new).collect(Collectors.toList());
+		}).map(cell -> new ViewDataCell<>(cell.getOriginalCell())).collect(Collectors.toList()); // Copied since typing keeps changing the original cells
+		TraceSearchEvent tmpOldTrace;
+		if (tmpCrit.isEmpty()) {
+			this.meSearcher.cancel(tmpEditedRow);
+			tmpOldTrace = this.meSuggestionTraces.remove(tmpEditedRow);
+			this.displaySearchPopup(tmpNode, tmpEditedRow, Collections.emptyList());
+		} else { // The search runs on the search thread and its results are shown on this thread, both for the trace of the edit
+			long tmpTraceId = TraceContext.getCurrentId();
+			TraceSearchEvent tmpTrace = new TraceSearchEvent("suggestions");
+			tmpOldTrace = this.meSuggestionTraces.put(tmpEditedRow, tmpTrace);
+			this.meSearcher.submit(tmpEditedRow, searchNo -> TraceContext.supplier(tmpTraceId, () -> {
+				try {
+					return this.meObserver.suggestionsRequested(tmpCrit, searchNo);
+				} catch (RuntimeException e) {
+					tmpTrace.close(); // Ends as failed (the results never come)
+					throw e;
+				}
+			}).get(), TraceContext.consumer(tmpTraceId, res -> {
+				this.displaySearchPopup(tmpNode, tmpEditedRow, res);
+				tmpTrace.finish(res.size());
+			}));
+		}
+		if (tmpOldTrace != null) { // The earlier search of the row is superseded (if it has not finished)
+			tmpOldTrace.cancel();
 		}
-		this.meFlWin.setContent(new ViewTablePane(tmpSearch, ev -> {
+	}
+
+	private void displaySearchPopup(Node editedNode, ViewEditableDataRow editedRow, List<ViewDataRow> theResults) {
+		this.meFlWin.setContent(new ViewTablePane(theResults, ev -> {
 			ViewDataRow tmpDblClickRow = (ViewDataRow)((TableRow<?>)ev.getSource()).getItem();
-			List<ViewEditableDataCell<?>> tmpFilteredEditedRow = tmpEditedRow.getCells().stream().filter(cell -> cell.isSearchOnEdit()).collect(Collectors.toList());
+			List<ViewEditableDataCell<?>> tmpFilteredEditedRow = editedRow.getCells().stream().filter(cell -> cell.isSearchOnEdit()).collect(Collectors.toList());
 			for (int i = 0; i < tmpFilteredEditedRow.size(); i++) {
 				tmpFilteredEditedRow.get(i).setValue(tmpDblClickRow.getCells().get(i).getValue());
 				this.meFlWin.hide();
 				this.meFlWin.clearContent();
 			}
-			tmpEditedRow.anchorCurrentState();
+			editedRow.anchorCurrentState();
 		}, null, null));
 		if (!this.meFlWin.isShown()) {
 			double tmpScrCen = Screen.getScreensForRectangle( // To get the height center of active screen
 					this.getScene().getWindow().getX(), this.getScene().getWindow().getY(),
 					this.getScene().getWindow().getWidth(), this.getScene().getWindow().getHeight()
 			).get(0).getBounds().getHeight() / 2.0;
-			double tmpPntAtY = tmpNode.localToScreen(tmpNode.getBoundsInLocal()).getMinY();
+			double tmpPntAtY = editedNode.localToScreen(editedNode.getBoundsInLocal()).getMinY();
 			double tmpShift;
 			Side tmpDir;
 			if (tmpPntAtY > tmpScrCen) {
@@ -358,77 +408,116 @@ public class ViewHomeShowRip extends BorderPane {
 				tmpShift = 15.0;
 				tmpDir = Side.BOTTOM;
 			}
-			this.meFlWin.showAt(tmpNode, this.getWidth() - 10.0, 400.0, tmpNode.getParent().getParent(), tmpShift, tmpShift, tmpNode, tmpDir);
+			this.meFlWin.showAt(editedNode, this.getWidth() - 10.0, 400.0, editedNode.getParent().getParent(), tmpShift, tmpShift, editedNode, tmpDir);
 		}
 	}
 
 	private void handleOnInsertAction(ActionEvent theEvent) {
-		ViewEditableDataRow tmpRow = ((ViewEditableDataRow)theEvent.getSource());
-		this.meObserver.insertDataRequested(tmpRow.getOriginalRow());
-		tmpRow.clearRow();
+		long tmpPrevTrace = TraceContext.enter(TraceContext.newId());
+		try {
+			ViewEditableDataRow tmpRow = ((ViewEditableDataRow)theEvent.getSource());
+			this.meObserver.insertDataRequested(tmpRow.getOriginalRow());
+			tmpRow.clearRow();
+		} finally {
+			TraceContext.exit(tmpPrevTrace);
+		}
 	}
 
 	private void handleOnDeleteAction(ActionEvent theEvent) {
-		ViewEditableDataRow tmpRow = ((ViewEditableDataRow)theEvent.getSource());
-		this.meObserver.deleteDataRequested(tmpRow.getAnchoredState());
-		tmpRow.clearRow();
+		long tmpPrevTrace = TraceContext.enter(TraceContext.newId());
+		try {
+			ViewEditableDataRow tmpRow = ((ViewEditableDataRow)theEvent.getSource());
+			this.meObserver.deleteDataRequested(tmpRow.getAnchoredState());
+			tmpRow.clearRow();
+		} finally {
+			TraceContext.exit(tmpPrevTrace);
+		}
 	}
 
 	private void handleOnUpdateAction(ActionEvent theEvent) {
-		ViewEditableDataRow tmpRow = ((ViewEditableDataRow)theEvent.getSource());
-		this.meObserver.updateDataRequested(tmpRow.getAnchoredState(), tmpRow.getOriginalRow());
-		tmpRow.clearRow();
+		long tmpPrevTrace = TraceContext.enter(TraceContext.newId());
+		try {
+			ViewEditableDataRow tmpRow = ((ViewEditableDataRow)theEvent.getSource());
+			this.meObserver.updateDataRequested(tmpRow.getAnchoredState(), tmpRow.getOriginalRow());
+			tmpRow.clearRow();
+		} finally {
+			TraceContext.exit(tmpPrevTrace);
+		}
 	}
 
 	private void handleOnCriteriaSearcAction(ActionEvent theEvent) {
-		List<ViewDataCell<?>> tmpCrit = new LinkedList<>(); // To hold the search criteria
-		List<ViewDataRow> tmpSearch = Collections.emptyList(); // To store search results
-		this.setBottom(null);
-		((VBox)this.meMid.getContent()).getChildren().forEach(row -> {
-			((ViewEditableDataRow)row).getCells().forEach(eCell -> {
-				if (eCell.isSelected()) {
-					tmpCrit.add(eCell.getOriginalCell());
-				}
+		long tmpPrevTrace = TraceContext.enter(TraceContext.newId());
+		TraceSearchEvent tmpTrace = new TraceSearchEvent("criteria");
+		try {
+			List<ViewDataCell<?>> tmpCrit = new LinkedList<>(); // To hold the search criteria
+			List<ViewDataRow> tmpSearch = Collections.emptyList(); // To store search results
+			this.setBottom(null);
+			((VBox)this.meMid.getContent()).getChildren().forEach(row -> {
+				((ViewEditableDataRow)row).getCells().forEach(eCell -> {
+					if (eCell.isSelected()) {
+						tmpCrit.add(eCell.getOriginalCell());
+					}
+				});
 			});
-		});
-		if (!tmpCrit.isEmpty()) {
-			tmpSearch = this.meObserver.searchDataRequested(tmpCrit, null);
-		}
-		if (this.getCenter() instanceof SplitPane) {
-			((SplitPane)this.getCenter()).getItems().set(1, new ViewTablePane(tmpSearch, null, null, null));
-		} else {
-			SplitPane.setResizableWithParent(this.getCenter(), false);
-			SplitPane tmpSpl = new SplitPane(this.getCenter(), new ViewTablePane(tmpSearch, null, null, null));
-			tmpSpl.setOrientation(Orientation.VERTICAL);
-			this.setCenter(tmpSpl);
+			if (!tmpCrit.isEmpty()) {
+				tmpSearch = this.meObserver.searchDataRequested(tmpCrit, null, () -> Platform.runLater(this::refreshSearchResults));
+			}
+			if (this.getCenter() instanceof SplitPane) {
+				((SplitPane)this.getCenter()).getItems().set(1, new ViewTablePane(tmpSearch, null, null, null));
+			} else {
+				SplitPane.setResizableWithParent(this.getCenter(), false);
+				SplitPane tmpSpl = new SplitPane(this.getCenter(), new ViewTablePane(tmpSearch, null, null, null));
+				tmpSpl.setOrientation(Orientation.VERTICAL);
+				this.setCenter(tmpSpl);
+			}
+			tmpTrace.finish(tmpSearch.size());
+		} finally {
+			tmpTrace.close();
+			TraceContext.exit(tmpPrevTrace);
 		}
 	}
 
 	private void handleOnQuickSearcAction(ActionEvent theEvent) {
-		ViewEditableDataRow tmpEditedRow = (ViewEditableDataRow)((Node)theEvent.getSource()).getParent().getParent();
-		List<ViewDataCell<?>> tmpCrit = tmpEditedRow.getCells().stream().map(ViewEditableDataCell::getOriginalCell).collect(Collectors.toList());
-		String tmpSplitOnCol = null, tmpSplitColName = null;
-		switch (tmpCrit.get(0).getTableName()) {
-			case "personnel":
-				tmpSplitOnCol = "show_count";
-				tmpSplitColName = "show";
-				break;
-			case "show":
-				tmpSplitOnCol = "personnel_count";
-				tmpSplitColName = "personnel";
+		long tmpPrevTrace = TraceContext.enter(TraceContext.newId());
+		TraceSearchEvent tmpTrace = new TraceSearchEvent("quick");
+		try {
+			ViewEditableDataRow tmpEditedRow = (ViewEditableDataRow)((Node)theEvent.getSource()).getParent().getParent();
+			List<ViewDataCell<?>> tmpCrit = tmpEditedRow.getCells().stream().map(ViewEditableDataCell::getOriginalCell).collect(Collectors.toList());
+			String tmpSplitOnCol = null, tmpSplitColName = null;
+			switch (tmpCrit.get(0).getTableName()) {
+				case "personnel":
+				case "personnel_fts":
+					tmpSplitOnCol = "show_count";
+					tmpSplitColName = "show";
+					break;
+				case "show":
+				case "show_fts":
+					tmpSplitOnCol = "personnel_count";
+					tmpSplitColName = "personnel";
+			}
+			List<ViewDataRow> tmpSearch = this.meObserver.searchDataRequested(tmpCrit, tmpEditedRow.getPreparedStatement(), () -> Platform.runLater(this::refreshSearchResults));
+			this.setBottom(null);
+			if (this.getCenter() instanceof SplitPane) {
+				((SplitPane)this.getCenter()).getItems().set(1, new ViewTablePane(tmpSearch, null, tmpSplitOnCol, tmpSplitColName));
+			} else {
+				SplitPane.setResizableWithParent(this.getCenter(), false);
+				SplitPane tmpSplit = new SplitPane(this.getCenter(), new ViewTablePane(tmpSearch, null, tmpSplitOnCol, tmpSplitColName));
+				tmpSplit.setOrientation(Orientation.VERTICAL);
+				this.setCenter(tmpSplit);
+			}
+			double tmpPos = ((VBox)tmpEditedRow.getParent()).getHeight() / Math.max(this.meMid.getHeight(), ((SplitPane)this.getCenter()).getHeight()) + 0.02;
+			((SplitPane)this.getCenter()).setDividerPosition(0, tmpPos);
+			tmpTrace.finish(tmpSearch.size());
+		} finally {
+			tmpTrace.close();
+			TraceContext.exit(tmpPrevTrace);
 		}
-		List<ViewDataRow> tmpSearch = this.meObserver.searchDataRequested(tmpCrit, tmpEditedRow.getPreparedStatement());
-		this.setBottom(null);
-		if (this.getCenter() instanceof SplitPane) {
-			((SplitPane)this.getCenter()).getItems().set(1, new ViewTablePane(tmpSearch, null, tmpSplitOnCol, tmpSplitColName));
-		} else {
-			SplitPane.setResizableWithParent(this.getCenter(), false);
-			SplitPane tmpSplit = new SplitPane(this.getCenter(), new ViewTablePane(tmpSearch, null, tmpSplitOnCol, tmpSplitColName));
-			tmpSplit.setOrientation(Orientation.VERTICAL);
-			this.setCenter(tmpSplit);
+	}
+
+	private void refreshSearchResults() { // Shows the result rows loaded since shown empty (a late call for older results only refreshes the current ones)
+		if (this.getCenter() instanceof SplitPane && ((SplitPane)this.getCenter()).getItems().get(1) instanceof ViewTablePane) {
+			((ViewTablePane)((SplitPane)this.getCenter()).getItems().get(1)).refreshRows();
 		}
-		double tmpPos = ((VBox)tmpEditedRow.getParent()).getHeight() / Math.max(this.meMid.getHeight(), ((SplitPane)this.getCenter()).getHeight()) + 0.02;
-		((SplitPane)this.getCenter()).setDividerPosition(0, tmpPos);
 	}
 
 	public static Region createHiddenRegion(Node bountTo, double theShift) { // This part voids MVC but did it to speedup assignment work
@@ -3,13 +3,19 @@ package view;
 //import java.awt.Desktop;
 import java.io.IOException;
 //import java.nio.file.Paths;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
-import javafx.beans.property.SimpleObjectProperty;
+import java.util.stream.IntStream;
+import trace.TraceRenderEvent;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
@@ -22,6 +28,7 @@ import javafx.scene.control.TableView;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 
@@ -30,103 +37,408 @@ import javafx.scene.text.Font;
  * @author Janty Azmat
  */
 class ViewTablePane extends BorderPane {
+
+	/**
+	 * A class that represents the right parts of the rows grouped under a left part (in split-on-column mode), along with
+	 * the columns layout of the group (shared by the groups of the same columns) and whether the group is expanded (kept
+	 * here since the table cells that show the groups are recycled while scrolling). The rows of a group aggregated by the
+	 * database are only read (and the layout found) when the group is first expanded.
+	 * @author Janty Azmat
+	 */
+	private static class ViewNestedGroup {
+		// Fields
+		private List<ViewDataRow> meSource;
+		private ObservableList<ViewDataRow> meRows;
+		private List<ViewDataCell<?>> meLayout;
+		private boolean meIsExpanded;
+
+		ViewNestedGroup(List<ViewDataRow> theRows, List<ViewDataCell<?>> theLayout) {
+			this.meSource = theRows;
+			this.meLayout = theLayout;
+		}
+
+		ObservableList<ViewDataRow> getRows() {
+			if (this.meRows == null) {
+				this.meRows = FXCollections.observableList(new ArrayList<>(this.meSource)); // (Copied once, as aggregated rows are parsed whenever read)
+				this.meSource = null;
+			}
+			return this.meRows;
+		}
+	}
+
+	/**
+	 * A class that represents the left cells of a row (the leading cells of its cells list), hashed once with their order
+	 * mixed in, used to group the rows that have similar left parts.
+	 * @author Janty Azmat
+	 */
+	private static class ViewGroupKey {
+		// Fields
+		private List<ViewDataCell<?>> meCells;
+		private int meCount;
+		private int meHash;
+
+		ViewGroupKey(List<ViewDataCell<?>> theCells, int cellCount) {
+			this.meCells = theCells;
+			this.meCount = cellCount;
+			int tmpHash = cellCount;
+			for (int i = 0; i < cellCount; i++) {
+				tmpHash = 31 * tmpHash + theCells.get(i).hashCode();
+			}
+			tmpHash ^= tmpHash >>> 16;	//
+			tmpHash *= 0x85EBCA6B;		//
+			tmpHash ^= tmpHash >>> 13;	// Spreads the bits (the MurmurHash3 finalizer)
+			tmpHash *= 0xC2B2AE35;		//
+			this.meHash = tmpHash ^ (tmpHash >>> 16);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ViewGroupKey) || ((ViewGroupKey)obj).meHash != this.meHash || ((ViewGroupKey)obj).meCount != this.meCount) {
+				return false;
+			}
+			ViewGroupKey tmpOther = (ViewGroupKey)obj;
+			for (int i = 0; i < this.meCount; i++) {
+				if (!this.meCells.get(i).equals(tmpOther.meCells.get(i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.meHash;
+		}
+	}
+
+	/**
+	 * A class that represents a table cell that shows a group of rows as an expandable nested table. The nested table is
+	 * created once per cell (when first expanded) and reused for every group the cell shows; its columns are only rebuilt
+	 * when the group has a different columns layout.
+	 * @author Janty Azmat
+	 */
+	private class ViewNestedCell<X> extends TableCell<ViewDataRow, X> {
+		// Fields
+		private String meRowsName;
+		private Hyperlink meToggle;
+		private TableView<ViewDataRow> meNested;
+		private VBox meBox;
+		private ViewNestedGroup meGroup;
+
+		ViewNestedCell(String rowsName) {
+			this.meRowsName = rowsName;
+			this.meToggle = new Hyperlink();
+			this.meToggle.setOnAction(ev -> {
+				this.meToggle.setVisited(false);
+				if (this.meGroup != null) {
+					this.meGroup.meIsExpanded = !this.meGroup.meIsExpanded;
+					this.showGroup();
+					this.requestLayout(); // For the row height to follow (only this row, so the other cells and their nested tables are kept)
+					if (this.getTableRow() != null) {
+						this.getTableRow().requestLayout();
+					}
+				}
+			});
+			this.meBox = new VBox(this.meToggle);
+		}
+
+		@Override
+		public void updateItem(X cellData, boolean isEmpty) {
+			super.updateItem(cellData, isEmpty);
+			this.setText(null);
+			if (isEmpty || cellData == null) {
+				this.meGroup = null;
+				this.setGraphic(null);
+			} else {
+				this.meGroup = (ViewNestedGroup)cellData;
+				this.showGroup();
+				this.setGraphic(this.meBox);
+			}
+		}
+
+		private void showGroup() {
+			this.meToggle.setText((this.meGroup.meIsExpanded ? "\u25BE " : "\u25B8 ") + this.meRowsName); // (The count would read the rows of every group shown)
+			if (this.meGroup.meIsExpanded) {
+				if (this.meGroup.meLayout == null) {
+					this.meGroup.meLayout = findLayout(this.meGroup.getRows());
+				}
+				if (this.meNested == null) {
+					this.meNested = new TableView<>();
+					this.meNested.setPlaceholder(new Label("No Content To Show"));
+					this.meNested.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+					this.meNested.setFixedCellSize(me_NESTED_ROW_HEIGHT); // (Rows of a known height are recycled without measuring them)
+					this.meNested.setStyle("-fx-selection-bar: sandybrown;");
+				}
+				if (this.meNested.getUserData() != this.meGroup.meLayout) { // Only when the columns differ from the previous group shown
+					this.meNested.getColumns().setAll(IntStream.range(0, this.meGroup.meLayout.size()).mapToObj(i -> createColumn(this.meGroup.meLayout.get(i), i)).collect(Collectors.toList()));
+					this.meNested.setUserData(this.meGroup.meLayout);
+				}
+				this.meNested.setItems(this.meGroup.getRows());
+				double tmpHeight = Math.min(me_NESTED_MAX_HEIGHT, Math.max(me_NESTED_MIN_HEIGHT, me_NESTED_ROW_HEIGHT * (this.meGroup.getRows().size() + 1.5))); // (Plus the header)
+				this.meNested.setMinHeight(tmpHeight);
+				this.meNested.setPrefHeight(tmpHeight);
+				this.meNested.setMaxHeight(tmpHeight);
+				if (this.meBox.getChildren().size() == 1) {
+					this.meBox.getChildren().add(this.meNested);
+				}
+			} else if (this.meBox.getChildren().size() > 1) {
+				this.meBox.getChildren().remove(1);
+			}
+		}
+	}
+
 	// Fields
 	private static final Insets me_SML_PAD = new Insets(4.0); // For small padding
 	private static final Font me_GEN_FONT = Font.font(18.0); // For general purpose font size
+	private static final int me_LAYOUT_ROWS = 200; // Number of leading rows used to lay out the columns (so the rows that are not shown yet are not loaded)
+	private static final double me_NESTED_ROW_HEIGHT = 24.0;	//
+	private static final double me_NESTED_MIN_HEIGHT = 110.0;	// Nested tables sizes
+	private static final double me_NESTED_MAX_HEIGHT = 200.0;	//
 	private TableView<ViewDataRow> meTable;
 	private int meLeftColCount;
 	private int meRightColCount;
+	private Map<List<String>, List<ViewDataCell<?>>> meLayouts; // Groups of the same columns share their layout (so a reused nested table keeps its columns)
 
 	public ViewTablePane(List<ViewDataRow> theData, EventHandler<MouseEvent> doubleClickHandler, String splitSimilarOnCol, String splitColName) {
-		this.meTable = new TableView<ViewDataRow>();
-		Label tmpLabel = new Label();
-		AnchorPane tmpTop = new AnchorPane(tmpLabel);
-		AnchorPane tmpCen = new AnchorPane(this.meTable);
-		this.anchorNode(tmpLabel);
-		this.anchorNode(this.meTable);
-		this.meTable.setStyle("-fx-selection-bar: sandybrown;");
-		if (theData == null || theData.isEmpty()) {
-			this.meTable.setPlaceholder(new Label("No Content To Show"));
-		} else {
-			tmpLabel.setTextFill(Color.RED);
-			tmpLabel.setStyle("-fx-font-weight: bold;");
-			tmpLabel.setPadding(me_SML_PAD);
-			tmpLabel.setFont(me_GEN_FONT);
-			tmpLabel.setWrapText(true);
-			tmpLabel.setText("Statement for this search:\n" + theData.get(0).getPreparedStatement());
-			if (doubleClickHandler != null) {
-				this.meTable.setRowFactory(tView -> {
-					TableRow<ViewDataRow> tmpRow = new TableRow<>();
-					tmpRow.setOnMouseClicked(ev -> {
-						if (ev.getClickCount() == 2 && !tmpRow.isEmpty()) {
-							doubleClickHandler.handle(ev);
-						}
-					});
-					return tmpRow;
-				});
-			}
-			if (splitSimilarOnCol == null || splitSimilarOnCol.isEmpty()) {
-				this.meTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
-				ViewDataRow tmpLongest = theData.stream().max((row1, row2) -> row1.getCells().size() - row2.getCells().size()).get();
-				this.meLeftColCount = tmpLongest.getCells().size();
-				this.meRightColCount = 0;
-				tmpLongest.getCells().forEach(cell -> this.meTable.getColumns().add(this.createColumn(cell)));
-
+		TraceRenderEvent tmpTrace = new TraceRenderEvent(); // (For the trace of the search shown)
+		try {
+			this.meTable = new TableView<ViewDataRow>();
+			this.meLayouts = new HashMap<>();
+			Label tmpLabel = new Label();
+			AnchorPane tmpTop = new AnchorPane(tmpLabel);
+			AnchorPane tmpCen = new AnchorPane(this.meTable);
+			this.anchorNode(tmpLabel);
+			this.anchorNode(this.meTable);
+			this.meTable.setStyle("-fx-selection-bar: sandybrown;");
+			if (theData == null || theData.isEmpty()) {
+				this.meTable.setPlaceholder(new Label("No Content To Show"));
 			} else {
-				this.meTable.setColumnResizePolicy(rf -> {
-					if (rf.getColumn() == null) {
-						double tmpColWidth = (rf.getTable().getWidth() - 20.0) / (this.meLeftColCount + this.meRightColCount);
-						int i;
-						for (i = 0; i < rf.getTable().getColumns().size() - 1; i ++) {
-							((TableColumn<?, ?>)rf.getTable().getColumns().get(i)).setPrefWidth(tmpColWidth);
-						}
-						if (!rf.getTable().getColumns().isEmpty()) {
-							((TableColumn<?, ?>)rf.getTable().getColumns().get(i)).setPrefWidth(tmpColWidth * this.meRightColCount);
-						}
-					} else {
-						rf.getColumn().setPrefWidth(rf.getColumn().getWidth() + rf.getDelta());
+				tmpLabel.setTextFill(Color.RED);
+				tmpLabel.setStyle("-fx-font-weight: bold;");
+				tmpLabel.setPadding(me_SML_PAD);
+				tmpLabel.setFont(me_GEN_FONT);
+				tmpLabel.setWrapText(true);
+				tmpLabel.setText("Statement for this search:\n" + theData.stream().filter(Objects::nonNull).findFirst().map(ViewDataRow::getPreparedStatement).orElse(""));
+				if (doubleClickHandler != null) {
+					this.meTable.setRowFactory(tView -> {
+						TableRow<ViewDataRow> tmpRow = new TableRow<>();
+						tmpRow.setOnMouseClicked(ev -> {
+							if (ev.getClickCount() == 2 && !tmpRow.isEmpty() && tmpRow.getItem() != null) {
+								doubleClickHandler.handle(ev);
+							}
+						});
+						return tmpRow;
+					});
+				}
+				if (splitSimilarOnCol == null || splitSimilarOnCol.isEmpty()) {
+					this.meTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+					List<ViewDataCell<?>> tmpLongest = theData.stream().limit(me_LAYOUT_ROWS).filter(Objects::nonNull).map(ViewDataRow::getCells) // (Rows deleted since counted are null)
+							.max((cells1, cells2) -> cells1.size() - cells2.size()).orElse(List.of());
+					this.meLeftColCount = tmpLongest.size();
+					this.meRightColCount = 0;
+					for (int i = 0; i < tmpLongest.size(); i++) {
+						this.meTable.getColumns().add(this.createColumn(tmpLongest.get(i), i));
 					}
-					return true;
-				});
-				Map<ViewDataRow, List<ViewDataRow>> tmpSplit = new LinkedHashMap<>();
-				boolean tmpFound;
-				for (ViewDataRow row : theData) {
-					ViewDataRow tmpLeftRow = new ViewDataRow(row.getTableName(), row.getPreparedStatement());
-					ViewDataRow tmpRightRow = new ViewDataRow(row.getTableName(), row.getPreparedStatement());
-					tmpFound = false;
-					for (ViewDataCell<?> cell : row.getCells()) {
-						if (tmpFound) {
-							tmpRightRow.addCell(cell);
-						} else {
-							tmpLeftRow.addCell(cell);
-							if (cell.getColumnName().equals(splitSimilarOnCol)) {
-								tmpFound = true;
+				} else {
+					this.meTable.setColumnResizePolicy(rf -> {
+						if (rf.getColumn() == null) {
+							double tmpColWidth = (rf.getTable().getWidth() - 20.0) / (this.meLeftColCount + this.meRightColCount);
+							int i;
+							for (i = 0; i < rf.getTable().getColumns().size() - 1; i ++) {
+								((TableColumn<?, ?>)rf.getTable().getColumns().get(i)).setPrefWidth(tmpColWidth);
+							}
+							if (!rf.getTable().getColumns().isEmpty()) {
+								((TableColumn<?, ?>)rf.getTable().getColumns().get(i)).setPrefWidth(tmpColWidth * this.meRightColCount);
 							}
+						} else {
+							rf.getColumn().setPrefWidth(rf.getColumn().getWidth() + rf.getDelta());
+						}
+						return true;
+					});
+					final List<ViewDataRow> tmpData = theData;
+					int tmpFirst = IntStream.range(0, Math.min(me_LAYOUT_ROWS, tmpData.size())).filter(i -> tmpData.get(i) != null).findFirst().orElse(0); // (Rows deleted since counted are null)
+					ViewDataRow tmpLongest;
+					if (indexOfNested(theData.get(tmpFirst)) >= 0) { // Already grouped by the database (the groups are read when expanded)
+						theData = wrapNestedRows(theData, splitColName);
+						tmpLongest = theData.get(tmpFirst);
+						this.meLeftColCount = tmpLongest.getCells().size() - 1;
+						this.meRightColCount = Math.max(1, ((ViewNestedGroup)tmpLongest.getCells().get(this.meLeftColCount).getValue()).getRows().stream()
+								.mapToInt(row -> row.getCells().size()).max().orElse(0)); // (Only the first group is read up front)
+					} else {
+						Map<ViewDataRow, List<ViewDataRow>> tmpSplit = splitSimilarRows(theData, splitSimilarOnCol);
+						theData = tmpSplit.keySet().stream().collect(Collectors.toList());
+						tmpLongest = theData.stream().max((row1, row2) -> row1.getCells().size() - row2.getCells().size()).orElse(new ViewDataRow("", ""));
+						this.meLeftColCount = tmpLongest.getCells().size();
+						this.meRightColCount = 0;
+						for (Map.Entry<ViewDataRow, List<ViewDataRow>> entry : tmpSplit.entrySet()) { // The layout of every group is found once (not whenever its cell is shown)
+							List<ViewDataCell<?>> tmpLayout = this.findLayout(entry.getValue());
+							this.meRightColCount = Math.max(this.meRightColCount, tmpLayout.size());
+							entry.getKey().addCell(new ViewDataCell<>(splitColName, entry.getKey().getTableName(), new ViewNestedGroup(entry.getValue(), tmpLayout), ViewNestedGroup.class, false, false));
 						}
 					}
-					if (!tmpSplit.containsKey(tmpLeftRow)) {
-						tmpSplit.put(tmpLeftRow, new LinkedList<>());
+					for (int i = 0; i < tmpLongest.getCells().size(); i++) {
+						this.meTable.getColumns().add(this.createColumn(tmpLongest.getCells().get(i), i));
 					}
-					tmpSplit.get(tmpLeftRow).add(tmpRightRow);
 				}
-				theData = tmpSplit.keySet().stream().collect(Collectors.toList());
-				ViewDataRow tmpLongest = theData.stream().max((row1, row2) -> row1.getCells().size() - row2.getCells().size()).get();
-				this.meLeftColCount = tmpLongest.getCells().size();
-				this.meRightColCount = theData.stream().flatMap(row -> tmpSplit.get(row).stream()).max((row1, row2) -> row1.getCells().size() - row2.getCells().size()).get().getCells().size();
-				tmpSplit.entrySet().forEach(entry -> entry.getKey().addCell(new ViewDataCell<>(splitColName, entry.getKey().getTableName(), entry.getValue(), List.class, false, false)));
-				tmpLongest.getCells().forEach(cell -> this.meTable.getColumns().add(this.createColumn(cell)));
+				final List<ViewDataRow> tmpRows = theData;
+				ObservableList<ViewDataRow> tmpItems = FXCollections.observableList(tmpRows); // Wraps (without copying) the rows, so only the rows shown are loaded (and shown empty until loaded)
+				this.meTable.setSortPolicy(tbl -> {
+					if (tbl.getItems() == tmpItems && !tbl.getSortOrder().isEmpty()) { // Sorting needs all the rows, so they are copied only when sorted
+						tbl.setItems(FXCollections.observableArrayList(tmpRows)); // (Copied by walking the rows, which waits for the rows not loaded yet)
+					}
+					return TableView.DEFAULT_SORT_POLICY.call(tbl);
+				});
+				this.meTable.setItems(tmpItems);
+			}
+			this.setTop(tmpTop);
+			this.setCenter(tmpCen);
+			tmpTrace.finish(theData == null ? 0 : theData.size());
+		} finally {
+			tmpTrace.close();
+		}
+	}
+
+	/**
+	 * Shows the rows loaded since they were shown empty (the rows of a search result are loaded off the JavaFX application
+	 * thread, when first shown).
+	 */
+	public void refreshRows() {
+		this.meTable.refresh();
+	}
+
+	/**
+	 * Splits every row on the specified column, and groups the right parts of the rows that have similar left parts.
+	 * @param theData			the rows to split
+	 * @param splitSimilarOnCol	the name of the last column of the left parts
+	 * @return					the left parts (in the order first found) mapped to the right parts of their rows
+	 */
+	static Map<ViewDataRow, List<ViewDataRow>> splitSimilarRows(List<ViewDataRow> theData, String splitSimilarOnCol) {
+		Map<ViewDataRow, List<ViewDataRow>> outSplit = new LinkedHashMap<>();
+		Map<ViewGroupKey, List<ViewDataRow>> tmpGroups = new HashMap<>(); // Hashed on the left cells of the rows (without copying them)
+		ViewGroupKey tmpLastKey = null;
+		List<ViewDataRow> tmpLastGroup = null;
+		for (ViewDataRow row : theData) {
+			if (row == null) { // (Deleted since counted)
+				continue;
 			}
-			this.meTable.getItems().addAll(FXCollections.observableList(theData));
+			List<ViewDataCell<?>> tmpCells = row.getCells();
+			int tmpLeftCount = 0;
+			while (tmpLeftCount < tmpCells.size() && !tmpCells.get(tmpLeftCount++).getColumnName().equals(splitSimilarOnCol)) {} // (All the cells if the column is not found)
+			ViewGroupKey tmpKey = new ViewGroupKey(tmpCells, tmpLeftCount);
+			List<ViewDataRow> tmpGroup = tmpKey.equals(tmpLastKey) ? tmpLastGroup : tmpGroups.get(tmpKey); // The rows of a group usually follow each other (ordered statements)
+			if (tmpGroup == null) {
+				tmpGroup = new ArrayList<>();
+				tmpGroups.put(tmpKey, tmpGroup);
+				outSplit.put(new ViewDataRow(row.getTableName(), row.getPreparedStatement(), tmpCells.subList(0, tmpLeftCount)), tmpGroup);
+			}
+			tmpGroup.add(new ViewDataRow(row.getTableName(), row.getPreparedStatement(), tmpCells.subList(tmpLeftCount, tmpCells.size())));
+			tmpLastKey = tmpKey;
+			tmpLastGroup = tmpGroup;
 		}
-		this.setTop(tmpTop);
-		this.setCenter(tmpCen);
+		return outSplit;
+	}
+
+	/**
+	 * Used to get the columns layout of a group of rows (the cells of its longest row), shared with the previous groups of
+	 * the same columns.
+	 * @param theRows	the rows of the group
+	 * @return			the columns layout
+	 */
+	private List<ViewDataCell<?>> findLayout(List<ViewDataRow> theRows) {
+		List<ViewDataCell<?>> tmpCells = theRows.stream().max((row1, row2) -> row1.getCells().size() - row2.getCells().size()).map(ViewDataRow::getCells).orElse(List.of());
+		return this.meLayouts.computeIfAbsent(tmpCells.stream().map(ViewDataCell::getColumnName).collect(Collectors.toList()), names -> tmpCells);
+	}
+
+	private static int indexOfNested(ViewDataRow theRow) { // The cell of the rows aggregated by the database (or -1 if none)
+		if (theRow == null) {
+			return -1;
+		}
+		for (int i = 0; i < theRow.getCells().size(); i++) {
+			if (List.class == theRow.getCells().get(i).getValueClass()) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Wraps the rows whose right parts were aggregated by the database (into a cell of rows), so every row is shown with its
+	 * left cells and a group of its aggregated rows. The wrapping rows are created when first accessed (then kept, so the
+	 * groups stay expanded while scrolling); a row not loaded yet is got as null (and wrapped when got once loaded), while
+	 * walking the rows waits for them like walking the wrapped rows does.
+	 * @param theData		the rows with aggregated right parts
+	 * @param splitColName	the name given to the column of the groups
+	 * @return				the wrapping rows
+	 */
+	private static List<ViewDataRow> wrapNestedRows(List<ViewDataRow> theData, String splitColName) {
+		ViewDataRow[] tmpWrapped = new ViewDataRow[theData.size()];
+		return new AbstractList<ViewDataRow>() {
+
+			@Override
+			public ViewDataRow get(int index) {
+				if (tmpWrapped[index] == null) {
+					ViewDataRow tmpRow = theData.get(index);
+					if (tmpRow == null) { // (Not loaded yet, or deleted since counted)
+						return null;
+					}
+					tmpWrapped[index] = wrapNestedRow(tmpRow, splitColName);
+				}
+				return tmpWrapped[index];
+			}
+
+			@Override
+			public Iterator<ViewDataRow> iterator() {
+				Iterator<ViewDataRow> tmpSource = theData.iterator();
+				return new Iterator<ViewDataRow>() {
+					// Fields
+					private int meIndex;
+
+					@Override
+					public boolean hasNext() {
+						return tmpSource.hasNext();
+					}
+
+					@Override
+					public ViewDataRow next() {
+						ViewDataRow tmpRow = tmpSource.next();
+						if (tmpWrapped[this.meIndex] == null && tmpRow != null) {
+							tmpWrapped[this.meIndex] = wrapNestedRow(tmpRow, splitColName);
+						}
+						return tmpWrapped[this.meIndex++];
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return tmpWrapped.length;
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ViewDataRow wrapNestedRow(ViewDataRow theRow, String splitColName) {
+		int tmpNestedAt = indexOfNested(theRow);
+		return new ViewDataRow(theRow.getTableName(), theRow::getPreparedStatement, tmpNestedAt + 1, i -> i < tmpNestedAt ? theRow.getCells().get(i)
+				: new ViewDataCell<>(splitColName, theRow.getTableName(), new ViewNestedGroup((List<ViewDataRow>)theRow.getCells().get(tmpNestedAt).getValue(), null), ViewNestedGroup.class, false, false));
 	}
 
+	/**
+	 * Creates a table column that shows the cells at the specified index of the rows.
+	 * @param <X>		the type of the values of the column
+	 * @param forCell	the cell that the column is created for (its name and type)
+	 * @param colIndex	the index of the cells shown by the column (captured, so it stays bound if the column is moved)
+	 * @return			the table column
+	 */
 	@SuppressWarnings("unchecked")
-	private <X> TableColumn<ViewDataRow, X> createColumn(ViewDataCell<X> forCell) {
+	private <X> TableColumn<ViewDataRow, X> createColumn(ViewDataCell<X> forCell, int colIndex) {
 		TableColumn<ViewDataRow, X> outCol = new TableColumn<ViewDataRow, X>();
 		outCol.setCellValueFactory(cdf -> {
-			return new SimpleObjectProperty<X>((X)cdf.getValue().getCells().get(cdf.getTableView().getColumns().indexOf(cdf.getTableColumn())).getValue());
+			if (cdf.getValue() == null) { // (Rows deleted since counted, and the empty rows)
+				return null;
+			}
+			List<ViewDataCell<?>> tmpCells = cdf.getValue().getCells();
+			return colIndex < tmpCells.size() ? ((ViewDataCell<X>)tmpCells.get(colIndex)).valueProperty() : null; // (Shorter rows leave the column empty)
 		});
 		if (forCell.getColumnName().equals("folder")) {
 			outCol.setCellFactory(tc -> {
@@ -162,33 +474,8 @@ class ViewTablePane extends BorderPane {
 				};
 				return outTableCell;
 			});
-		} else if (List.class == forCell.getValueClass()) {
-			outCol.setCellFactory(tc -> {
-				TableCell<ViewDataRow, X> outTableCell = new TableCell<ViewDataRow, X>() {
-					@Override
-					public void updateItem(X cellData, boolean isEmpty) {
-						super.updateItem(cellData, isEmpty);
-						if (isEmpty) {
-							this.setGraphic(null);
-							this.setText(null);
-						} else {
-							TableView<ViewDataRow> tmpTbl = new TableView<ViewDataRow>();
-							List<ViewDataRow> tmpItemList = (List<ViewDataRow>)cellData;
-							tmpTbl.setPlaceholder(new Label("No Content To Show"));
-							tmpTbl.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
-							tmpTbl.setMinHeight(110.0);
-							tmpTbl.setPrefHeight(110.0);
-							tmpTbl.setMaxHeight(200.0);
-							tmpTbl.setStyle("-fx-selection-bar: sandybrown;");
-							tmpItemList.stream().max((row1, row2) -> row1.getCells().size() - row2.getCells().size()).get().getCells().forEach(cell -> tmpTbl.getColumns().add(createColumn(cell)));
-							tmpTbl.getItems().addAll(tmpItemList);
-							this.setText(null);
-							this.setGraphic(tmpTbl);
-						}
-					}
-				};
-				return outTableCell;
-			});
+		} else if (ViewNestedGroup.class == forCell.getValueClass()) {
+			outCol.setCellFactory(tc -> new ViewNestedCell<>(forCell.getColumnName()));
 		}
 		outCol.setText(forCell.getColumnName());
 		outCol.setStyle( "-fx-alignment: center;"); // -fx-padding: 10 10 10 10;